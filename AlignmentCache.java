@@ -0,0 +1,154 @@
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.base.Preconditions;
+import java.util.Objects;
+
+/**
+ *class AlignmentCache: size-bounded, thread-safe memo of Smith-Waterman alignments, installed with Oligo.setAlignmentCache(). Entries are keyed on the source and
+ *query sequences plus the wildcards, case sensitivity and scoring that affect the alignment; the allowed inserts and deletes are applied after lookup, so one entry serves
+ *every (ins, del) limit. Least recently used entries are evicted once maximumSize is reached
+ *
+ *Only the single-alignment calls (smithWaterman(), getFuzzySWkey() and their variants) use the cache; indel-aware searches align a new window at every start
+ *coordinate and bypass it
+ *
+ *Entries hold references to their source sequences, so size the cache with the source lengths in mind
+ */
+public final class AlignmentCache
+{
+	private final Cache<Key, Alignment> cache;
+
+	/**
+	 * Constructor: creates an empty cache
+	 *
+	 * @param maximumSize maximum number of cached alignments
+	 */
+	public AlignmentCache(long maximumSize)
+	{
+		Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive: %s", maximumSize);
+		cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+
+	/**
+	 * Returns the hit, miss and eviction counts since this cache was created
+	 *
+	 * @return CacheStats snapshot
+	 */
+	public CacheStats stats()
+	{
+		return cache.stats();
+	}
+
+
+	public long size()
+	{
+		return cache.size();
+	}
+
+
+	public void invalidateAll()
+	{
+		cache.invalidateAll();
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return "AlignmentCache[size=" + cache.size() + ", " + cache.stats() + "]";
+	}
+
+
+	Alignment get(String source, String query, SearchOptions options)
+	{
+		return cache.getIfPresent(new Key(source, query, options));
+	}
+
+
+	void put(String source, String query, SearchOptions options, Alignment alignment)
+	{
+		cache.put(new Key(source, query, options), alignment);
+	}
+
+
+	/**
+	 * Result of aligning a query against a source: the key and the number of inserts and deletes in the source it needed
+	 */
+	static final class Alignment
+	{
+		private final Oligo key;
+		private final int insertions;
+		private final int deletions;
+
+		Alignment(Oligo key, int insertions, int deletions)
+		{
+			this.key = key;
+			this.insertions = insertions;
+			this.deletions = deletions;
+		}
+
+
+		Oligo getKey()
+		{
+			return key;
+		}
+
+
+		int getInsertions()
+		{
+			return insertions;
+		}
+
+
+		int getDeletions()
+		{
+			return deletions;
+		}
+	} //end Alignment class
+
+
+	private static final class Key
+	{
+		private final String source;
+		private final String query;
+		private final String wildcards;
+		private final boolean caseSensitive;
+		private final double matchScore;
+		private final double mismatchScore;
+		private final double gapOpen;
+		private final double gapExtend;
+		private final int hash;
+
+		Key(String source, String query, SearchOptions options)
+		{
+			this.source = source;
+			this.query = query;
+			wildcards = options.getWildcards();
+			caseSensitive = options.isCaseSensitive();
+			matchScore = options.getMatchScore();
+			mismatchScore = options.getMismatchScore();
+			gapOpen = options.getGapOpen();
+			gapExtend = options.getGapExtend();
+			hash = 31 * (31 * source.hashCode() + query.hashCode()) + Objects.hash(wildcards, caseSensitive, matchScore, mismatchScore, gapOpen, gapExtend);
+		}
+
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if(!(o instanceof Key))
+				return false;
+			Key k = (Key) o;
+			return hash == k.hash && caseSensitive == k.caseSensitive && matchScore == k.matchScore && mismatchScore == k.mismatchScore && gapOpen == k.gapOpen
+					&& gapExtend == k.gapExtend && wildcards.equals(k.wildcards) && query.equals(k.query) && source.equals(k.source);
+		}
+
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	} //end Key class
+} //end AlignmentCache class
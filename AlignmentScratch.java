@@ -0,0 +1,49 @@
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+
+/**
+ *class AlignmentScratch: reusable scores matrix for Oligo.smithWaterman(). One instance per thread; instances are not thread-safe
+ *
+ *Scratch buffers live as long as their (often pooled) threads, so only matrices of up to MAX_RETAINED_CELLS are kept; larger alignments get a one-off matrix that
+ *is collected with the alignment
+ */
+final class AlignmentScratch
+{
+	static final int MAX_RETAINED_CELLS = 1 << 22; //16 MiB, i.e. a 2 kb x 2 kb alignment
+	static final int MAX_CELLS = Integer.MAX_VALUE - 8; //largest array most VMs will allocate
+	private float[] matrix = new float[0];
+	private long allocatedCells;
+
+	/**
+	 * Returns a zeroed matrix of at least the requested number of cells, growing the buffer only when it is too small. Requests above MAX_RETAINED_CELLS are
+	 * allocated without replacing the retained buffer
+	 *
+	 * @param cells number of cells needed, i.e. (query length + 1) * (source length + 1)
+	 * @return float[] zeroed over its first 'cells' entries
+	 * @throws IllegalArgumentException if cells exceeds MAX_CELLS, i.e. the alignment is too large for one array
+	 */
+	float[] matrix(long cells)
+	{
+		Preconditions.checkArgument(cells <= MAX_CELLS, "Alignment needs %s cells, more than the %s a scores matrix can hold", cells, MAX_CELLS);
+		int size = (int) cells;
+		if(matrix.length >= size)
+		{
+			Arrays.fill(matrix, 0, size, 0f);
+			return matrix;
+		}
+		allocatedCells += size;
+		if(size > MAX_RETAINED_CELLS)
+			return new float[size];
+		matrix = new float[size];
+		return matrix;
+	} //end matrix()
+
+
+	/**
+	 * Returns the total number of cells allocated by matrix() so far
+	 */
+	long allocatedCells()
+	{
+		return allocatedCells;
+	}
+} //end AlignmentScratch class
@@ -0,0 +1,150 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ *class BatchAligner: runs many indel-aware alignments (Oligo.getFuzzySWkey() equivalents) concurrently. Jobs run on a work-stealing pool (or a caller-supplied
+ *executor), every worker thread reuses its own scores matrix (up to 16 MiB; larger alignments allocate and drop their own), and at most 'maxInFlight' jobs are
+ *queued or running at any time; submit() blocks until a slot frees
+ */
+public class BatchAligner implements AutoCloseable
+{
+	private static final ThreadLocal<AlignmentScratch> SCRATCH = ThreadLocal.withInitial(AlignmentScratch::new);
+	private final ExecutorService executor;
+	private final boolean ownsExecutor;
+	private final int maxInFlight;
+	private final Semaphore inFlight;
+
+	/**
+	 * Constructor: runs jobs on a new work-stealing pool sized to the available processors
+	 *
+	 * @param maxInFlight maximum number of submitted but unfinished jobs
+	 */
+	public BatchAligner(int maxInFlight)
+	{
+		this(Executors.newWorkStealingPool(), true, maxInFlight);
+	}
+
+
+	/**
+	 * Constructor: runs jobs on the given executor, which the caller remains responsible for shutting down. Scratch matrices are cached per thread, so executors that
+	 * start a new thread per task (i.e. virtual threads) do not benefit from buffer reuse
+	 *
+	 * @param executor executor that runs the alignments
+	 * @param maxInFlight maximum number of submitted but unfinished jobs
+	 */
+	public BatchAligner(ExecutorService executor, int maxInFlight)
+	{
+		this(executor, false, maxInFlight);
+	}
+
+
+	private BatchAligner(ExecutorService executor, boolean ownsExecutor, int maxInFlight)
+	{
+		if(maxInFlight < 1)
+			throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+		this.executor = executor;
+		this.ownsExecutor = ownsExecutor;
+		this.maxInFlight = maxInFlight;
+		this.inFlight = new Semaphore(maxInFlight);
+	}
+
+
+	/**
+	 * Schedules one alignment, blocking while 'maxInFlight' jobs are already pending. The future completes with the found key, or exceptionally with an
+	 * OligoException if the query is not found within the job's limits
+	 *
+	 * @param job alignment to run
+	 * @return CompletableFuture of the found key
+	 * @throws InterruptedException if interrupted while waiting for a free slot
+	 */
+	public CompletableFuture<Oligo> submit(Job job) throws InterruptedException
+	{
+		inFlight.acquire();
+		try
+		{
+			CompletableFuture<Oligo> result = CompletableFuture.supplyAsync(() -> align(job), executor);
+			result.whenComplete((key, error) -> inFlight.release());
+			return result;
+		}
+		catch(RejectedExecutionException e)
+		{
+			inFlight.release();
+			throw e;
+		}
+	} //end submit()
+
+
+	/**
+	 * Schedules every job in order, blocking whenever 'maxInFlight' jobs are pending
+	 *
+	 * @param jobs alignments to run
+	 * @return List of futures, in the same order as jobs
+	 * @throws InterruptedException if interrupted while waiting for a free slot
+	 */
+	public List<CompletableFuture<Oligo>> submitAll(List<Job> jobs) throws InterruptedException
+	{
+		List<CompletableFuture<Oligo>> results = new ArrayList<CompletableFuture<Oligo>>(jobs.size());
+		for(Job job : jobs)
+			results.add(submit(job));
+		return results;
+	} //end submitAll()
+
+
+	/**
+	 * Blocks until every submitted job has completed, then stops the internal work-stealing pool, if this aligner created one. A caller-supplied executor is left
+	 * running. Must not be called concurrently with submit()
+	 */
+	@Override
+	public void close()
+	{
+		inFlight.acquireUninterruptibly(maxInFlight); //every permit is back once all submitted jobs have completed
+		inFlight.release(maxInFlight);
+		if(ownsExecutor)
+			executor.shutdown();
+	}
+
+
+	/**
+	 * Same result as job.source.getFuzzySWkey(...), but runs smithWaterman() once, in this thread's scratch matrix
+	 */
+	private static Oligo align(Job job)
+	{
+		Oligo swKey = job.source.trySmithWaterman(job.query, job.ins, job.del, job.options, SCRATCH.get());
+		if(swKey != null && swKey.length() >= job.minKeyLength && job.source.isFuzzyMatch(swKey, job.mismatches, job.options))
+			return swKey;
+		throw new CompletionException(new OligoException("MatchNotFound", "BatchAligner.align()", false)); //stackless: misses are routine in a batch
+	} //end align()
+
+
+//=================================| JOB |====================================//
+	/**
+	 * One alignment request: search 'source' for 'query' allowing the given mismatches, inserts and deletes in the source
+	 */
+	public static final class Job
+	{
+		private final Oligo source;
+		private final Oligo query;
+		private final int mismatches;
+		private final int ins;
+		private final int del;
+		private final int minKeyLength;
+		private final SearchOptions options;
+
+		public Job(Oligo source, Oligo query, int mismatches, int ins, int del)
+		{
+			this(source, query, mismatches, ins, del, 0, SearchOptions.DEFAULT);
+		}
+
+
+		public Job(Oligo source, Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options)
+		{
+			this.source = source;
+			this.query = query;
+			this.mismatches = mismatches;
+			this.ins = ins;
+			this.del = del;
+			this.minKeyLength = minKeyLength;
+			this.options = options;
+		}
+	} //end Job class
+} //end BatchAligner class
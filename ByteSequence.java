@@ -0,0 +1,57 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ *class ByteSequence: read-only CharSequence view over a range of single-byte (ASCII) characters in a ByteBuffer. Nothing is copied until toString() is called
+ */
+final class ByteSequence implements CharSequence
+{
+	private final ByteBuffer bytes;
+	private final int offset;
+	private final int length;
+
+	ByteSequence(ByteBuffer bytes, int offset, int length)
+	{
+		this.bytes = bytes;
+		this.offset = offset;
+		this.length = length;
+	}
+
+
+	@Override
+	public int length()
+	{
+		return length;
+	}
+
+
+	@Override
+	public char charAt(int index)
+	{
+		Objects.checkIndex(index, length);
+		return (char) (bytes.get(offset + index) & 0xff);
+	}
+
+
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		Objects.checkFromToIndex(start, end, length);
+		return new ByteSequence(bytes, offset + start, end - start);
+	}
+
+
+	/**
+	 * Copies the viewed bytes into a new String
+	 *
+	 * @return String object
+	 */
+	@Override
+	public String toString()
+	{
+		byte[] copy = new byte[length];
+		bytes.get(offset, copy);
+		return new String(copy, StandardCharsets.ISO_8859_1);
+	}
+} //end ByteSequence class
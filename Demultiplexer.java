@@ -0,0 +1,360 @@
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+/**
+ *class Demultiplexer: assigns reads to barcodes by their leading bases. Every sequence within 'mismatches' substitutions of a barcode is precomputed into a packed
+ *code hash table, so assigning a read is one table lookup whatever the number of barcodes. A sequence closer to one barcode than to any other is assigned to it;
+ *a sequence equally close to several is AMBIGUOUS, and those barcode pairs are reported by getCollisions(). Reads with a wildcard in the barcode region are
+ *compared to each barcode directly, counting the wildcard as a mismatch
+ *
+ *Barcodes must share one length of at most MAX_BARCODE_LENGTH bases and contain no wildcards; matching is case-insensitive. Instances are immutable after
+ *construction and thread-safe
+ */
+public final class Demultiplexer
+{
+	public static final int NO_MATCH = -1;
+	public static final int AMBIGUOUS = -2;
+	public static final int MAX_BARCODE_LENGTH = 32;
+	private static final int EMPTY = Integer.MIN_VALUE;
+	private static final int MAX_TABLE_ENTRIES = 1 << 28;
+
+	private final List<Oligo> barcodes;
+	private final long[] packedBarcodes;
+	private final int barcodeLength;
+	private final int mismatches;
+	private final long[] keys;
+	private final int[] values; //barcode index, AMBIGUOUS or EMPTY
+	private final byte[] distances; //mismatches between each key and its barcode
+	private final int shift;
+	private final Set<Long> collisions = new TreeSet<Long>(); //barcode pairs as (i << 32 | j), i < j
+
+	/**
+	 * Constructor: builds the neighbourhood table of a barcode set
+	 *
+	 * @param barcodes barcodes, indexed by their position in the list
+	 * @param mismatches maximum number of mismatches between a read and its barcode
+	 */
+	public Demultiplexer(List<Oligo> barcodes, int mismatches)
+	{
+		Preconditions.checkArgument(!barcodes.isEmpty(), "At least one barcode is required");
+		Preconditions.checkArgument(mismatches >= 0, "mismatches must not be negative: %s", mismatches);
+		this.barcodes = Collections.unmodifiableList(new ArrayList<Oligo>(barcodes));
+		this.mismatches = mismatches;
+		barcodeLength = barcodes.get(0).length();
+		Preconditions.checkArgument(barcodeLength > 0 && barcodeLength <= MAX_BARCODE_LENGTH, "Barcode length must be 1 to %s: %s", MAX_BARCODE_LENGTH, barcodeLength);
+
+		packedBarcodes = new long[barcodes.size()];
+		for(int b = 0; b < barcodes.size(); b++)
+		{
+			Oligo barcode = barcodes.get(b);
+			Preconditions.checkArgument(barcode.length() == barcodeLength && isPackable(barcode.toString()), "Barcode %s must have %s bases and no wildcards: %s", b,
+					barcodeLength, barcode);
+			packedBarcodes[b] = pack(barcode.toString());
+		}
+
+		long entries = 0;
+		for(int d = 0; d <= Math.min(mismatches, barcodeLength); d++)
+			entries += binomial(barcodeLength, d) * (long) Math.pow(3, d);
+		entries *= barcodes.size();
+		Preconditions.checkArgument(entries <= MAX_TABLE_ENTRIES, "Neighbourhood table too large (%s entries); reduce mismatches", entries);
+
+		int capacity = Integer.highestOneBit((int) Math.max(entries * 2 - 1, 1)) << 1;
+		keys = new long[capacity];
+		values = new int[capacity];
+		distances = new byte[capacity];
+		Arrays.fill(values, EMPTY);
+		shift = 64 - Integer.numberOfTrailingZeros(capacity);
+
+		for(int d = 0; d <= Math.min(mismatches, barcodeLength); d++) //nearer neighbourhoods first, so the closest barcode claims each sequence
+		{
+			for(int b = 0; b < packedBarcodes.length; b++)
+				addNeighbours(b, packedBarcodes[b], 0, d, d);
+		}
+	} //end Demultiplexer()
+
+
+	public List<Oligo> getBarcodes()
+	{
+		return barcodes;
+	}
+
+
+	public int getMismatches()
+	{
+		return mismatches;
+	}
+
+
+	/**
+	 * Returns the pairs of barcodes that are equally close to some sequence within the allowed mismatches; reads matching such a sequence are AMBIGUOUS
+	 *
+	 * @return List of {i, j} barcode index pairs, i < j
+	 */
+	public List<int[]> getCollisions()
+	{
+		List<int[]> pairs = new ArrayList<int[]>(collisions.size());
+		for(long pair : collisions)
+			pairs.add(new int[] {(int) (pair >>> 32), (int) pair});
+		return pairs;
+	}
+
+
+	/**
+	 * Assigns a read by its first barcode-length bases
+	 *
+	 * @param read read sequence (an Oligo, String or SequenceRecord view)
+	 * @return int barcode index; NO_MATCH or AMBIGUOUS
+	 */
+	public int assign(CharSequence read)
+	{
+		if(read.length() < barcodeLength)
+			return NO_MATCH;
+		if(!isPackable(read))
+			return assignByScan(read);
+		long code = pack(read);
+
+		for(int slot = slot(code); values[slot] != EMPTY; slot = (slot + 1) & (keys.length - 1))
+		{
+			if(keys[slot] == code)
+				return values[slot];
+		}
+		return NO_MATCH;
+	} //end assign()
+
+
+	public int assign(Oligo read)
+	{
+		return assign(read.toString());
+	}
+
+
+	/**
+	 * Assigns every read
+	 *
+	 * @param reads reads to assign
+	 * @return int[] barcode index, NO_MATCH or AMBIGUOUS per read, in order
+	 */
+	public int[] assignAll(List<? extends CharSequence> reads)
+	{
+		int[] assignments = new int[reads.size()];
+		for(int i = 0; i < assignments.length; i++)
+			assignments[i] = assign(reads.get(i));
+		return assignments;
+	}
+
+
+	/**
+	 * Streams a reader's records in batches of batchSize, assigns each batch on the executor and passes it to consumer with its assignments. At most
+	 * 'maxInFlight' batches are pending at a time, and consumer may be called concurrently and out of order. Returns once every batch has been consumed
+	 *
+	 * @param reader records to demultiplex
+	 * @param batchSize records per batch
+	 * @param executor executor that assigns the batches
+	 * @param maxInFlight maximum number of read but unconsumed batches
+	 * @param consumer receives each batch and its int[] assignments
+	 * @return long[] read count per barcode, followed by the NO_MATCH and AMBIGUOUS counts
+	 * @throws IOException if the reader fails
+	 * @throws InterruptedException if interrupted while waiting for a batch
+	 * @throws ExecutionException if consumer throws
+	 */
+	public long[] demultiplex(SequenceReader reader, int batchSize, ExecutorService executor, int maxInFlight, BiConsumer<List<SequenceRecord>, int[]> consumer)
+			throws IOException, InterruptedException, ExecutionException
+	{
+		Preconditions.checkArgument(batchSize > 0 && maxInFlight > 0, "batchSize and maxInFlight must be positive");
+		long[] counts = new long[barcodes.size() + 2];
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		List<Future<int[]>> pending = new ArrayList<Future<int[]>>();
+
+		for(SequenceRecord record = reader.next(); record != null; )
+		{
+			List<SequenceRecord> batch = new ArrayList<SequenceRecord>(batchSize);
+			for(; record != null && batch.size() < batchSize; record = reader.next())
+				batch.add(record);
+
+			inFlight.acquire();
+			try
+			{
+				pending.add(executor.submit(() ->
+				{
+					try
+					{
+						int[] assignments = new int[batch.size()];
+						for(int i = 0; i < assignments.length; i++)
+							assignments[i] = assign(batch.get(i).getSequence());
+						consumer.accept(batch, assignments);
+						return assignments;
+					}
+					finally
+					{
+						inFlight.release();
+					}
+				}));
+			}
+			catch(RejectedExecutionException e)
+			{
+				inFlight.release();
+				throw e;
+			}
+			drainDone(pending, counts);
+		}
+
+		for(Future<int[]> future : pending)
+			count(future.get(), counts);
+		return counts;
+	} //end demultiplex()
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Adds every sequence exactly 'remaining' substitutions from code, at positions from 'from' onwards, to the table as a neighbour of barcode b at distance d
+	 */
+	private void addNeighbours(int b, long code, int from, int remaining, int d)
+	{
+		if(remaining == 0)
+		{
+			put(b, code, d);
+			return;
+		}
+		for(int i = from; i <= barcodeLength - remaining; i++)
+		{
+			long base = (code >>> (2 * i)) & 3;
+			for(long sub = 1; sub <= 3; sub++)
+			{
+				long mutated = code & ~(3L << (2 * i)) | (((base + sub) & 3) << (2 * i));
+				addNeighbours(b, mutated, i + 1, remaining - 1, d);
+			}
+		}
+	} //end addNeighbours()
+
+
+	private void put(int b, long code, int d)
+	{
+		int slot = slot(code);
+		for(; values[slot] != EMPTY; slot = (slot + 1) & (keys.length - 1))
+		{
+			if(keys[slot] != code)
+				continue;
+			if(distances[slot] == d && values[slot] != b)
+			{
+				if(values[slot] != AMBIGUOUS)
+					collisions.add((long) Math.min(values[slot], b) << 32 | Math.max(values[slot], b));
+				else //tied with several barcodes: barcodes are added in index order, so the others are the earlier ones at distance d
+				{
+					for(int other = 0; other < b; other++)
+					{
+						if(distance(code, packedBarcodes[other]) == d)
+							collisions.add((long) other << 32 | b);
+					}
+				}
+				values[slot] = AMBIGUOUS;
+			}
+			return; //a closer barcode, or this one, already claims the sequence
+		}
+		keys[slot] = code;
+		values[slot] = b;
+		distances[slot] = (byte) d;
+	} //end put()
+
+
+	/**
+	 * Returns the number of positions at which two packed codes differ
+	 */
+	private static int distance(long a, long b)
+	{
+		long x = a ^ b;
+		return Long.bitCount((x | (x >>> 1)) & 0x5555555555555555L);
+	}
+
+
+	private int slot(long code)
+	{
+		return (int) ((code * 0x9E3779B97F4A7C15L) >>> shift);
+	}
+
+
+	/**
+	 * Returns true if the first barcode-length bases of seq are all A, C, G or T; every long is the code of some 32-base sequence, so pack() has no spare value
+	 * to report a wildcard or invalid character with
+	 */
+	private boolean isPackable(CharSequence seq)
+	{
+		for(int i = 0; i < barcodeLength; i++)
+		{
+			byte base = OligoAlphabet.code(seq.charAt(i));
+			if(base < 0 || base == OligoAlphabet.WILDCARD)
+				return false;
+		}
+		return true;
+	}
+
+
+	/**
+	 * Returns the 2-bit packed code of the first barcode-length bases of seq (first base in the lowest bits); they must be packable
+	 */
+	private long pack(CharSequence seq)
+	{
+		long code = 0;
+		for(int i = 0; i < barcodeLength; i++)
+			code |= (long) OligoAlphabet.code(seq.charAt(i)) << (2 * i);
+		return code;
+	}
+
+
+	private int assignByScan(CharSequence read)
+	{
+		int best = NO_MATCH;
+		int bestDistance = mismatches + 1;
+		for(int b = 0; b < packedBarcodes.length; b++)
+		{
+			int distance = 0;
+			for(int i = 0; i < barcodeLength && distance <= mismatches; i++)
+			{
+				byte base = OligoAlphabet.code(read.charAt(i));
+				if(base != ((packedBarcodes[b] >>> (2 * i)) & 3))
+					distance++;
+			}
+			if(distance < bestDistance)
+			{
+				best = b;
+				bestDistance = distance;
+			}
+			else if(distance == bestDistance && distance <= mismatches)
+				best = AMBIGUOUS;
+		}
+		return best;
+	} //end assignByScan()
+
+
+	private void drainDone(List<Future<int[]>> pending, long[] counts) throws InterruptedException, ExecutionException
+	{
+		Iterator<Future<int[]>> it = pending.iterator();
+		while(it.hasNext())
+		{
+			Future<int[]> future = it.next();
+			if(future.isDone())
+			{
+				count(future.get(), counts);
+				it.remove();
+			}
+		}
+	}
+
+
+	private void count(int[] assignments, long[] counts)
+	{
+		for(int a : assignments)
+			counts[(a >= 0) ? a : (a == NO_MATCH) ? barcodes.size() : barcodes.size() + 1]++;
+	}
+
+
+	private static long binomial(int n, int k)
+	{
+		long result = 1;
+		for(int i = 1; i <= k; i++)
+			result = result * (n - k + i) / i;
+		return result;
+	}
+} //end Demultiplexer class
@@ -0,0 +1,420 @@
+import com.google.common.base.Preconditions;
+import java.util.*;
+import java.util.function.BiPredicate;
+import java.util.stream.IntStream;
+
+/**
+ *class MinHashSketcher: MinHash sketches of oligos for estimating k-mer Jaccard similarity, and LSH clustering of libraries, so near-duplicates are found without
+ *aligning every pair. Each k-mer of the rolling 2-bit code is hashed once and kept only if it is the smallest in its bin (one-permutation hashing); empty bins
+ *then borrow the value of a bin picked by a fixed per-bin probe sequence, so every slot is filled and slot i of two sketches agrees with probability equal to
+ *their Jaccard similarity. K-mers overlapping a wildcard or degenerate base are skipped, and sketching is case-insensitive
+ *
+ *Clustering buckets the sketches by bands of 'rows' slots; sketches sharing any band bucket become candidate pairs, and only candidates whose estimated
+ *similarity reaches minJaccard are verified by alignment. A pair of similarity J becomes a candidate with probability 1 - (1 - J^rows)^bands. Instances are
+ *immutable and thread-safe
+ */
+public final class MinHashSketcher
+{
+	public static final int MAX_K = 32;
+	public static final long EMPTY = -1; //slot value of a sketch with no k-mers
+	private static final int VERIFY_BATCH = 4096;
+
+	private final int k;
+	private final int size;
+	private final boolean canonical;
+	private final long seed;
+
+	/**
+	 * Constructor: creates a strand-insensitive sketcher
+	 *
+	 * @param k k-mer length, 1 to MAX_K
+	 * @param size number of slots per sketch
+	 */
+	public MinHashSketcher(int k, int size)
+	{
+		this(k, size, true, 0);
+	}
+
+
+	private MinHashSketcher(int k, int size, boolean canonical, long seed)
+	{
+		Preconditions.checkArgument(k >= 1 && k <= MAX_K, "k must be between 1 and %s: %s", MAX_K, k);
+		Preconditions.checkArgument(size > 0, "size must be positive: %s", size);
+		this.k = k;
+		this.size = size;
+		this.canonical = canonical;
+		this.seed = seed;
+	}
+
+
+	/**
+	 * Returns a copy of this sketcher that hashes each k-mer as the lesser of it and its reverse complement (true, the default), so an oligo and its antiparallel
+	 * have equal sketches, or hashes k-mers as read (false)
+	 *
+	 * @param canonical TRUE for strand-insensitive sketches
+	 * @return MinHashSketcher
+	 */
+	public MinHashSketcher withCanonical(boolean canonical)
+	{
+		return new MinHashSketcher(k, size, canonical, seed);
+	}
+
+
+	/**
+	 * Returns a copy of this sketcher using another hash seed. Only sketches made with the same k, size, strandedness and seed are comparable
+	 *
+	 * @param seed hash seed
+	 * @return MinHashSketcher
+	 */
+	public MinHashSketcher withSeed(long seed)
+	{
+		return new MinHashSketcher(k, size, canonical, seed);
+	}
+
+
+	public int getK()
+	{
+		return k;
+	}
+
+
+	public int getSize()
+	{
+		return size;
+	}
+
+
+//=================================| METHODS |================================//
+	/**
+	 * Sketches one sequence
+	 *
+	 * @param seq sequence to sketch (an Oligo, String or SequenceRecord view)
+	 * @return long[size] sketch; every slot is EMPTY if seq has no k-mer free of wildcards
+	 */
+	public long[] sketch(CharSequence seq)
+	{
+		final int LENGTH = seq.length();
+		final long MASK = (k == 32) ? -1L : (1L << (2 * k)) - 1;
+		final int SHIFT = 2 * (k - 1);
+		final long SALT = mix(seed);
+		long[] bins = new long[size];
+		Arrays.fill(bins, EMPTY);
+
+		long code = 0;
+		long reverse = 0; //reverse complement of the current k-mer
+		int valid = 0; //bases since the last wildcard
+		int filled = 0;
+		for(int i = 0; i < LENGTH; i++)
+		{
+			byte base = OligoAlphabet.code(seq.charAt(i));
+			Preconditions.checkArgument(base != OligoAlphabet.INVALID, "Invalid base '%s' at offset %s", seq.charAt(i), i);
+			if(base == OligoAlphabet.WILDCARD)
+			{
+				valid = 0;
+				continue;
+			}
+			code = ((code << 2) | base) & MASK;
+			reverse = (reverse >>> 2) | ((long) (3 - base) << SHIFT);
+			if(++valid < k)
+				continue;
+
+			long h = mix((canonical ? Math.min(code, reverse) : code) ^ SALT);
+			int bin = (int) (((h >>> 32) * size) >>> 32);
+			long value = h & Long.MAX_VALUE;
+			if(bins[bin] == EMPTY)
+			{
+				bins[bin] = value;
+				filled++;
+			}
+			else if(value < bins[bin])
+				bins[bin] = value;
+		}
+
+		if(filled == 0 || filled == size)
+			return bins;
+		long[] sketch = bins.clone();
+		for(int i = 0; i < size; i++) //densify: each empty bin takes the value of the first filled bin on its probe sequence
+		{
+			for(long attempt = 1; sketch[i] == EMPTY; attempt++)
+			{
+				long h = mix(SALT + ((long) i << 32 | attempt));
+				sketch[i] = bins[(int) (((h >>> 32) * size) >>> 32)];
+			}
+		}
+		return sketch;
+	} //end sketch()
+
+
+	public long[] sketch(Oligo oligo)
+	{
+		return sketch(oligo.toString());
+	}
+
+
+	/**
+	 * Sketches every oligo of a library in parallel on the common ForkJoinPool
+	 *
+	 * @param library oligos to sketch
+	 * @return List of sketches, in order
+	 */
+	public List<long[]> sketchAll(List<Oligo> library)
+	{
+		long[][] sketches = new long[library.size()][];
+		IntStream.range(0, sketches.length).parallel().forEach(i -> sketches[i] = sketch(library.get(i)));
+		return Arrays.asList(sketches);
+	}
+
+
+	/**
+	 * Estimates the Jaccard similarity of the k-mer sets behind two sketches as the fraction of slots that agree
+	 *
+	 * @param a sketch
+	 * @param b sketch of the same size, made by the same sketcher settings
+	 * @return double 0.0 to 1.0; 0.0 if either sketch is empty
+	 */
+	public static double jaccard(long[] a, long[] b)
+	{
+		Preconditions.checkArgument(a.length == b.length, "Sketch sizes differ: %s and %s", a.length, b.length);
+		if(a.length == 0 || a[0] == EMPTY || b[0] == EMPTY)
+			return 0.0;
+		int equal = 0;
+		for(int i = 0; i < a.length; i++)
+		{
+			if(a[i] == b[i])
+				equal++;
+		}
+		return (double) equal / a.length;
+	}
+
+
+	/**
+	 * Returns every pair of sketches that share a bucket in at least one band. Every pair within one bucket is reported, so a library of many identical oligos
+	 * yields quadratically many pairs; cluster() avoids verifying most of them
+	 *
+	 * @param sketches sketches made by this sketcher
+	 * @param bands number of bands; must divide the sketch size
+	 * @return List of {i, j} sketch index pairs, i < j, in ascending order
+	 */
+	public List<int[]> candidatePairs(List<long[]> sketches, int bands)
+	{
+		long[] pairs = candidates(sketches, bands);
+		List<int[]> list = new ArrayList<int[]>(pairs.length);
+		for(long pair : pairs)
+			list.add(new int[] {(int) (pair >>> 32), (int) pair});
+		return list;
+	}
+
+
+	/**
+	 * Groups a library into clusters of near-duplicates: oligos are joined when some chain of candidate pairs links them, each with an estimated Jaccard
+	 * similarity of at least minJaccard and accepted by verify. Pairs already in one cluster are not verified again, and the remaining candidates are verified in
+	 * parallel batches on the common ForkJoinPool; the result does not depend on thread scheduling
+	 *
+	 * @param library oligos to cluster
+	 * @param bands number of LSH bands; must divide the sketch size
+	 * @param minJaccard lowest estimated similarity of a pair that is verified
+	 * @param verify alignment check of a candidate pair; must be thread-safe
+	 * @return List of clusters, each a list of ascending library indices, ordered by first index; oligos without near-duplicates are singleton clusters
+	 */
+	public List<List<Integer>> cluster(List<Oligo> library, int bands, double minJaccard, BiPredicate<Oligo, Oligo> verify)
+	{
+		List<long[]> sketches = sketchAll(library);
+		long[][] buckets = bucketKeys(sketches, bands);
+		int[] parent = new int[library.size()];
+		for(int i = 0; i < parent.length; i++)
+			parent[i] = i;
+		Set<Long> queued = new HashSet<Long>(); //pairs already verified or batched, which may share other bands
+		long[] batch = new long[VERIFY_BATCH];
+		int count = 0;
+
+		for(long[] keys : buckets)
+		{
+			for(int start = 0, end; start < keys.length; start = end)
+			{
+				end = runEnd(keys, start);
+				for(int a = start; a < end; a++)
+				{
+					for(int b = a + 1; b < end; b++)
+					{
+						long pair = pair((int) keys[a], (int) keys[b]);
+						if(find(parent, (int) keys[a]) == find(parent, (int) keys[b]) || !queued.add(pair))
+							continue;
+						batch[count++] = pair;
+						if(count == VERIFY_BATCH)
+							count = verify(batch, count, library, sketches, minJaccard, verify, parent);
+					}
+				}
+			}
+		}
+		verify(batch, count, library, sketches, minJaccard, verify, parent);
+
+		Map<Integer, List<Integer>> clusters = new LinkedHashMap<Integer, List<Integer>>();
+		for(int i = 0; i < parent.length; i++)
+			clusters.computeIfAbsent(find(parent, i), root -> new ArrayList<Integer>()).add(i);
+		return new ArrayList<List<Integer>>(clusters.values());
+	} //end cluster()
+
+
+	/**
+	 * cluster(List<Oligo> library, int bands, double minJaccard, BiPredicate verify), verifying each candidate pair with isFuzzySmithWatermanMatch(): the shorter
+	 * oligo must be found in the longer (or, for strand-insensitive sketchers, either it or its antiparallel) within the given mismatches and indels
+	 *
+	 * @param library oligos to cluster
+	 * @param bands number of LSH bands; must divide the sketch size
+	 * @param minJaccard lowest estimated similarity of a pair that is verified
+	 * @param mismatches The maximum allowed number of mismatches between a pair
+	 * @param ins The maximum allowed number of inserts in the longer oligo
+	 * @param del The maximum allowed number of deletions in the longer oligo
+	 * @return List of clusters, each a list of ascending library indices, ordered by first index
+	 */
+	public List<List<Integer>> cluster(List<Oligo> library, int bands, double minJaccard, int mismatches, int ins, int del)
+	{
+		return cluster(library, bands, minJaccard, (a, b) ->
+		{
+			Oligo source = (a.length() >= b.length()) ? a : b;
+			Oligo query = (source == a) ? b : a;
+			return source.isFuzzySmithWatermanMatch(query, mismatches, ins, del)
+					|| (canonical && source.isFuzzySmithWatermanMatch(query.antiparallel(), mismatches, ins, del));
+		});
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Returns the distinct candidate pairs as (i << 32 | j), i < j, ascending; each band's pairs are merged in as they are listed, so only distinct pairs are held
+	 */
+	private long[] candidates(List<long[]> sketches, int bands)
+	{
+		long[] pairs = new long[0];
+		for(long[] keys : bucketKeys(sketches, bands))
+		{
+			long[] bandPairs = new long[16];
+			int count = 0;
+			for(int start = 0, end; start < keys.length; start = end)
+			{
+				end = runEnd(keys, start);
+				for(int a = start; a < end; a++)
+				{
+					for(int b = a + 1; b < end; b++)
+					{
+						if(count == bandPairs.length)
+							bandPairs = Arrays.copyOf(bandPairs, count * 2);
+						bandPairs[count++] = pair((int) keys[a], (int) keys[b]);
+					}
+				}
+			}
+			Arrays.parallelSort(bandPairs, 0, count);
+			pairs = mergeDistinct(pairs, bandPairs, count);
+		}
+		return pairs;
+	} //end candidates()
+
+
+	/**
+	 * Returns, per band, the sorted bucket keys of every non-empty sketch: the top 32 bits hash the band's slots and the low 32 bits are the sketch index, so each
+	 * bucket is one run of equal top bits
+	 */
+	private long[][] bucketKeys(List<long[]> sketches, int bands)
+	{
+		Preconditions.checkArgument(bands > 0 && size % bands == 0, "bands must divide the sketch size %s: %s", size, bands);
+		final int ROWS = size / bands;
+		for(long[] sketch : sketches)
+			Preconditions.checkArgument(sketch.length == size, "Sketch size %s does not match sketcher size %s", sketch.length, size);
+
+		long[][] buckets = new long[bands][];
+		IntStream.range(0, bands).parallel().forEach(band ->
+		{
+			long[] keys = new long[sketches.size()];
+			int n = 0;
+			for(int s = 0; s < sketches.size(); s++)
+			{
+				long[] sketch = sketches.get(s);
+				if(sketch[0] == EMPTY)
+					continue;
+				long h = band;
+				for(int r = band * ROWS; r < (band + 1) * ROWS; r++)
+					h = mix(h ^ sketch[r]);
+				keys[n++] = (h & 0xFFFFFFFF00000000L) | s;
+			}
+			Arrays.sort(keys, 0, n);
+			buckets[band] = Arrays.copyOf(keys, n);
+		});
+		return buckets;
+	} //end bucketKeys()
+
+
+	/**
+	 * Verifies a batch of candidate pairs in parallel, then joins the accepted pairs in batch order
+	 *
+	 * @return int 0, the new batch size
+	 */
+	private static int verify(long[] batch, int count, List<Oligo> library, List<long[]> sketches, double minJaccard, BiPredicate<Oligo, Oligo> verify, int[] parent)
+	{
+		boolean[] accepted = new boolean[count];
+		IntStream.range(0, count).parallel().forEach(p ->
+		{
+			int i = (int) (batch[p] >>> 32);
+			int j = (int) batch[p];
+			accepted[p] = jaccard(sketches.get(i), sketches.get(j)) >= minJaccard && verify.test(library.get(i), library.get(j));
+		});
+		for(int p = 0; p < count; p++)
+		{
+			if(accepted[p])
+				parent[find(parent, (int) (batch[p] >>> 32))] = find(parent, (int) batch[p]);
+		}
+		return 0;
+	} //end verify()
+
+
+	private static int runEnd(long[] keys, int start)
+	{
+		int end = start + 1;
+		while(end < keys.length && (keys[end] >>> 32) == (keys[start] >>> 32))
+			end++;
+		return end;
+	}
+
+
+	private static long pair(int i, int j)
+	{
+		return (long) Math.min(i, j) << 32 | Math.max(i, j);
+	}
+
+
+	private static long[] mergeDistinct(long[] a, long[] b, int bLength)
+	{
+		long[] merged = new long[a.length + bLength];
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while(i < a.length || j < bLength)
+		{
+			long next = (j == bLength || (i < a.length && a[i] <= b[j])) ? a[i++] : b[j++];
+			if(n == 0 || merged[n - 1] != next)
+				merged[n++] = next;
+		}
+		return Arrays.copyOf(merged, n);
+	}
+
+
+	private static int find(int[] parent, int i)
+	{
+		while(parent[i] != i)
+		{
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+
+	/**
+	 * SplitMix64 finalizer
+	 */
+	private static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+} //end MinHashSketcher class
@@ -0,0 +1,230 @@
+import com.google.common.base.Preconditions;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ *class Mutagenesis: seeded Monte-Carlo simulation of error-prone copying (i.e. PCR) and shuffle-based null models. Each position of a template independently
+ *undergoes at most one event: a substitution (to one of the other three bases), an insertion of a random base before it, or a deletion. Event positions are drawn
+ *by geometric skipping, so a copy costs one random draw per event rather than per base; unchanged stretches are copied in bulk into a reusable buffer. Case is
+ *preserved, and inserted bases take the case of the base they precede
+ *
+ *Bulk methods draw every block of BLOCK_SIZE copies from its own stream, split from this engine in block order, so the sequential and parallel versions return the
+ *same result for the same seed. Instances are not thread-safe; use split() to give each thread its own engine
+ */
+public final class Mutagenesis
+{
+	public static final int BLOCK_SIZE = 256;
+
+	private final SplittableRandom random;
+	private final double substitutionRate;
+	private final double insertionRate;
+	private final double deletionRate;
+	private final double logNoEvent; //log(1 - total event rate), for geometric skipping
+	private char[] buffer = new char[64];
+
+	private Mutagenesis(SplittableRandom random, double substitutionRate, double insertionRate, double deletionRate)
+	{
+		double total = substitutionRate + insertionRate + deletionRate;
+		Preconditions.checkArgument(substitutionRate >= 0 && insertionRate >= 0 && deletionRate >= 0 && total <= 1, "Rates must be non-negative and sum to at most 1");
+		this.random = random;
+		this.substitutionRate = substitutionRate;
+		this.insertionRate = insertionRate;
+		this.deletionRate = deletionRate;
+		logNoEvent = Math.log1p(-total);
+	}
+
+
+	/**
+	 * Constructor: creates an engine with the given per-base event rates
+	 *
+	 * @param seed random seed
+	 * @param substitutionRate probability that a base is substituted
+	 * @param insertionRate probability that a random base is inserted before a base
+	 * @param deletionRate probability that a base is deleted
+	 */
+	public Mutagenesis(long seed, double substitutionRate, double insertionRate, double deletionRate)
+	{
+		this(new SplittableRandom(seed), substitutionRate, insertionRate, deletionRate);
+	}
+
+
+	/**
+	 * Returns a new engine with the same rates and an independent stream
+	 *
+	 * @return Mutagenesis
+	 */
+	public Mutagenesis split()
+	{
+		return new Mutagenesis(random.split(), substitutionRate, insertionRate, deletionRate);
+	}
+
+
+	/**
+	 * Returns one mutated copy of template
+	 *
+	 * @param template sequence to copy
+	 * @return Oligo object - mutated copy
+	 */
+	public Oligo mutate(Oligo template)
+	{
+		String source = template.toString();
+		final int LENGTH = source.length();
+		int size = 0;
+		int copied = 0; //source bases before this index are already handled
+
+		for(int event = nextEvent(-1); event < LENGTH; event = nextEvent(event))
+		{
+			ensureCapacity(size + (event - copied) + 2);
+			source.getChars(copied, event, buffer, size);
+			size += event - copied;
+			copied = event + 1;
+
+			char base = source.charAt(event);
+			double r = random.nextDouble() * (substitutionRate + insertionRate + deletionRate);
+			if(r < substitutionRate)
+				buffer[size++] = substitute(base);
+			else if(r < substitutionRate + insertionRate)
+			{
+				buffer[size++] = inCaseOf(base, OligoAlphabet.BASES[random.nextInt(4)]);
+				buffer[size++] = base;
+			}
+			//else deletion: the base is not copied
+		}
+		ensureCapacity(size + LENGTH - copied);
+		source.getChars(copied, LENGTH, buffer, size);
+		size += LENGTH - copied;
+		return Oligo.trusted(new String(buffer, 0, size));
+	} //end mutate()
+
+
+	/**
+	 * Returns a random permutation of template's bases (Fisher-Yates), preserving base composition
+	 *
+	 * @param template sequence to shuffle
+	 * @return Oligo object - shuffled copy
+	 */
+	public Oligo shuffle(Oligo template)
+	{
+		return Oligo.trusted(new String(shuffle(template.toCharArray(), random)));
+	}
+
+
+	/**
+	 * Returns count independently mutated copies of template
+	 *
+	 * @param template sequence to copy
+	 * @param count number of replicates
+	 * @return List of Oligo objects
+	 */
+	public List<Oligo> replicates(Oligo template, int count)
+	{
+		return run(count, i -> template, false);
+	}
+
+
+	/**
+	 * replicates(Oligo template, int count) with the blocks run in parallel on the common ForkJoinPool; returns the same copies as replicates()
+	 *
+	 * @param template sequence to copy
+	 * @param count number of replicates
+	 * @return List of Oligo objects
+	 */
+	public List<Oligo> replicatesParallel(Oligo template, int count)
+	{
+		return run(count, i -> template, true);
+	}
+
+
+	/**
+	 * Returns one mutated copy of every oligo in library, in order
+	 *
+	 * @param library sequences to copy
+	 * @return List of Oligo objects
+	 */
+	public List<Oligo> mutateAll(List<Oligo> library)
+	{
+		return run(library.size(), library::get, false);
+	}
+
+
+	/**
+	 * mutateAll(List<Oligo> library) with the blocks run in parallel on the common ForkJoinPool; returns the same copies as mutateAll()
+	 *
+	 * @param library sequences to copy
+	 * @return List of Oligo objects
+	 */
+	public List<Oligo> mutateAllParallel(List<Oligo> library)
+	{
+		return run(library.size(), library::get, true);
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Shuffles bases in place with the given stream
+	 */
+	static char[] shuffle(char[] bases, RandomGenerator random)
+	{
+		for(int i = bases.length - 1; i > 0; i--)
+		{
+			int j = random.nextInt(i + 1);
+			char tmp = bases[i];
+			bases[i] = bases[j];
+			bases[j] = tmp;
+		}
+		return bases;
+	}
+
+
+	private List<Oligo> run(int count, IntFunction<Oligo> templates, boolean parallel)
+	{
+		Preconditions.checkArgument(count >= 0, "count must not be negative: %s", count);
+		Oligo[] copies = new Oligo[count];
+		Mutagenesis[] blocks = new Mutagenesis[(count + BLOCK_SIZE - 1) / BLOCK_SIZE];
+		for(int b = 0; b < blocks.length; b++)
+			blocks[b] = split();
+
+		IntStream range = IntStream.range(0, blocks.length);
+		(parallel ? range.parallel() : range).forEach(b ->
+		{
+			for(int i = b * BLOCK_SIZE; i < Math.min((b + 1) * BLOCK_SIZE, count); i++)
+				copies[i] = blocks[b].mutate(templates.apply(i));
+		});
+		return Arrays.asList(copies);
+	} //end run()
+
+
+	/**
+	 * Returns the position of the next event after 'after'; Integer.MAX_VALUE if there are none
+	 */
+	private int nextEvent(int after)
+	{
+		if(logNoEvent == 0)
+			return Integer.MAX_VALUE;
+		double gap = Math.floor(Math.log(1.0 - random.nextDouble()) / logNoEvent);
+		return (gap >= Integer.MAX_VALUE - after - 1) ? Integer.MAX_VALUE : after + 1 + (int) gap;
+	}
+
+
+	private char substitute(char base)
+	{
+		byte code = OligoAlphabet.code(base);
+		int replacement = (code == OligoAlphabet.WILDCARD) ? random.nextInt(4) : (code + 1 + random.nextInt(3)) & 3;
+		return inCaseOf(base, OligoAlphabet.BASES[replacement]);
+	}
+
+
+	private static char inCaseOf(char reference, char base)
+	{
+		return Character.isUpperCase(reference) ? Character.toUpperCase(base) : base;
+	}
+
+
+	private void ensureCapacity(int capacity)
+	{
+		if(buffer.length < capacity)
+			buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+	}
+} //end Mutagenesis class
@@ -0,0 +1,642 @@
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ *class OffHeapSequence: immutable, chromosome-scale sequence stored outside the Java heap with long coordinates. Bases are packed 2 bits each, 4 per byte, in
+ *direct buffers of up to 2^26 bytes (2^28 bases); wildcard (N) and degenerate IUPAC positions are kept as a sorted list of runs of one repeated symbol, each with
+ *its OligoAlphabet 4-bit base mask. Like OligoLibrary, sequences are case-insensitive and read back in uppercase. All coordinates are ZERO-based
+ *
+ *Mismatch-only searches compare the packed bases directly. Indel-aware searches copy blocks of search windows onto the heap and run Oligo's Smith-Waterman check
+ *on them, so their results equal Oligo's but each block briefly costs a heap copy
+ *
+ *Off-heap memory is released when the sequence becomes unreachable and its buffers are collected
+ */
+public final class OffHeapSequence
+{
+	private static final int CHUNK_SHIFT = 26;
+	private static final int CHUNK_BYTES = 1 << CHUNK_SHIFT;
+	private static final int MIN_CHUNK_BYTES = 1 << 12; //first chunk of a builder with no expected length; chunks double up to CHUNK_BYTES
+	private static final int PARALLEL_CHUNK_WINDOWS = 1 << 20; //search windows per parallel chunk, mismatch-only search
+	private static final int SW_BLOCK_WINDOWS = 1 << 10; //search windows copied onto the heap at a time, and per parallel chunk, indel search
+	private static final char[] UPPER_BASES = {'A', 'C', 'G', 'T'};
+
+	private final ByteBuffer[] chunks;
+	private final long length;
+	private final long[] wildcardRuns; //start/length pairs, sorted; adjacent runs have different masks
+	private final byte[] runMasks; //base mask of each run
+
+	private OffHeapSequence(ByteBuffer[] chunks, long length, long[] wildcardRuns, byte[] runMasks)
+	{
+		this.chunks = chunks;
+		this.length = length;
+		this.wildcardRuns = wildcardRuns;
+		this.runMasks = runMasks;
+	}
+
+
+	/**
+	 * Creates an empty builder
+	 *
+	 * @return Builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder(0);
+	}
+
+
+	/**
+	 * Creates an empty builder whose buffers are sized for the given number of bases. Appending more is allowed but grows the buffers
+	 *
+	 * @param expectedLength expected number of bases
+	 * @return Builder
+	 */
+	public static Builder builder(long expectedLength)
+	{
+		return new Builder(expectedLength);
+	}
+
+
+	/**
+	 * Copies an oligo off the heap
+	 *
+	 * @param oligo sequence to copy
+	 * @return OffHeapSequence
+	 */
+	public static OffHeapSequence of(Oligo oligo)
+	{
+		return new Builder(oligo.length()).append(oligo).build();
+	}
+
+
+	public long length()
+	{
+		return length;
+	}
+
+
+	/**
+	 * Returns the base at position i
+	 *
+	 * @param i position
+	 * @return char 'A', 'C', 'G', 'T', 'N' or a degenerate IUPAC code
+	 */
+	public char charAt(long i)
+	{
+		Objects.checkIndex(i, length);
+		return OligoAlphabet.symbol(nibble(i));
+	}
+
+
+	/**
+	 * Counts each base, excluding wildcard and degenerate positions
+	 *
+	 * @return TreeMap of base ("A", "C", "G", "T") to count
+	 */
+	public TreeMap<String, Long> baseContent()
+	{
+		long[] counts = new long[4];
+		for(long i = 0; i < length; i++)
+			counts[code(i)]++;
+		for(int r = 0; r < wildcardRuns.length; r += 2) //wildcards are packed as 'A'
+			counts[0] -= wildcardRuns[r + 1];
+
+		TreeMap<String, Long> output = new TreeMap<String, Long>();
+		for(int c = 0; c < 4; c++)
+			output.put(String.valueOf(UPPER_BASES[c]), counts[c]);
+		return output;
+	}
+
+
+	/**
+	 * Extracts a sequence based on given start and end indices, inclusively, onto the heap
+	 *
+	 * @param start start index
+	 * @param end end index
+	 * @return [Oligo object] Extracted sequence
+	 * @throws OligoException if either index is out of bounds or the range exceeds Integer.MAX_VALUE bases
+	 */
+	public Oligo extractSequence(long start, long end) throws OligoException
+	{
+		checkRange(start, end, "extractSequence()");
+		if(end - start + 1 > Integer.MAX_VALUE - 8)
+			throw new OligoException("RangeTooLongForOligo", "extractSequence()");
+		return extract(start, end);
+	}
+
+
+	/**
+	 * Copies an in-bounds range, inclusively, onto the heap
+	 */
+	private Oligo extract(long start, long end)
+	{
+		char[] bases = new char[(int) (end - start + 1)];
+		for(long i = start; i <= end; i++)
+			bases[(int) (i - start)] = UPPER_BASES[code(i)];
+		int r = firstRunEndingAfter(start);
+		for(; r < wildcardRuns.length && wildcardRuns[r] <= end; r += 2)
+		{
+			long from = Math.max(wildcardRuns[r], start);
+			long to = Math.min(wildcardRuns[r] + wildcardRuns[r + 1] - 1, end);
+			Arrays.fill(bases, (int) (from - start), (int) (to - start + 1), OligoAlphabet.symbol(runMasks[r >>> 1]));
+		}
+		return Oligo.trusted(new String(bases));
+	} //end extract()
+
+
+	/**
+	 * Copies the given range, inclusively, into a new off-heap sequence
+	 *
+	 * @param start start index
+	 * @param end end index
+	 * @return OffHeapSequence
+	 * @throws OligoException if either index is out of bounds
+	 */
+	public OffHeapSequence subSequence(long start, long end) throws OligoException
+	{
+		checkRange(start, end, "subSequence()");
+		return new Builder(end - start + 1).append(this, start, end + 1).build();
+	}
+
+
+	/**
+	 * Joins the 5' end of input to the 3' end of this sequence
+	 *
+	 * @param input downstream sequence
+	 * @return OffHeapSequence
+	 */
+	public OffHeapSequence ligate(OffHeapSequence input)
+	{
+		return new Builder(length + input.length).append(this, 0, length).append(input, 0, input.length).build();
+	}
+
+
+	/**
+	 * Returns the reverse complement
+	 *
+	 * @return OffHeapSequence
+	 */
+	public OffHeapSequence antiparallel()
+	{
+		Builder builder = new Builder(length);
+		int r = wildcardRuns.length - 2;
+		for(long i = length - 1; i >= 0; i--)
+		{
+			while(r >= 0 && wildcardRuns[r] > i)
+				r -= 2;
+			boolean wildcard = r >= 0 && i < wildcardRuns[r] + wildcardRuns[r + 1];
+			builder.appendNibble(OligoAlphabet.complementNibble(wildcard ? runMasks[r >>> 1] : 1 << code(i)));
+		}
+		return builder.build();
+	}
+
+
+	/**
+	 * Returns the start index of every window that matches query with at most 'mismatches' mismatches; same semantics as Oligo.getAllMatchCoordinates(query,
+	 * mismatches): case-insensitive, with N in either sequence matching any base and degenerate IUPAC codes matching the bases they stand for
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Long> getAllMatchCoordinates(Oligo query, int mismatches)
+	{
+		ArrayList<Long> hits = new ArrayList<Long>();
+		collectMatchCoordinates(queryNibbles(query), mismatches, 0, windows(query), hits);
+		return hits;
+	}
+
+
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches), run on the common ForkJoinPool
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Long> getAllMatchCoordinatesParallel(Oligo query, int mismatches)
+	{
+		byte[] q = queryNibbles(query);
+		return searchParallel((from, to, hits) -> collectMatchCoordinates(q, mismatches, from, to, hits), windows(query), PARALLEL_CHUNK_WINDOWS);
+	}
+
+
+	/**
+	 * Returns the start index of every window that matches query with at most 'mismatches' mismatches, 'ins' inserts and 'del' deletions; same semantics as
+	 * Oligo.getAllMatchCoordinates(query, mismatches, ins, del, minKeyLength)
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Long> getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		ArrayList<Long> hits = new ArrayList<Long>();
+		collectMatchCoordinates(query, mismatches, ins, del, minKeyLength, 0, windows(query, ins), hits);
+		return hits;
+	}
+
+
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength), run on the common ForkJoinPool
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Long> getAllMatchCoordinatesParallel(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		RangeSearch search = (from, to, hits) -> collectMatchCoordinates(query, mismatches, ins, del, minKeyLength, from, to, hits);
+		return searchParallel(search, windows(query, ins), SW_BLOCK_WINDOWS);
+	}
+
+
+	/**
+	 * Returns the index of the first occurence of query
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @return long index if found; otherwise returns -1
+	 */
+	public long getFirstMatchCoordinate(Oligo query, int mismatches)
+	{
+		byte[] q = queryNibbles(query);
+		return firstMatch((from, to, hits) -> collectMatchCoordinates(q, mismatches, from, to, hits), windows(query), SW_BLOCK_WINDOWS);
+	}
+
+
+	/**
+	 * Returns the index of the first occurence of query
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return long index if found; otherwise returns -1
+	 */
+	public long getFirstMatchCoordinate(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		RangeSearch search = (from, to, hits) -> collectMatchCoordinates(query, mismatches, ins, del, minKeyLength, from, to, hits);
+		return firstMatch(search, windows(query, ins), SW_BLOCK_WINDOWS);
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return "OffHeapSequence[length=" + length + ", wildcardRuns=" + wildcardRuns.length / 2 + "]";
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Returns the 2-bit code stored at position i (0 for wildcards)
+	 */
+	private int code(long i)
+	{
+		long b = i >>> 2;
+		return (chunks[(int) (b >>> CHUNK_SHIFT)].get((int) (b & (CHUNK_BYTES - 1))) >>> ((int) (i & 3) << 1)) & 3;
+	}
+
+
+	/**
+	 * Returns the 4-bit base mask of position i
+	 */
+	private int nibble(long i)
+	{
+		int r = firstRunEndingAfter(i);
+		return (r < wildcardRuns.length && wildcardRuns[r] <= i) ? runMasks[r >>> 1] : 1 << code(i);
+	}
+
+
+	/**
+	 * Returns the index (into wildcardRuns) of the first run that ends after position i; wildcardRuns.length if none does
+	 */
+	private int firstRunEndingAfter(long i)
+	{
+		int lo = 0;
+		int hi = wildcardRuns.length / 2;
+		while(lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if(wildcardRuns[2 * mid] + wildcardRuns[2 * mid + 1] <= i)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return 2 * lo;
+	}
+
+
+	private void checkRange(long start, long end, String method) throws OligoException
+	{
+		boolean startOutOfBounds = start < 0;
+		boolean endOutOfBounds = end > length - 1;
+		if(startOutOfBounds && endOutOfBounds)
+			throw new OligoException("(Start&End)IndexOutofBounds", method);
+		else if(startOutOfBounds)
+			throw new OligoException("StartIndexOutOfBounds", method);
+		else if(endOutOfBounds)
+			throw new OligoException("EndIndexOutOfBounds", method);
+	}
+
+
+	private long windows(Oligo query)
+	{
+		return windows(query, 0);
+	}
+
+
+	/**
+	 * Returns the number of search windows of an indel-aware search, whose windows are widened by 'ins' bases
+	 */
+	private long windows(Oligo query, int ins)
+	{
+		return Math.max(length - query.length() - ins + 1, 0);
+	}
+
+
+	private static byte[] queryNibbles(Oligo query)
+	{
+		String q = query.toString();
+		byte[] nibbles = new byte[q.length()];
+		for(int j = 0; j < nibbles.length; j++)
+			nibbles[j] = (byte) OligoAlphabet.nibble(q.charAt(j));
+		return nibbles;
+	}
+
+
+	/**
+	 * Adds to hits every window start in [from, to) with at most 'mismatches' positions whose base masks share no base with the query's
+	 */
+	private void collectMatchCoordinates(byte[] q, int mismatches, long from, long to, List<Long> hits)
+	{
+		final int QUERY_LENGTH = q.length;
+		int windowRun = firstRunEndingAfter(from);
+
+		for(long i = from; i < to; i++)
+		{
+			while(windowRun < wildcardRuns.length && wildcardRuns[windowRun] + wildcardRuns[windowRun + 1] <= i)
+				windowRun += 2;
+
+			int run = windowRun;
+			int misses = 0;
+			for(int j = 0; j < QUERY_LENGTH && misses <= mismatches; j++)
+			{
+				long p = i + j;
+				while(run < wildcardRuns.length && wildcardRuns[run] + wildcardRuns[run + 1] <= p)
+					run += 2;
+				if(q[j] == 15) //N matches anything
+					continue;
+				int nibble = (run < wildcardRuns.length && wildcardRuns[run] <= p) ? runMasks[run >>> 1] : 1 << code(p);
+				if((nibble & q[j]) == 0)
+					misses++;
+			}
+			if(misses <= mismatches)
+				hits.add(i);
+		}
+	} //end collectMatchCoordinates()
+
+
+	/**
+	 * Adds to hits every indel-aware match whose window starts in [from, to). Each block of windows is copied onto the heap, with the query length plus 'ins' bases
+	 * of overlap, and searched by Oligo
+	 */
+	private void collectMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength, long from, long to, List<Long> hits)
+	{
+		final int SPAN = query.length() + ins - 1; //bases that the last window of a block reads past the block
+		for(long block = from; block < to; block += SW_BLOCK_WINDOWS)
+		{
+			long end = Math.min(block + SW_BLOCK_WINDOWS, to);
+			for(int hit : extract(block, end - 1 + SPAN).getAllMatchCoordinates(query, mismatches, ins, del, minKeyLength))
+				hits.add(block + hit);
+		}
+	} //end collectMatchCoordinates()
+
+
+	/**
+	 * Splits [0, windows) into chunks, searches them on the common ForkJoinPool and concatenates the hits in coordinate order
+	 */
+	private static ArrayList<Long> searchParallel(RangeSearch search, long windows, int chunkWindows)
+	{
+		int chunkCount = (int) ((windows + chunkWindows - 1) / chunkWindows);
+		List<ArrayList<Long>> chunkHits = IntStream.range(0, chunkCount).parallel().mapToObj(c ->
+		{
+			ArrayList<Long> hits = new ArrayList<Long>();
+			long from = (long) c * chunkWindows;
+			search.collect(from, Math.min(from + chunkWindows, windows), hits);
+			return hits;
+		}).collect(Collectors.toList());
+
+		ArrayList<Long> hits = new ArrayList<Long>();
+		for(ArrayList<Long> chunk : chunkHits) //chunks are in coordinate order
+			hits.addAll(chunk);
+		return hits;
+	} //end searchParallel()
+
+
+	/**
+	 * Searches [0, windows) one block at a time and returns the first hit; -1 if there is none
+	 */
+	private static long firstMatch(RangeSearch search, long windows, int blockWindows)
+	{
+		List<Long> hits = new ArrayList<Long>();
+		for(long from = 0; from < windows && hits.isEmpty(); from += blockWindows)
+			search.collect(from, Math.min(from + blockWindows, windows), hits);
+		return hits.isEmpty() ? -1 : hits.get(0);
+	}
+
+
+	/**
+	 * Searches the window start coordinates [from, to) and adds the match coordinates to hits
+	 */
+	private interface RangeSearch
+	{
+		void collect(long from, long to, List<Long> hits);
+	}
+
+
+//================================| BUILDER |=================================//
+	/**
+	 * Appends bases to a growing set of off-heap chunks. Every chunk but the last holds CHUNK_BYTES; the last is sized from the expected length, or starts at
+	 * MIN_CHUNK_BYTES and doubles, so short sequences do not reserve a full chunk. A builder can be used for one build() only
+	 */
+	public static final class Builder
+	{
+		private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+		private ByteBuffer current;
+		private long length;
+		private long[] runs = new long[16];
+		private byte[] masks = new byte[8];
+		private int runCount;
+		private int pending; //bases of the byte being filled, packed from the lowest bits
+		private boolean built;
+		private final long expectedBytes; //0 if the length is unknown
+		private long flushedBytes;
+
+		private Builder(long expectedLength)
+		{
+			expectedBytes = (Math.max(expectedLength, 0) + 3) / 4;
+		}
+
+
+		/**
+		 * Appends a sequence of bases, wildcards and degenerate IUPAC codes in either case, such as a SequenceRecord view
+		 *
+		 * @param seq bases to append
+		 * @return this Builder
+		 */
+		public Builder append(CharSequence seq)
+		{
+			final int LENGTH = seq.length();
+			for(int i = 0; i < LENGTH; i++)
+			{
+				char ch = seq.charAt(i);
+				byte code = OligoAlphabet.code(ch);
+				if(code == OligoAlphabet.INVALID)
+					throw new IllegalArgumentException("Invalid base '" + ch + "' at offset " + i);
+				if(code == OligoAlphabet.WILDCARD)
+					appendRun(OligoAlphabet.nibble(ch));
+				else
+					appendCode(code);
+			}
+			return this;
+		}
+
+
+		public Builder append(Oligo oligo)
+		{
+			return append(oligo.toString());
+		}
+
+
+		/**
+		 * Appends positions [from, to) of another off-heap sequence
+		 */
+		Builder append(OffHeapSequence source, long from, long to)
+		{
+			int r = source.firstRunEndingAfter(from);
+			for(long i = from; i < to; i++)
+			{
+				while(r < source.wildcardRuns.length && source.wildcardRuns[r] + source.wildcardRuns[r + 1] <= i)
+					r += 2;
+				if(r < source.wildcardRuns.length && source.wildcardRuns[r] <= i)
+					appendRun(source.runMasks[r >>> 1]);
+				else
+					appendCode(source.code(i));
+			}
+			return this;
+		}
+
+
+		/**
+		 * Appends the symbol with the given 4-bit base mask: a base if a single bit is set, otherwise a wildcard or degenerate position
+		 */
+		void appendNibble(int nibble)
+		{
+			if(Integer.bitCount(nibble) == 1)
+				appendCode(Integer.numberOfTrailingZeros(nibble));
+			else
+				appendRun(nibble);
+		}
+
+
+		/**
+		 * Appends a wildcard or degenerate position, extending the last run if it ends here with the same mask; the position is packed as 'A'
+		 */
+		private void appendRun(int nibble)
+		{
+			if(built)
+				throw new IllegalStateException("build() has already been called");
+			if(runCount > 0 && runs[2 * runCount - 2] + runs[2 * runCount - 1] == length && masks[runCount - 1] == nibble)
+				runs[2 * runCount - 1]++;
+			else
+			{
+				if(runs.length < 2 * runCount + 2)
+				{
+					runs = Arrays.copyOf(runs, runs.length * 2);
+					masks = Arrays.copyOf(masks, masks.length * 2);
+				}
+				runs[2 * runCount] = length;
+				runs[2 * runCount + 1] = 1;
+				masks[runCount] = (byte) nibble;
+				runCount++;
+			}
+			appendCode(0);
+		}
+
+
+		/**
+		 * Appends the base with 2-bit code 'code'
+		 */
+		private void appendCode(int code)
+		{
+			if(built)
+				throw new IllegalStateException("build() has already been called");
+			int slot = (int) (length & 3);
+			pending |= code << (slot << 1);
+			length++;
+			if(slot == 3)
+				flush();
+		}
+
+
+		private void flush()
+		{
+			if(current == null || !current.hasRemaining())
+			{
+				if(current != null && current.capacity() < CHUNK_BYTES) //more bases than expected: grow the last chunk
+				{
+					ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Math.max(2L * current.capacity(), MIN_CHUNK_BYTES), CHUNK_BYTES));
+					current.flip();
+					grown.put(current);
+					current = grown;
+					chunks.set(chunks.size() - 1, current);
+				}
+				else
+				{
+					long remaining = expectedBytes - flushedBytes;
+					current = ByteBuffer.allocateDirect((int) Math.min((remaining > 0) ? remaining : MIN_CHUNK_BYTES, CHUNK_BYTES));
+					chunks.add(current);
+				}
+			}
+			current.put((byte) pending);
+			pending = 0;
+			flushedBytes++;
+		}
+
+
+		/**
+		 * Finishes the sequence; the last chunk is trimmed to its used size
+		 *
+		 * @return OffHeapSequence
+		 */
+		public OffHeapSequence build()
+		{
+			if(built)
+				throw new IllegalStateException("build() has already been called");
+			if((length & 3) != 0)
+				flush();
+			built = true;
+
+			ByteBuffer[] buffers = chunks.toArray(new ByteBuffer[0]);
+			if(buffers.length > 0 && current.hasRemaining())
+			{
+				ByteBuffer trimmed = ByteBuffer.allocateDirect(current.position());
+				current.flip();
+				trimmed.put(current);
+				buffers[buffers.length - 1] = trimmed;
+			}
+			return new OffHeapSequence(buffers, length, Arrays.copyOf(runs, 2 * runCount), Arrays.copyOf(masks, runCount));
+		}
+	} //end Builder class
+} //end OffHeapSequence class
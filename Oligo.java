@@ -12,7 +12,7 @@ import com.google.common.base.Preconditions;
 import java.util.*;
 import java.io.*;
 import com.google.common.primitives.*;
-import java.util.regex.*;
+import java.util.concurrent.*;
 
 public class Oligo implements Serializable
 {
@@ -20,9 +20,12 @@ public class Oligo implements Serializable
 	private final String mnf = "MatchNotFound"; //exception
 	private final String soob = "StartIndexOutOfBounds"; //exception
 	private final String eoob = "EndIndexOutOfBounds"; //exception
-	private char ignoredChar = 'n'; //default character to ignore in oligo
 	private final int oligo_length;
-	private static final String OLIGO_ALPHABET_REGEX = "[acgtnACGTN]+";
+	private static final int PARALLEL_CHUNK_WINDOWS = 1 << 16; //search windows per parallel chunk, mismatch-only search
+	private static final int PARALLEL_SW_CHUNK_WINDOWS = 1 << 10; //search windows per parallel chunk, indel search
+	private static volatile AlignmentCache alignmentCache; //shared by all oligos; null (no caching) by default
+	private static volatile OligoMetrics metrics; //shared by all oligos; null (not measured) by default
+	private static final AlignmentCache.Alignment NO_ALIGNMENT = new AlignmentCache.Alignment(null, 0, 0); //no base of the query matches the source
 
 //============================| CONSTRUCTORS |================================//
 
@@ -33,10 +36,7 @@ public class Oligo implements Serializable
 	 */
 	public Oligo(String oligo)
 	{
-		Pattern pat = Pattern.compile(OLIGO_ALPHABET_REGEX);
-		Matcher mat = pat.matcher(oligo);
-
-		Preconditions.checkArgument(mat.matches(), "Oligo object cannot be created. Input Oligo object [%s] contains invalid characters.", oligo);
+		Preconditions.checkArgument(OligoAlphabet.indexOfInvalid(oligo) == -1, "Oligo object cannot be created. Input Oligo object [%s] contains invalid characters.", oligo);
 		this.oligo = oligo;
 		oligo_length = oligo.length();
 	}
@@ -44,15 +44,13 @@ public class Oligo implements Serializable
 
 	public Oligo(StringBuilder oligo)
 	{
-		this.oligo = oligo.toString();
-		oligo_length = oligo.length();
+		this(oligo.toString());
 	}
 
 
 	public Oligo(StringBuffer oligo)
 	{
-		this.oligo = oligo.toString();
-		oligo_length = oligo.length();
+		this(oligo.toString());
 	}
 
 
@@ -70,6 +68,28 @@ public class Oligo implements Serializable
 	}
 
 
+	/**
+	 * Constructor: wraps a sequence without validating it. The flag only distinguishes this constructor from Oligo(String)
+	 */
+	Oligo(String oligo, boolean trusted)
+	{
+		this.oligo = oligo;
+		oligo_length = oligo.length();
+	}
+
+
+	/**
+	 * Factory: creates an oligo from a sequence already known to be valid (i.e. derived from an existing oligo), skipping validation
+	 *
+	 * @param oligo valid sequence
+	 * @return Oligo object
+	 */
+	static Oligo trusted(String oligo)
+	{
+		return new Oligo(oligo, true);
+	}
+
+
 //=========================| OVER RIDDEN METHODS |============================//
 	/**
 	 * Converts oligo to character array
@@ -89,7 +109,7 @@ public class Oligo implements Serializable
 	 */
 	public Oligo toLowerCase()
 	{
-		return new Oligo(oligo.toLowerCase());
+		return trusted(oligo.toLowerCase());
 	}
 
 
@@ -118,7 +138,32 @@ public class Oligo implements Serializable
 
 	public Oligo toUpperCase()
 	{
-		return new Oligo(oligo.toUpperCase());
+		return trusted(oligo.toUpperCase());
+	}
+
+
+	/**
+	 * Two oligos are equal if their sequences are identical, including case
+	 *
+	 * @param o object to compare
+	 * @return boolean
+	 */
+	@Override
+	public boolean equals(Object o)
+	{
+		return o == this || (o instanceof Oligo && oligo.equals(((Oligo) o).oligo));
+	}
+
+
+	/**
+	 * Returns the hash of the sequence; computed once per sequence and cached
+	 *
+	 * @return int hash code
+	 */
+	@Override
+	public int hashCode()
+	{
+		return oligo.hashCode();
 	}
 
 
@@ -130,9 +175,11 @@ public class Oligo implements Serializable
 	 */
 	public Oligo antiparallel()
 	{
-		Oligo tempOligo = new Oligo(oligo);
-		Oligo complement = new Oligo(tempOligo.complement());
-		return complement.reverse();
+		char[] antiparallel = new char[oligo_length];
+
+		for(int i = 0; i <= oligo_length - 1; i++)
+			antiparallel[oligo_length - 1 - i] = OligoAlphabet.complement(oligo.charAt(i));
+		return trusted(new String(antiparallel));
 	}
 
 
@@ -174,31 +221,11 @@ public class Oligo implements Serializable
 	 */
 	public Oligo complement()
 	{
-		String tempOligo = "";
-		char[] source = oligo.toCharArray();
+		char[] complement = new char[oligo_length];
 
 		for(int i = 0; i <= oligo_length - 1; i++)
-		{
-			if(source[i] == 'a')
-				tempOligo += 't';
-			else if(source[i] == 'A')
-				tempOligo += 'T';
-			else if(source[i] == 'c')
-				tempOligo += 'g';
-			else if(source[i] == 'C')
-				tempOligo += 'G';
-			else if(source[i] == 'g')
-				tempOligo += 'c';
-			else if(source[i] == 'G')
-				tempOligo += 'C';
-			else if(source[i] == 't')
-				tempOligo += 'a';
-			else if(source[i] == 'T')
-				tempOligo += 'A';
-			else
-				tempOligo += source[i];
-		}
-		return new Oligo(tempOligo);
+			complement[i] = OligoAlphabet.complement(oligo.charAt(i));
+		return trusted(new String(complement));
 	}
 
 
@@ -249,23 +276,15 @@ public class Oligo implements Serializable
 		int max = Ints.max(bp);
 		if(max <= this.oligo_length - 1)
 		{
-			List<Interval> cutCoordinates = new LinkedList<Interval>();
-
-			cutCoordinates.add(new Interval(0, bp[0])); //first cut coordinate
+			cutFrags.add(extractSequence(0, bp[0])); //first cut fragment
 
 			for(int i = 0; i + 1 < bp.length; i++)
-				cutCoordinates.add(new Interval(bp[i] + 1, bp[i + 1]));
+				cutFrags.add(extractSequence(bp[i] + 1, bp[i + 1]));
 
-			cutCoordinates.add(new Interval(max + 1, this.oligo_length - 1)); //last cut coordinate
-
-			for(Interval i : cutCoordinates)
-				cutFrags.add(extractSequence(i.start(), i.stop()));
+			cutFrags.add(extractSequence(max + 1, this.oligo_length - 1)); //last cut fragment
 		}
 		else
-		{
-			System.out.println("ERROR: [" + Thread.currentThread().getStackTrace()[1].getClassName() + "." + Thread.currentThread().getStackTrace()[1].getMethodName() + "]: Cut coordinate larger than length of oligo to be cut. Thread aborted.");
-			System.exit(0);
-		}
+			throw new OligoException("CutCoordinateOutOfBounds", "cutAt()");
 		return cutFrags;
 	}
 
@@ -307,13 +326,9 @@ public class Oligo implements Serializable
 				strInt += '4';
 		}
 
-		long dna = Long.parseLong(strInt);
-		if(dna > Long.MAX_VALUE)
-		{
-			System.out.println("ERROR: [" + Thread.currentThread().getStackTrace()[1].getClassName() + "." + Thread.currentThread().getStackTrace()[1].getMethodName() + "]: Long DNA value exceeds Long.MAXIMUM_VALUE. Thread aborted.");
-			System.exit(0);
-		}
-		return dna;
+		//digits are 1-4, so any 19-digit value is below Long.MAX_VALUE (9223372036854775807)
+		Preconditions.checkArgument(strInt.length() <= 19, "DNA [%s] is longer than 19 bases and cannot be encoded as a long.", str);
+		return Long.parseLong(strInt);
 	}
 
 
@@ -327,11 +342,9 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseLeftFrom(Oligo query, int mismatches) throws OligoException
 	{
-		if(isFuzzyMatch(query, mismatches))
-		{
-			int index = getFirstMatchCoordinate(query, mismatches);
-			return new Oligo(oligo.substring(index + query.length()));
-		}
+		Oligo result = tryExciseLeftFrom(query, mismatches);
+		if(result != null)
+			return result;
 		else
 			throw new OligoException(mnf, "exciseLeftFrom()"); // exhausted all possibilities, no matches found
 	} // end exciseLeftFrom()
@@ -350,11 +363,9 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseLeftFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
 	{
-		if(isFuzzySmithWatermanMatch(query, mismatches, ins, del, minKeyLength))
-		{
-			Oligo swKey = getFuzzySWkey(query, mismatches, ins, del, minKeyLength);
-			return new Oligo(exciseLeftFrom(swKey, mismatches));
-		}
+		Oligo result = tryExciseLeftFrom(query, mismatches, ins, del, minKeyLength);
+		if(result != null)
+			return result;
 		else
 			throw new OligoException(mnf, "exciseLeftFrom()"); // exhausted all possibilities, no matches found
 	} // end exciseLeftFrom()
@@ -370,11 +381,9 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseLeftOf(Oligo query, int mismatches) throws OligoException
 	{
-		if(isFuzzyMatch(query, mismatches))
-		{
-			int index = getFirstMatchCoordinate(query, mismatches);
-			return new Oligo(oligo.substring(index));
-		}
+		Oligo result = tryExciseLeftOf(query, mismatches);
+		if(result != null)
+			return result;
 		else
 			throw new OligoException(mnf, "exciseLeftOf()"); // exhausted all possibilities, no matches found
 	}//end exciseLeftOf()
@@ -393,11 +402,11 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseLeftOf(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
 	{
-		int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength);
-		if(index != -1)
-			return new Oligo(oligo.substring(index));
+		Oligo result = tryExciseLeftOf(query, mismatches, ins, del, minKeyLength);
+		if(result != null)
+			return result;
 		else
-			throw new OligoException(mnf, "exciseLeftOf()");
+			throw new OligoException(mnf, "exciseLeftOf()"); // exhausted all possibilities, no matches found
 	}//end exciseLeftOf()
 
 
@@ -411,11 +420,9 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseRightFrom(Oligo query, int mismatches) throws OligoException
 	{
-		if(isFuzzyMatch(query, mismatches))
-		{
-			int index = getFirstMatchCoordinate(query, mismatches);
-			return new Oligo(oligo.substring(0, index));
-		}
+		Oligo result = tryExciseRightFrom(query, mismatches);
+		if(result != null)
+			return result;
 		else
 			throw new OligoException(mnf, "exciseRightFrom()"); // exhausted all possibilities, no matches found
 	} //end xciseRightFrom()
@@ -434,11 +441,11 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseRightFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
 	{
-		int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength);
-		if(index != -1)
-			return new Oligo(oligo.substring(0, index));
+		Oligo result = tryExciseRightFrom(query, mismatches, ins, del, minKeyLength);
+		if(result != null)
+			return result;
 		else
-			throw new OligoException(mnf, "exciseRightFrom()");
+			throw new OligoException(mnf, "exciseRightFrom()"); // exhausted all possibilities, no matches found
 	}//end xciseRightFrom()
 
 
@@ -452,11 +459,9 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseRightOf(Oligo query, int mismatches) throws OligoException
 	{
-		if(isFuzzyMatch(query, mismatches))
-		{
-			int index = getFirstMatchCoordinate(query, mismatches);
-			return new Oligo(oligo.substring(0, index + query.length()));
-		}
+		Oligo result = tryExciseRightOf(query, mismatches);
+		if(result != null)
+			return result;
 		else
 			throw new OligoException(mnf, "exciseRightOf()"); // exhausted all possibilities, no matches found
 	} //end exciseRightOf()
@@ -475,14 +480,11 @@ public class Oligo implements Serializable
 	 */
 	public Oligo exciseRightOf(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
 	{
-		if(isFuzzySmithWatermanMatch(query, mismatches, ins, del, minKeyLength))
-		{
-			int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength);
-			Oligo swKey = getFuzzySWkey(query, mismatches, ins, del, minKeyLength);
-			return new Oligo(oligo.substring(0, index + swKey.length()));
-		}
+		Oligo result = tryExciseRightOf(query, mismatches, ins, del, minKeyLength);
+		if(result != null)
+			return result;
 		else
-			throw new OligoException(mnf, "exciseRightOf()");
+			throw new OligoException(mnf, "exciseRightOf()"); // exhausted all possibilities, no matches found
 	}//end exciseRightOf()
 
 
@@ -496,34 +498,21 @@ public class Oligo implements Serializable
 	 */
 	public Oligo extractSequence(Oligo query, int mismatches) throws OligoException
 	{
-		if(isFuzzyMatch(query, mismatches))
-		{
-			if(getFirstMatchCoordinate(query, mismatches) != -1)
-			{
-				int start = getFirstMatchCoordinate(query, mismatches);
-				int stop = start + query.length();
-				return new Oligo(oligo.substring(start, stop));
-			}
-			else
-				throw new OligoException(mnf, "extractSequence()");
-		}
+		Oligo result = tryExtractSequence(query, mismatches);
+		if(result != null)
+			return result;
 		else
-			throw new OligoException(mnf, "extractSequence()");
+			throw new OligoException(mnf, "extractSequence()"); // exhausted all possibilities, no matches found
 	} //end extractSequence()
 
 
 	public Oligo extractSequence(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
 	{
-		Oligo swKey = new Oligo();
-		try
-		{
-			swKey = getFuzzySWkey(query, mismatches, ins, del, minKeyLength);
-		}
-		catch(OligoException error)
-		{
-			error.getStackTrace();
-		}
-		return extractSequence(swKey, mismatches);
+		Oligo result = tryExtractSequence(query, mismatches, ins, del, minKeyLength);
+		if(result != null)
+			return result;
+		else
+			throw new OligoException(mnf, "extractSequence()"); // exhausted all possibilities, no matches found
 	} //end extractSequence()
 
 
@@ -537,22 +526,11 @@ public class Oligo implements Serializable
 	 */
 	public Oligo extractSequence(int start, int end) throws OligoException
 	{
-		String s = new String();
-		boolean START_INDEX_OUT_OF_BOUND = start < 0;
-		boolean END_INDEX_OUT_OF_BOUND = end > oligo.length() - 1;
-
-		if(start >= 0 && end <= oligo.length() - 1)
-			s = oligo.substring(start, end + 1);
-		else if(START_INDEX_OUT_OF_BOUND ^ END_INDEX_OUT_OF_BOUND)
-		{
-			if(START_INDEX_OUT_OF_BOUND)
-				throw new OligoException(soob, "extractSequence()");
-			else
-				throw new OligoException(eoob, "extractSequence()");
-		}
-		else if(START_INDEX_OUT_OF_BOUND && END_INDEX_OUT_OF_BOUND)
-			throw new OligoException("(Start&End)IndexOutofBounds", "extractSequence()");
-		return new Oligo(s);
+		Oligo result = tryExtractSequence(start, end);
+		if(result != null)
+			return result;
+		else
+			throw indexOutOfBounds(start, end, "extractSequence()");
 	} //end extractSequence()
 
 
@@ -563,48 +541,33 @@ public class Oligo implements Serializable
 	 */
 	public static char generateRandomBase()
 	{
-		char ch = ' ';
-		int base = (int) (Math.random() * 100);
-
-		if(base >= 0 && base <= 24)
-			ch = 'a';
-		else if(base >= 25 && base <= 49)
-			ch = 'c';
-		else if(base >= 50 && base <= 74)
-			ch = 'g';
-		else if(base >= 75 && base <= 99)
-			ch = 't';
-		return ch;
+		return OligoAlphabet.BASES[ThreadLocalRandom.current().nextInt(4)];
 	} //end generateRandomBase()
 
 
 	/**
-	 * Generate a random oligo of a specified length
+	 * Generate a random oligo of a specified length. Use OligoGenerator for seeded, reproducible or non-uniform output
 	 *
 	 * @param length length of random oligo
 	 * @return Oligo object
 	 */
 	public static Oligo generateRandomOligo(int length)
 	{
-		String randomOligo = new String();
-
-		for(int i = 0; i <= length - 1; i++)
-		{
-			int base = (int) (Math.random() * 100);
-
-			if(base >= 0 && base <= 24)
-				randomOligo += 'a';
-			else if(base >= 25 && base <= 49)
-				randomOligo += 'c';
-			else if(base >= 50 && base <= 74)
-				randomOligo += 'g';
-			else if(base >= 75 && base <= 99)
-				randomOligo += 't';
-		}
-		return new Oligo(randomOligo);
+		return OligoGenerator.uniform(ThreadLocalRandom.current(), length);
 	} //end generateRandomOligo()
 
 
+	/**
+	 * Returns the alignment cache consulted by smithWaterman(), getFuzzySWkey() and their variants
+	 *
+	 * @return AlignmentCache; null if caching is disabled
+	 */
+	public static AlignmentCache getAlignmentCache()
+	{
+		return alignmentCache;
+	}
+
+
 	/**
 	 * Returns an ArrayList containing the indices of all occurences of the query
 	 *
@@ -612,23 +575,74 @@ public class Oligo implements Serializable
 	 * @param mismatches maximum number of allowedMismatches
 	 * @return ArrayList object (ArrayList is empty if zero matches are found)
 	 */
-	@SuppressWarnings("unchecked")
 	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches)
 	{
-		Oligo searchWindow;
-		ArrayList hits = new ArrayList();
-		final int QUERY_LENGTH = query.length();
+		return getAllMatchCoordinates(query, mismatches, SearchOptions.DEFAULT);
+	}//end getAllMatchCoordinates()
 
-		for(int i = 0; i + QUERY_LENGTH <= oligo_length; i++)
-		{
-			searchWindow = new Oligo(oligo.substring(i, i + QUERY_LENGTH));
-			if(searchWindow.isFuzzyMatch(query, mismatches))
-				hits.add(i);
-		}
+
+	/**
+	 * Returns an ArrayList containing the indices of all occurences of the query
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param options wildcard and case settings
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches, SearchOptions options)
+	{
+		ArrayList<Integer> hits = new ArrayList<Integer>();
+		collectMatchCoordinates(query, mismatches, options, 0, oligo_length + 1, hits); //window starts run to oligo_length inclusive: an empty query matches there too
 		return hits;
 	}//end getAllMatchCoordinates()
 
 
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches), run on the common ForkJoinPool. Results are identical to the sequential search
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinatesParallel(Oligo query, int mismatches)
+	{
+		return getAllMatchCoordinatesParallel(query, mismatches, SearchOptions.DEFAULT, ForkJoinPool.commonPool());
+	}//end getAllMatchCoordinatesParallel()
+
+
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches), run on the given ForkJoinPool
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param options wildcard and case settings
+	 * @param pool pool that executes the search chunks
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinatesParallel(Oligo query, int mismatches, SearchOptions options, ForkJoinPool pool)
+	{
+		ChunkSearch search = (from, to, hits) -> collectMatchCoordinates(query, mismatches, options, from, to, hits);
+		return pool.invoke(new MatchCoordinateTask(search, 0, oligo_length + 1, PARALLEL_CHUNK_WINDOWS));
+	}//end getAllMatchCoordinatesParallel()
+
+
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches), run on a caller-supplied executor
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param options wildcard and case settings
+	 * @param executor executor that runs the search chunks
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 * @throws OligoException if the search is interrupted or a chunk fails
+	 */
+	public ArrayList<Integer> getAllMatchCoordinatesParallel(Oligo query, int mismatches, SearchOptions options, ExecutorService executor) throws OligoException
+	{
+		ChunkSearch search = (from, to, hits) -> collectMatchCoordinates(query, mismatches, options, from, to, hits);
+		return searchChunks(search, PARALLEL_CHUNK_WINDOWS, executor, "getAllMatchCoordinatesParallel()");
+	}//end getAllMatchCoordinatesParallel()
+
+
 	/**
 	 * Returns an ArrayList containing the indices of all occurences of the query
 	 *
@@ -641,33 +655,87 @@ public class Oligo implements Serializable
 	 * @see smithWaterman()
 	 * @see isFuzzSmithWatermanMatch()
 	 */
-	@SuppressWarnings("unchecked")
 	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength)
 	{
-		Oligo searchWindow;
-		Oligo swKey;
-		ArrayList hits = new ArrayList();
-		final int QUERY_LENGTH = query.length(); //net query length must include allowed number of inserts in search window
+		return getAllMatchCoordinates(query, mismatches, ins, del, minKeyLength, SearchOptions.DEFAULT);
+	}//end getAllMatchCoordinates()
 
-		for(int i = 0; i + QUERY_LENGTH + ins <= oligo_length; i++)
-		{
-			try
-			{
-				searchWindow = new Oligo(oligo.substring(i, i + QUERY_LENGTH + ins));   //searchWindow must compensate for number of allowed inserts
-				swKey = searchWindow.smithWaterman(query, ins, del);
-				searchWindow = new Oligo(oligo.substring(i, i + swKey.length()));       //narrow searchWindow to length of potential key
-			}
-			catch(OligoException e)
-			{
-				continue;
-			}
-			if(searchWindow.isFuzzySmithWatermanMatch(query, mismatches, ins, del, minKeyLength) && searchWindow.isFuzzyMatch(swKey, mismatches))
-				hits.add(i);
-		}
+
+	/**
+	 * Returns an ArrayList containing the indices of all occurences of the query
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param options wildcard, case and scoring settings
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options)
+	{
+		ArrayList<Integer> hits = new ArrayList<Integer>();
+		collectMatchCoordinates(query, mismatches, ins, del, minKeyLength, options, 0, oligo_length + 1, hits);
 		return hits;
 	}//end getAllMatchCoordinates()
 
 
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength), run on the common ForkJoinPool. Results are
+	 * identical to the sequential search
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinatesParallel(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		return getAllMatchCoordinatesParallel(query, mismatches, ins, del, minKeyLength, SearchOptions.DEFAULT, ForkJoinPool.commonPool());
+	}//end getAllMatchCoordinatesParallel()
+
+
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength), run on the given ForkJoinPool
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param options wildcard, case and scoring settings
+	 * @param pool pool that executes the search chunks
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinatesParallel(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options, ForkJoinPool pool)
+	{
+		ChunkSearch search = (from, to, hits) -> collectMatchCoordinates(query, mismatches, ins, del, minKeyLength, options, from, to, hits);
+		return pool.invoke(new MatchCoordinateTask(search, 0, oligo_length + 1, PARALLEL_SW_CHUNK_WINDOWS));
+	}//end getAllMatchCoordinatesParallel()
+
+
+	/**
+	 * Parallel version of getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength), run on a caller-supplied executor
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param options wildcard, case and scoring settings
+	 * @param executor executor that runs the search chunks
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 * @throws OligoException if the search is interrupted or a chunk fails
+	 */
+	public ArrayList<Integer> getAllMatchCoordinatesParallel(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options, ExecutorService executor) throws OligoException
+	{
+		ChunkSearch search = (from, to, hits) -> collectMatchCoordinates(query, mismatches, ins, del, minKeyLength, options, from, to, hits);
+		return searchChunks(search, PARALLEL_SW_CHUNK_WINDOWS, executor, "getAllMatchCoordinatesParallel()");
+	}//end getAllMatchCoordinatesParallel()
+
+
 	/**
 	 * Returns the index of the first occurence of query
 	 *
@@ -677,8 +745,14 @@ public class Oligo implements Serializable
 	 */
 	public int getFirstMatchCoordinate(Oligo query, int mismatches)
 	{
-		ArrayList list = getAllMatchCoordinates(query, mismatches);
-		return (list.size() > 0) ? Integer.parseInt(list.get(0).toString()) : -1;
+		final int QUERY_LENGTH = query.length();
+
+		for(int i = 0; i + QUERY_LENGTH <= oligo_length; i++)
+		{
+			if(isMatchAt(i, query, mismatches, SearchOptions.DEFAULT))
+				return i;
+		}
+		return -1;
 	}//end getFirstMatchCoordinate()
 
 
@@ -694,8 +768,15 @@ public class Oligo implements Serializable
 	 */
 	public int getFirstMatchCoordinate(Oligo query, int mismatches, int ins, int del, int minKeyLength)
 	{
-		ArrayList list = getAllMatchCoordinates(query, mismatches, ins, del, minKeyLength);
-		return (list.size() > 0) ? Integer.parseInt(list.get(0).toString()) : -1;
+		final int QUERY_LENGTH = query.length();
+		AlignmentScratch scratch = new AlignmentScratch();
+
+		for(int i = 0; i + QUERY_LENGTH + ins <= oligo_length; i++)
+		{
+			if(isMatchAt(i, query, mismatches, ins, del, minKeyLength, SearchOptions.DEFAULT, scratch))
+				return i;
+		}
+		return -1;
 	}//end getFirstMatchCoordinate()
 
 
@@ -714,22 +795,30 @@ public class Oligo implements Serializable
 	 */
 	public Oligo getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
 	{
-		if(isFuzzySmithWatermanMatch(query, mismatches, ins, del, minKeyLength))
-			return smithWaterman(query, ins, del);
-		else
-			throw new OligoException(mnf, "getFuzzySWkey()");
+		return getFuzzySWkey(query, mismatches, ins, del, minKeyLength, SearchOptions.DEFAULT);
 	}//end getFuzzySWkey()
 
 
 	/**
-	 * Returns the currenly set character to ignore
+	 * getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength) using the given search settings
 	 *
-	 * @return char character
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param options wildcard, case and scoring settings
+	 * @return [Oligo object] Found key
+	 * @throws OligoException
 	 */
-	public char getIgnoredChar()
+	public Oligo getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options) throws OligoException
 	{
-		return ignoredChar;
-	}
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, options);
+		if(swKey != null)
+			return swKey;
+		else
+			throw new OligoException(mnf, "getFuzzySWkey()");
+	}//end getFuzzySWkey()
 
 
 	/**
@@ -763,6 +852,17 @@ public class Oligo implements Serializable
 	}
 
 
+	/**
+	 * Returns the receiver of hot-path measurements
+	 *
+	 * @return OligoMetrics; null if measurement is disabled
+	 */
+	public static OligoMetrics getMetrics()
+	{
+		return metrics;
+	}
+
+
 	/**
 	 * Inserts the specified insert immediately BEFORE the specified index
 	 *
@@ -774,21 +874,35 @@ public class Oligo implements Serializable
 	{
 		String insertSeq = insert.toString();
 		StringBuilder targetOligo = new StringBuilder(oligo);
-		return new Oligo(targetOligo.insert(index, insertSeq));
+		return trusted(targetOligo.insert(index, insertSeq).toString());
 	}
 
 
 	/**
-	 * Returns true if the input sequence contains only 'A/a', 'C/c', 'G/g', 'T/t' and the ignoredChar; Otherwise, returns false
+	 * Returns true if the input sequence contains only 'A/a', 'C/c', 'G/g', 'T/t' and the default wildcard ('N/n'); Otherwise, returns false
 	 *
 	 * @return boolean
 	 */
 	public boolean isDNA()
+	{
+		return isDNA(SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * Returns true if the input sequence contains only bases and wildcards, as defined by options; Otherwise, returns false. If options are case sensitive, only
+	 * lowercase bases are accepted
+	 *
+	 * @param options wildcard and case settings
+	 * @return boolean
+	 */
+	public boolean isDNA(SearchOptions options)
 	{
 		char[] s = oligo.toCharArray();
 		for(char base : s)
 		{
-			if(base != 'a' && base != 'c' && base != 'g' && base != 't' && base != ignoredChar)
+			char ch = options.isCaseSensitive() ? base : Character.toLowerCase(base);
+			if(ch != 'a' && ch != 'c' && ch != 'g' && ch != 't' && !options.isWildcard(base))
 				return false;
 		}
 		return true;
@@ -815,43 +929,37 @@ public class Oligo implements Serializable
 	 */
 	public boolean isFuzzyMatch(Oligo inputQuery, int mismatches)
 	{
-		char[] query = inputQuery.toUpperCase().toCharArray();
-		char[] source = oligo.toUpperCase().toCharArray();
-		int ntMatches = 0; //ntMatches = number of nucleotide-nucleotide (GC or AT) matches
-		int ignoredCharMatches = 0; //ignoredCharMatches = number of nucleotide-ignoredChar (i.e. 'N') matches
-		final int QUERY_LENGTH = query.length;
-
-		for(int i = 0; i + QUERY_LENGTH <= oligo_length; i++)
-		{
-			for(int j = 0; j <= QUERY_LENGTH - 1; j++)
-			{
-				boolean nnMatch = (source[i + j] == query[j]);
-				boolean niMatch = (source[i + j] == ignoredChar || query[j] == ignoredChar);
-
-				if(nnMatch && !niMatch) //count only nucleotide-nucleotide matches
-					ntMatches++;
-				else if(niMatch)  //count only nucleotide-ignoredChar matches
-					ignoredCharMatches++;
-			} //inner for() loop
-
-			if(ntMatches >= QUERY_LENGTH - mismatches - ignoredCharMatches)
-				return true;
-			else
-			{
-				ntMatches = 0; //must reset for each unsuccesful loop
-				ignoredCharMatches = 0; //must reset for each unsuccesful loop
-			}
-		} //outer for() loop
-		return false; // exhausted all possibilities, no matches found
+		return isFuzzyMatch(inputQuery, mismatches, SearchOptions.DEFAULT);
 	} //end isFuzzyMatch() method
 
 
 	/**
-	 * Combined isFuzzyMatch() and smithWaterman() to allow search that incorporates mismatches and/or indels
+	 * Determines whether query sequence is contained in the oligo sequence, given the allowed mismatches. Wildcards and case sensitivity are taken from options
 	 *
-	 * @param query The query sequence to search for
-	 * @param mismatches The maximum allowed number of mismatches between query and source
-	 * @param ins The maximum allowed number of inserts in the SOURCE sequence (i.e. # deletions in query)
+	 * @param inputQuery The query to search for
+	 * @param mismatches
+	 * @param options wildcard and case settings
+	 * @return boolean
+	 */
+	public boolean isFuzzyMatch(Oligo inputQuery, int mismatches, SearchOptions options)
+	{
+		final int QUERY_LENGTH = inputQuery.length();
+
+		for(int i = 0; i + QUERY_LENGTH <= oligo_length; i++)
+		{
+			if(isMatchAt(i, inputQuery, mismatches, options))
+				return true;
+		}
+		return false; // exhausted all possibilities, no matches found
+	} //end isFuzzyMatch() method
+
+
+	/**
+	 * Combined isFuzzyMatch() and smithWaterman() to allow search that incorporates mismatches and/or indels
+	 *
+	 * @param query The query sequence to search for
+	 * @param mismatches The maximum allowed number of mismatches between query and source
+	 * @param ins The maximum allowed number of inserts in the SOURCE sequence (i.e. # deletions in query)
 	 * @param del The maximum allowed number of deletions in the SOURCE sequence (i.e. # insertions in query)
 	 * @return boolean TRUE if query is found within source, given the specified conditions; FALSE otherwise
 	 * @see isFuzzyMatch()
@@ -859,35 +967,34 @@ public class Oligo implements Serializable
 	 */
 	public boolean isFuzzySmithWatermanMatch(Oligo query, int mismatches, int ins, int del)
 	{
-		Oligo swKey = new Oligo();
-
-		try
-		{
-			swKey = smithWaterman(query, ins, del);
-		}
-		catch(OligoException error)
-		{
-			error.getStackTrace();
-		}
-
-		return isFuzzyMatch(swKey, mismatches);
+		return isFuzzySmithWatermanMatch(query, mismatches, ins, del, 0, SearchOptions.DEFAULT);
 	} //end isFuzzySmithWatermanMatch()
 
 
 	public boolean isFuzzySmithWatermanMatch(Oligo query, int mismatches, int ins, int del, int minKeyLength)
 	{
-		Oligo swKey = new Oligo();
+		return isFuzzySmithWatermanMatch(query, mismatches, ins, del, minKeyLength, SearchOptions.DEFAULT);
+	} //end isFuzzySmithWatermanMatch()
 
-		try
-		{
-			swKey = smithWaterman(query, ins, del);
-		}
-		catch(OligoException error)
-		{
-			error.getStackTrace();
-		}
 
-		return isFuzzyMatch(swKey, mismatches) && swKey.length() >= minKeyLength;
+	/**
+	 * isFuzzySmithWatermanMatch(Oligo query, int mismatches, int ins, int del, int minKeyLength) using the given search settings
+	 *
+	 * @param query The query sequence to search for
+	 * @param mismatches The maximum allowed number of mismatches between query and source
+	 * @param ins The maximum allowed number of inserts in the SOURCE sequence (i.e. # deletions in query)
+	 * @param del The maximum allowed number of deletions in the SOURCE sequence (i.e. # insertions in query)
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param options wildcard, case and scoring settings
+	 * @return boolean TRUE if query is found within source, given the specified conditions; FALSE otherwise
+	 */
+	public boolean isFuzzySmithWatermanMatch(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options)
+	{
+		Oligo swKey = trySmithWaterman(query, ins, del, options);
+
+		if(swKey == null)
+			return false; //indels exceed the allowed limits
+		return isFuzzyMatch(swKey, mismatches, options) && swKey.length() >= minKeyLength;
 	} //end isFuzzySmithWatermanMatch()
 
 
@@ -923,53 +1030,45 @@ public class Oligo implements Serializable
 	 */
 	public Oligo ligate(Oligo input)
 	{
-		return new Oligo(this.oligo + input.toString());
+		return trusted(this.oligo + input.toString());
 	}
 
 
 	/**
-	 * Induces base substitution mutations in oligo
+	 * Induces base substitution mutations in oligo: with a probability of about percent/100, one base is replaced by a random base. Draws from the unseeded
+	 * ThreadLocalRandom, so results are not reproducible; use Mutagenesis for seeded, per-base substitutions, insertions and deletions
 	 *
 	 * @param percent The percentage of mutation to be induced
 	 * @return Oligo object - mutated oligo sequence
 	 */
 	public Oligo mutate(int percent)
 	{
-		int probability = (int) (Math.random() * (100 + 1)); //probability that the oligo will be mutated
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int probability = (int) (random.nextDouble() * (100 + 1)); //probability that the oligo will be mutated
 		final int LAST_INDEX = oligo.length() - 1;
 		StringBuffer tempOligo = new StringBuffer(oligo);
 
 		if(probability > percent)
-			return new Oligo(tempOligo);
+			return trusted(tempOligo.toString());
 		else if(probability <= percent)
 		{
-			int index = (int) (Math.random() * LAST_INDEX);
+			int index = (int) (random.nextDouble() * LAST_INDEX);
 			char ch = generateRandomBase();
 			if(oligo.charAt(index) != ch)
 				tempOligo.setCharAt(index, ch);
 		}
-		return new Oligo(tempOligo);
+		return trusted(tempOligo.toString());
 	} //end mutate()
 
 
 	/**
-	 * Randomizes the given oligo sequence
+	 * Randomizes the given oligo sequence with a Fisher-Yates shuffle, preserving base composition. Use Mutagenesis.shuffle() for seeded, reproducible output
 	 *
 	 * @return [Oligo object] randomized oligo sequence
 	 */
 	public Oligo randomize()
 	{
-		StringBuffer tempOligo = new StringBuffer(oligo);
-
-		for(int i = 0; i <= 5 * oligo.length(); i++)
-		{
-			//randomly pick a character and move it to the end
-			int randomIndex = (int) (Math.random() * (oligo.length() - 1));
-			char tempChar = tempOligo.charAt(randomIndex);
-			tempOligo.deleteCharAt(randomIndex);
-			tempOligo.append(tempChar);
-		}
-		return new Oligo(tempOligo);
+		return trusted(new String(Mutagenesis.shuffle(oligo.toCharArray(), ThreadLocalRandom.current())));
 	} //end randomize()
 
 
@@ -992,18 +1091,31 @@ public class Oligo implements Serializable
 	public Oligo reverse()
 	{
 		StringBuilder tempOligo = new StringBuilder(oligo);
-		return new Oligo(tempOligo.reverse());
+		return trusted(tempOligo.reverse().toString());
 	}
 
 
 	/**
-	 * Sets the character to ignore during manipulation operations. Default is 'N'
+	 * Installs an alignment cache shared by every oligo. smithWaterman(), trySmithWaterman(), getFuzzySWkey(), tryGetFuzzySWkey() and isFuzzySmithWatermanMatch()
+	 * then look up alignments by source, query, case sensitivity and scoring before computing them. Indel-aware searches bypass it: they align a new window at every
+	 * start coordinate, and those one-off entries would only evict the reusable ones
 	 *
-	 * @param inputChar
+	 * @param cache alignment cache; null disables caching
 	 */
-	public void setIgnoredChar(char inputChar)
+	public static void setAlignmentCache(AlignmentCache cache)
 	{
-		this.ignoredChar = inputChar;
+		alignmentCache = cache;
+	}
+
+
+	/**
+	 * Installs a receiver for the counters and histograms measured by searches, alignments and OligoException, shared by every oligo
+	 *
+	 * @param receiver metrics receiver, i.e. an OligoMetrics.Recorder; null disables measurement
+	 */
+	public static void setMetrics(OligoMetrics receiver)
+	{
+		metrics = receiver;
 	}
 
 
@@ -1018,24 +1130,449 @@ public class Oligo implements Serializable
 	 */
 	public Oligo smithWaterman(Oligo query, int ins, int del) throws OligoException
 	{
-		char[] s = ("x" + oligo).toUpperCase().toCharArray(); //pad 'x' as first char of oligo
-		char[] q = ("x" + query).toUpperCase().toCharArray(); //pad 'x' as first char of query
-		float[][] matrix = new float[q.length + 1][s.length + 1];
+		return smithWaterman(query, ins, del, SearchOptions.DEFAULT);
+	} //end smithWaterman() method
+
+
+	/**
+	 * smithWaterman(Oligo query, int ins, int del) using the case and scoring settings of options
+	 *
+	 * @param query The query sequence to search for
+	 * @param ins The maximum number of inserts allowed in the source sequence
+	 * @param del The maximum number of deletes allowed in the source sequence
+	 * @param options wildcard, case and scoring settings
+	 * @return Oligo object: transformed query sequence, if within specified conditions
+	 * @throws OligoException
+	 * @throws IllegalArgumentException if (query length + 1) * (source length + 1) exceeds the cells one scores matrix can hold
+	 */
+	public Oligo smithWaterman(Oligo query, int ins, int del, SearchOptions options) throws OligoException
+	{
+		Oligo key = trySmithWaterman(query, ins, del, options);
+		if(key != null)
+			return key;
+		else
+			throw new OligoException(mnf, "smithWaterman()");
+	} //end smithWaterman() method
+
+
+	/**
+	 * Deletes the first occurence of the target sequence based on a best fuzzy-match search. Overloaded to include the option of including indels
+	 *
+	 * @param query
+	 * @param mismatches The maximum number of allowed mismatches
+	 * @return Oligo object: spliced oligo, if target is found
+	 * @throws OligoException
+	 */
+	public Oligo spliceOut(Oligo query, int mismatches) throws OligoException
+	{
+		if(isFuzzyMatch(query, mismatches))
+		{
+			int index = getFirstMatchCoordinate(query, mismatches);
+			return trusted(oligo.substring(0, index) + oligo.substring(index + query.length(), oligo.length() - 1));
+		}
+		else
+			throw new OligoException(mnf, "spliceOut()");
+	} //end spliceOut()
+
+
+	/**
+	 * Splices out a given sequence based on specified start and end indices, inclusively
+	 *
+	 * @param start start index
+	 * @param end end index
+	 * @return Oligo object representing remaining sequence after splicing
+	 * @throws OligoException
+	 */
+	public Oligo spliceOut(int start, int end) throws OligoException
+	{
+		String s = "";
+
+		if(start >= 0 && end <= oligo.length() - 1)
+			s = oligo.substring(0, start) + oligo.substring(end + 1, oligo.length() - 1);
+		else
+			throw indexOutOfBounds(start, end, "extractSequence()");
+		return trusted(s);
+	} //end spliceOut()
+
+
+	/**
+	 * Excises everthing left of query, including the query sequence. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseLeftFrom(Oligo query, int mismatches)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches);
+		return (index != -1) ? trusted(oligo.substring(index + query.length())) : null;
+	}//end tryExciseLeftFrom()
+
+
+	/**
+	 * Excises everthing left of query, including the query sequence. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseLeftFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength);
+		return (swKey != null) ? tryExciseLeftFrom(swKey, mismatches) : null;
+	}//end tryExciseLeftFrom()
+
+
+	/**
+	 * Excises everthing left of query. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseLeftOf(Oligo query, int mismatches)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches);
+		return (index != -1) ? trusted(oligo.substring(index)) : null;
+	}//end tryExciseLeftOf()
+
+
+	/**
+	 * Excises everthing left of query. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseLeftOf(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength);
+		return (index != -1) ? trusted(oligo.substring(index)) : null;
+	}//end tryExciseLeftOf()
+
+
+	/**
+	 * Excises everthing right of query, including the query sequence. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseRightFrom(Oligo query, int mismatches)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches);
+		return (index != -1) ? trusted(oligo.substring(0, index)) : null;
+	}//end tryExciseRightFrom()
+
+
+	/**
+	 * Excises everthing right of query, including the query sequence. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseRightFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength);
+		return (index != -1) ? trusted(oligo.substring(0, index)) : null;
+	}//end tryExciseRightFrom()
+
+
+	/**
+	 * Excises everthing right of query. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseRightOf(Oligo query, int mismatches)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches);
+		return (index != -1) ? trusted(oligo.substring(0, index + query.length())) : null;
+	}//end tryExciseRightOf()
+
+
+	/**
+	 * Excises everthing right of query. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return [Oligo object] Resulting oligo sequence after excision; otherwise returns null
+	 */
+	public Oligo tryExciseRightOf(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength);
+		if(swKey == null)
+			return null;
+		int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength);
+		return (index != -1) ? trusted(oligo.substring(0, index + swKey.length())) : null;
+	}//end tryExciseRightOf()
+
+
+	/**
+	 * Extracts the first best match sequence from oligo, based on fuzzy-match algorithm. Returns null instead of throwing OligoException
+	 *
+	 * @param query the sequence to extract
+	 * @param mismatches the maximum number of allowed mismatches
+	 * @return [Oligo object] Extracted source sequence; otherwise returns null
+	 */
+	public Oligo tryExtractSequence(Oligo query, int mismatches)
+	{
+		int start = getFirstMatchCoordinate(query, mismatches);
+		return (start != -1) ? trusted(oligo.substring(start, start + query.length())) : null;
+	}//end tryExtractSequence()
+
+
+	/**
+	 * Extracts the source sequence matched by the indel-aware search. Returns null instead of throwing OligoException
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return [Oligo object] Extracted source sequence; otherwise returns null
+	 */
+	public Oligo tryExtractSequence(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength);
+		return (swKey != null) ? tryExtractSequence(swKey, mismatches) : null;
+	}//end tryExtractSequence()
+
+
+	/**
+	 * Extracts a sequence based on given start and end indices, inclusively. Returns null instead of throwing OligoException
+	 *
+	 * @param start start index
+	 * @param end end index
+	 * @return [Oligo object] Extracted source sequence; otherwise returns null if either index is out of bounds
+	 */
+	public Oligo tryExtractSequence(int start, int end)
+	{
+		return (start >= 0 && end <= oligo_length - 1) ? trusted(oligo.substring(start, end + 1)) : null;
+	}//end tryExtractSequence()
+
+
+	/**
+	 * getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength) that returns null instead of throwing OligoException
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @return [Oligo object] Found key; otherwise returns null
+	 */
+	public Oligo tryGetFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		return tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, SearchOptions.DEFAULT);
+	}//end tryGetFuzzySWkey()
+
+
+	/**
+	 * getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options) that returns null instead of throwing OligoException. Runs
+	 * the alignment once
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param options wildcard, case and scoring settings
+	 * @return [Oligo object] Found key; otherwise returns null
+	 */
+	public Oligo tryGetFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options)
+	{
+		Oligo swKey = trySmithWaterman(query, ins, del, options);
+		return (swKey != null && isFuzzyMatch(swKey, mismatches, options) && swKey.length() >= minKeyLength) ? swKey : null;
+	}//end tryGetFuzzySWkey()
+
+
+	/**
+	 * smithWaterman(Oligo query, int ins, int del) that returns null instead of throwing OligoException
+	 *
+	 * @param query The query sequence to search for
+	 * @param ins The maximum number of inserts allowed in the source sequence
+	 * @param del The maximum number of deletes allowed in the source sequence
+	 * @return Oligo object: transformed query sequence, if within specified conditions; otherwise returns null
+	 */
+	public Oligo trySmithWaterman(Oligo query, int ins, int del)
+	{
+		return trySmithWaterman(query, ins, del, SearchOptions.DEFAULT);
+	}//end trySmithWaterman()
+
+
+	/**
+	 * smithWaterman(Oligo query, int ins, int del, SearchOptions options) that returns null instead of throwing OligoException
+	 *
+	 * @param query The query sequence to search for
+	 * @param ins The maximum number of inserts allowed in the source sequence
+	 * @param del The maximum number of deletes allowed in the source sequence
+	 * @param options wildcard, case and scoring settings
+	 * @return Oligo object: transformed query sequence, if within specified conditions; otherwise returns null
+	 */
+	public Oligo trySmithWaterman(Oligo query, int ins, int del, SearchOptions options)
+	{
+		return trySmithWaterman(query, ins, del, options, new AlignmentScratch());
+	}//end trySmithWaterman()
+
+
+	/**
+	 * trySmithWaterman(Oligo query, int ins, int del, SearchOptions options) that fills its scores matrix in the given scratch buffer instead of allocating a new one
+	 *
+	 * @param query The query sequence to search for
+	 * @param ins The maximum number of inserts allowed in the source sequence
+	 * @param del The maximum number of deletes allowed in the source sequence
+	 * @param options wildcard, case and scoring settings
+	 * @param scratch reusable scores matrix; must not be shared between concurrent calls
+	 * @return Oligo object: transformed query sequence, if within specified conditions; otherwise returns null
+	 */
+	Oligo trySmithWaterman(Oligo query, int ins, int del, SearchOptions options, AlignmentScratch scratch)
+	{
+		AlignmentCache cache = alignmentCache;
+		AlignmentCache.Alignment alignment = (cache != null) ? cache.get(oligo, query.toString(), options) : null;
+
+		if(alignment == null)
+		{
+			alignment = align(query, options, scratch, null);
+			if(cache != null)
+			{
+				cache.put(oligo, query.toString(), options, alignment);
+				OligoMetrics receiver = metrics;
+				if(receiver != null)
+					receiver.count(OligoMetrics.Counter.CACHE_MISSES, 1);
+			}
+		}
+		else
+			recordCacheHit(query, alignment);
+
+		//evaluate success of search based upon specified conditions
+		if(alignment.getKey() != null && alignment.getDeletions() <= del && alignment.getInsertions() <= ins)
+			return alignment.getKey();
+		else
+			return null;
+	} //end trySmithWaterman() method
+
+
+	/**
+	 * trySmithWaterman(Oligo query, int ins, int del, SearchOptions options) that scores the source positions flagged in 'neutral' as 0 instead of MATCH or MISMATCH,
+	 * i.e. for unreliable base calls. Bypasses the alignment cache
+	 *
+	 * @param query The query sequence to search for
+	 * @param ins The maximum number of inserts allowed in the source sequence
+	 * @param del The maximum number of deletes allowed in the source sequence
+	 * @param options wildcard, case and scoring settings
+	 * @param neutral one flag per source position
+	 * @return Oligo object: transformed query sequence, if within specified conditions; otherwise returns null
+	 */
+	Oligo trySmithWaterman(Oligo query, int ins, int del, SearchOptions options, boolean[] neutral)
+	{
+		return alignWithin(query, ins, del, options, new AlignmentScratch(), neutral);
+	} //end trySmithWaterman() method
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Returns the Smith-Waterman key of query against this oligo if it needs at most ins inserts and del deletes, otherwise null. Bypasses the alignment cache
+	 */
+	private Oligo alignWithin(Oligo query, int ins, int del, SearchOptions options, AlignmentScratch scratch, boolean[] neutral)
+	{
+		AlignmentCache.Alignment alignment = align(query, options, scratch, neutral);
+		return (alignment.getKey() != null && alignment.getDeletions() <= del && alignment.getInsertions() <= ins) ? alignment.getKey() : null;
+	} //end alignWithin()
+
+
+	/**
+	 * Runs the Smith-Waterman alignment of query against this oligo and returns the key with its insert and delete counts, whatever the allowed limits; the key is
+	 * null if no cell scores above 0. Source positions flagged in 'neutral' (may be null) score 0 against any query base
+	 */
+	private AlignmentCache.Alignment align(Oligo query, SearchOptions options, AlignmentScratch scratch, boolean[] neutral)
+	{
+		OligoEvents.Alignment event = new OligoEvents.Alignment();
+		OligoMetrics receiver = metrics;
+		if(receiver == null && !event.isEnabled())
+			return fillAndTrace(query, options, scratch, neutral);
+
+		long start = System.nanoTime();
+		long allocated = scratch.allocatedCells();
+		event.begin();
+		AlignmentCache.Alignment alignment = fillAndTrace(query, options, scratch, neutral);
+		event.end();
+
+		long cells = (long) query.length() * oligo_length;
+		if(event.shouldCommit())
+		{
+			event.sourceLength = oligo_length;
+			event.queryLength = query.length();
+			event.cells = cells;
+			event.insertions = alignment.getInsertions();
+			event.deletions = alignment.getDeletions();
+			event.commit();
+		}
+		if(receiver != null)
+		{
+			receiver.count(OligoMetrics.Counter.ALIGNMENTS, 1);
+			receiver.count(OligoMetrics.Counter.CELLS, cells);
+			//padded copies, upper-cased char arrays and masks of both sequences, the key, and the scores matrix if the scratch buffer could not hold it
+			long bytes = 14L * (oligo_length + query.length()) + 4L * query.length() + 4L * (scratch.allocatedCells() - allocated);
+			receiver.count(OligoMetrics.Counter.ALLOCATED_BYTES, bytes);
+			receiver.record(OligoMetrics.Histogram.ALIGNMENT_NANOS, System.nanoTime() - start);
+			receiver.record(OligoMetrics.Histogram.ALIGNMENT_CELLS, cells);
+		}
+		return alignment;
+	} //end align()
+
+
+	/**
+	 * Fills the Smith-Waterman scores matrix of query against this oligo and traces the key back from its highest-scoring cell
+	 */
+	private AlignmentCache.Alignment fillAndTrace(Oligo query, SearchOptions options, AlignmentScratch scratch, boolean[] neutral)
+	{
+		String source = "x" + oligo; //pad 'x' as first char of oligo
+		String target = "x" + query; //pad 'x' as first char of query
+		char[] s = (options.isCaseSensitive() ? source : source.toUpperCase()).toCharArray();
+		char[] q = (options.isCaseSensitive() ? target : target.toUpperCase()).toCharArray();
+		int[] sMask = new int[s.length];
+		int[] qMask = new int[q.length];
+		final float MATCH = (float) options.getMatchScore();
+		final float MISMATCH = (float) options.getMismatchScore();
+		final double GAP_OPEN = options.getGapOpen();
+		final double GAP_EXTEND = options.getGapExtend();
+		final int COLS = s.length + 1; //matrix[i][j] is stored at matrix[i * COLS + j]
+		float[] matrix = scratch.matrix((long) (q.length + 1) * COLS);
 		float max = 0;
 		float best = 0; //highest score in each comparison
 		float iScore = 0;
 		float jScore = 0;
-		float diagScore = 0; //nucleotide-nucleotide alignment score: match = 1.0; mismatch = -0.3
+		float diagScore = 0; //nucleotide-nucleotide alignment score: MATCH or MISMATCH
 		int imax = 0;
 		int jmax = 0;
 
+		for(int j = 1; j < s.length; j++)
+			sMask[j] = options.mask(s[j]);
+		for(int i = 1; i < q.length; i++)
+			qMask[i] = options.mask(q[i]);
+
 		//initialize row 0 to 0.0
 		for(int i = 0; i <= q.length; i++)
-			matrix[i][0] = (float) 0.0;
+			matrix[i * COLS] = (float) 0.0;
 
 		//initialize column 0 to 0.0
 		for(int j = 0; j <= s.length; j++)
-			matrix[0][j] = (float) 0.0;
+			matrix[j] = (float) 0.0;
 
 		//construct scores matrix
 		for(int i = 1; i <= q.length - 1; i++)
@@ -1043,33 +1580,36 @@ public class Oligo implements Serializable
 			for(int j = 1; j <= s.length - 1; j++)
 			{
 				//calculate diagonal score
-				diagScore = (q[i] == s[j]) ? (float) 1.0 : (float) -0.3;
-				best = matrix[i - 1][j - 1] + diagScore; //initially, asume diagonal is best score
+				diagScore = (neutral != null && neutral[j - 1]) ? 0 : ((qMask[i] & sMask[j]) != 0) ? MATCH : MISMATCH;
+				best = matrix[(i - 1) * COLS + j - 1] + diagScore; //initially, asume diagonal is best score
 
 				//calc max vertical score
 				for(int vGap = i; vGap >= 0; vGap--)
 				{
-					iScore = matrix[i - vGap][j] - (float) (1 + 0.3 * vGap);
+					iScore = matrix[(i - vGap) * COLS + j] - (float) (GAP_OPEN + GAP_EXTEND * vGap);
 					best = (iScore > best) ? iScore : best;
 				}
 
 				//calc max horizontal score
 				for(int hGap = j; hGap >= 0; hGap--)
 				{
-					jScore = matrix[i][j - hGap] - (float) (1 + 0.3 * hGap);
+					jScore = matrix[i * COLS + j - hGap] - (float) (GAP_OPEN + GAP_EXTEND * hGap);
 					best = (jScore > best) ? jScore : best;
 				}
 
-				matrix[i][j] = (best > 0) ? best : 0;
-				if(matrix[i][j] > max)
+				matrix[i * COLS + j] = (best > 0) ? best : 0;
+				if(matrix[i * COLS + j] > max)
 				{
-					max = matrix[i][j];
+					max = matrix[i * COLS + j];
 					imax = i;
 					jmax = j;
 				}
 			} //for(int j...) loop
 		} //for(int i...) loop
 
+		if(max == 0) //nothing aligns; the traceback below needs a positive cell to start from
+			return NO_ALIGNMENT;
+
 		//reconstruct alignment
 		int nDel = 0;               //number of deletions in source
 		int nIns = 0;               //number of insertions in source
@@ -1084,10 +1624,10 @@ public class Oligo implements Serializable
 
 		do
 		{
-			//System.out.println("imax = " + imax + " jmax = " + jmax + "  matrix[imax][jmax] = " + matrix[imax][jmax]);
-			above = matrix[imax - 1][jmax];
-			diag = matrix[imax - 1][jmax - 1];
-			left = matrix[imax][jmax - 1];
+			//System.out.println("imax = " + imax + " jmax = " + jmax + "  matrix[imax][jmax] = " + matrix[imax * COLS + jmax]);
+			above = matrix[(imax - 1) * COLS + jmax];
+			diag = matrix[(imax - 1) * COLS + jmax - 1];
+			left = matrix[imax * COLS + jmax - 1];
 			isAbove = (above >= diag) && (above >= left);
 			isDiag = (diag >= above) && (diag >= left);
 			isLeft = (left >= diag) && (left >= above);
@@ -1111,61 +1651,280 @@ public class Oligo implements Serializable
 				key.append('n');
 				nIns++;
 			}
-		} while(matrix[imax][jmax] > 0);
+		} while(matrix[imax * COLS + jmax] > 0);
 
-		//evaluate success of search based upon specified conditions
-		if(nDel <= del && nIns <= ins)
-			return new Oligo(key.reverse());
-		else
-			throw new OligoException(mnf, "smithWaterman()");
-	} //end smithWaterman() method
+		return new AlignmentCache.Alignment(trusted(key.reverse().toString()), nIns, nDel);
+	} //end fillAndTrace()
+
+
+	private void recordCacheHit(Oligo query, AlignmentCache.Alignment alignment)
+	{
+		OligoEvents.Alignment event = new OligoEvents.Alignment();
+		if(event.shouldCommit())
+		{
+			event.sourceLength = oligo_length;
+			event.queryLength = query.length();
+			event.insertions = alignment.getInsertions();
+			event.deletions = alignment.getDeletions();
+			event.cached = true;
+			event.commit();
+		}
+		OligoMetrics receiver = metrics;
+		if(receiver != null)
+			receiver.count(OligoMetrics.Counter.CACHE_HITS, 1);
+	}
 
 
 	/**
-	 * Deletes the first occurence of the target sequence based on a best fuzzy-match search. Overloaded to include the option of including indels
-	 *
-	 * @param query
-	 * @param mismatches The maximum number of allowed mismatches
-	 * @return Oligo object: spliced oligo, if target is found
-	 * @throws OligoException
+	 * Adds to hits the start index of every mismatch-only match whose search window starts in [from, to). Windows starting near 'to' read past it, so neighbouring
+	 * chunks overlap by the query length
 	 */
-	public Oligo spliceOut(Oligo query, int mismatches) throws OligoException
+	private void collectMatchCoordinates(Oligo query, int mismatches, SearchOptions options, int from, int to, List<Integer> hits)
 	{
-		if(isFuzzyMatch(query, mismatches))
+		OligoEvents.Search event = new OligoEvents.Search();
+		OligoMetrics receiver = metrics;
+		if(receiver == null && !event.isEnabled())
 		{
-			int index = getFirstMatchCoordinate(query, mismatches);
-			return new Oligo(oligo.substring(0, index) + oligo.substring(index + query.length(), oligo.length() - 1));
+			scanMatchCoordinates(query, mismatches, options, from, to, hits);
+			return;
+		}
+
+		long start = System.nanoTime();
+		int found = hits.size();
+		event.begin();
+		scanMatchCoordinates(query, mismatches, options, from, to, hits);
+		event.end();
+		int windows = Math.max(Math.min(to, oligo_length - query.length() + 1) - from, 0);
+		long packed = options.isIupacNibbles() ? (windows + 2L * query.length()) / 2 : 0; //nibble-packed source and query
+		recordSearch(event, receiver, start, query, mismatches, 0, 0, from, windows, hits.size() - found, packed);
+	}//end collectMatchCoordinates()
+
+
+	private void scanMatchCoordinates(Oligo query, int mismatches, SearchOptions options, int from, int to, List<Integer> hits)
+	{
+		final int QUERY_LENGTH = query.length();
+		final int LAST = Math.min(to, oligo_length - QUERY_LENGTH + 1); //end of window starts, exclusive
+
+		if(!options.isIupacNibbles() || from >= LAST)
+		{
+			for(int i = from; i < LAST; i++)
+			{
+				if(isMatchAt(i, query, mismatches, options))
+					hits.add(i);
+			}
+			return;
+		}
+
+		//compare 16 bases per AND over 4-bit masks of this chunk's windows
+		long[] source = OligoAlphabet.packNibbles(oligo, from, LAST + QUERY_LENGTH - 1);
+		long[] q = OligoAlphabet.packNibbles(query.oligo, 0, QUERY_LENGTH);
+		for(int i = from; i < LAST; i++)
+		{
+			int misses = 0;
+			for(int k = 0; k < QUERY_LENGTH && misses <= mismatches; k += 16)
+				misses += OligoAlphabet.wordMismatches(OligoAlphabet.word(source, i - from + k), q[k >>> 4], Math.min(16, QUERY_LENGTH - k));
+			if(misses <= mismatches)
+				hits.add(i);
+		}
+	}//end scanMatchCoordinates()
+
+
+	/**
+	 * Adds to hits the start index of every indel-aware match whose search window starts in [from, to). Windows starting near 'to' read past it, so neighbouring
+	 * chunks overlap by the query length plus the allowed number of inserts
+	 */
+	private void collectMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options, int from, int to, List<Integer> hits)
+	{
+		final int QUERY_LENGTH = query.length(); //net query length must include allowed number of inserts in search window
+		OligoEvents.Search event = new OligoEvents.Search();
+		OligoMetrics receiver = metrics;
+		long start = (receiver != null) ? System.nanoTime() : 0;
+		int found = hits.size();
+		AlignmentScratch scratch = new AlignmentScratch();
+		event.begin();
+
+		for(int i = from; i < to && i + QUERY_LENGTH + ins <= oligo_length; i++)
+		{
+			if(isMatchAt(i, query, mismatches, ins, del, minKeyLength, options, scratch))
+				hits.add(i);
+		}
+
+		if(receiver != null || event.isEnabled()) //each window's alignment dominates, so the checks are only made once per range
+		{
+			event.end();
+			int windows = Math.max(Math.min(to, oligo_length - QUERY_LENGTH - ins + 1) - from, 0);
+			recordSearch(event, receiver, start, query, mismatches, ins, del, from, windows, hits.size() - found, 0);
+		}
+	}//end collectMatchCoordinates()
+
+
+	/**
+	 * Commits the search event and counts the search; 'extraBytes' is the estimated allocation besides the hits
+	 */
+	private void recordSearch(OligoEvents.Search event, OligoMetrics receiver, long start, Oligo query, int mismatches, int ins, int del, int from, int windows, int found,
+			long extraBytes)
+	{
+		if(event.shouldCommit())
+		{
+			event.sourceLength = oligo_length;
+			event.queryLength = query.length();
+			event.mismatches = mismatches;
+			event.ins = ins;
+			event.del = del;
+			event.from = from;
+			event.windows = windows;
+			event.hits = found;
+			event.commit();
+		}
+		if(receiver != null)
+		{
+			receiver.count(OligoMetrics.Counter.SEARCHES, 1);
+			receiver.count(OligoMetrics.Counter.WINDOWS, windows);
+			receiver.count(OligoMetrics.Counter.HITS, found);
+			receiver.count(OligoMetrics.Counter.ALLOCATED_BYTES, 20L * found + extraBytes); //a boxed Integer and a list slot per hit
+			receiver.record(OligoMetrics.Histogram.SEARCH_NANOS, System.nanoTime() - start);
+		}
+	} //end recordSearch()
+
+
+	/**
+	 * Splits the window start coordinates of oligo into chunks, runs them on executor and concatenates the hits in coordinate order. Chunks never share a start
+	 * coordinate, so concatenation needs no de-duplication
+	 */
+	private ArrayList<Integer> searchChunks(ChunkSearch search, int chunkWindows, ExecutorService executor, String method) throws OligoException
+	{
+		List<Callable<List<Integer>>> chunks = new ArrayList<Callable<List<Integer>>>();
+		for(int from = 0; from <= oligo_length; from += chunkWindows)
+		{
+			final int start = from;
+			final int stop = Math.min(from + chunkWindows, oligo_length + 1);
+			chunks.add(() ->
+			{
+				List<Integer> hits = new ArrayList<Integer>();
+				search.collect(start, stop, hits);
+				return hits;
+			});
+		}
+
+		ArrayList<Integer> hits = new ArrayList<Integer>();
+		try
+		{
+			for(Future<List<Integer>> chunk : executor.invokeAll(chunks))
+				hits.addAll(chunk.get());
 		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new OligoException("SearchInterrupted", method);
+		}
+		catch(ExecutionException e)
+		{
+			throw new OligoException("SearchFailed: " + e.getCause(), method);
+		}
+		return hits;
+	}//end searchChunks()
+
+
+	/**
+	 * Builds the OligoException for an out-of-bounds [start, end] coordinate pair
+	 */
+	private OligoException indexOutOfBounds(int start, int end, String method)
+	{
+		boolean START_INDEX_OUT_OF_BOUND = start < 0;
+		boolean END_INDEX_OUT_OF_BOUND = end > oligo_length - 1;
+
+		if(START_INDEX_OUT_OF_BOUND && END_INDEX_OUT_OF_BOUND)
+			return new OligoException("(Start&End)IndexOutofBounds", method);
+		else if(START_INDEX_OUT_OF_BOUND)
+			return new OligoException(soob, method);
 		else
-			throw new OligoException(mnf, "spliceOut()");
-	} //end spliceOut()
+			return new OligoException(eoob, method);
+	}//end indexOutOfBounds()
 
 
 	/**
-	 * Splices out a given sequence based on specified start and end indices, inclusively
-	 *
-	 * @param start start index
-	 * @param end end index
-	 * @return Oligo object representing remaining sequence after splicing
-	 * @throws OligoException
+	 * Returns true if the mismatch-only search window starting at index i matches query: at most 'mismatches' positions whose characters do not match under options
 	 */
-	public Oligo spliceOut(int start, int end) throws OligoException
+	boolean isMatchAt(int i, Oligo query, int mismatches, SearchOptions options)
 	{
-		String s = "";
-		boolean startIndexOutofBounds = start < 0;
-		boolean endIndexOutofBounds = end > oligo.length() - 1;
+		final String QUERY = query.oligo;
+		final int QUERY_LENGTH = query.oligo_length;
+		int misses = 0;
 
-		if(start >= 0 && end <= oligo.length() - 1)
-			s = oligo.substring(0, start) + oligo.substring(end + 1, oligo.length() - 1);
-		else if(startIndexOutofBounds ^ endIndexOutofBounds)
+		for(int j = 0; j < QUERY_LENGTH; j++)
 		{
-			if(startIndexOutofBounds)
-				throw new OligoException(soob, "extractSequence()");
-			else
-				throw new OligoException(eoob, "extractSequence()");
+			if(!options.matches(oligo.charAt(i + j), QUERY.charAt(j)) && ++misses > mismatches)
+				return false;
 		}
-		else if(startIndexOutofBounds && endIndexOutofBounds)
-			throw new OligoException("(Start&End)IndexOutofBounds", "extractSequence()");
-		return new Oligo(s);
-	} //end spliceOut()
+		return misses <= mismatches;
+	}//end isMatchAt()
+
+
+	/**
+	 * Returns true if the indel-aware search window starting at index i matches query. Both alignments bypass the alignment cache and fill their scores matrix in
+	 * scratch
+	 */
+	private boolean isMatchAt(int i, Oligo query, int mismatches, int ins, int del, int minKeyLength, SearchOptions options, AlignmentScratch scratch)
+	{
+		Oligo searchWindow = trusted(oligo.substring(i, i + query.length() + ins)); //searchWindow must compensate for number of allowed inserts
+		Oligo swKey = searchWindow.alignWithin(query, ins, del, options, scratch, null);
+
+		if(swKey == null)
+			return false;
+		searchWindow = trusted(oligo.substring(i, i + swKey.length())); //narrow searchWindow to length of potential key
+		Oligo narrowedKey = searchWindow.alignWithin(query, ins, del, options, scratch, null);
+		return narrowedKey != null && searchWindow.isFuzzyMatch(narrowedKey, mismatches, options) && narrowedKey.length() >= minKeyLength
+				&& searchWindow.isFuzzyMatch(swKey, mismatches, options);
+	}//end isMatchAt()
+
+
+//===========================| PARALLEL SEARCH |==============================//
+	/**
+	 * Searches the window start coordinates [from, to) of a source oligo and adds the match coordinates to hits
+	 */
+	private interface ChunkSearch
+	{
+		void collect(int from, int to, List<Integer> hits);
+	}
+
+
+	/**
+	 * Fork-join task that halves its range of window start coordinates until it is at most 'threshold' windows wide, then searches it sequentially
+	 */
+	private static class MatchCoordinateTask extends RecursiveTask<ArrayList<Integer>>
+	{
+		private static final long serialVersionUID = 1L;
+		private final ChunkSearch search;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		MatchCoordinateTask(ChunkSearch search, int from, int to, int threshold)
+		{
+			this.search = search;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected ArrayList<Integer> compute()
+		{
+			if(to - from <= threshold)
+			{
+				ArrayList<Integer> hits = new ArrayList<Integer>();
+				search.collect(from, to, hits);
+				return hits;
+			}
+
+			int mid = (from + to) >>> 1;
+			MatchCoordinateTask left = new MatchCoordinateTask(search, from, mid, threshold);
+			MatchCoordinateTask right = new MatchCoordinateTask(search, mid, to, threshold);
+			left.fork();
+			ArrayList<Integer> hits = right.compute();
+			ArrayList<Integer> merged = left.join();
+			merged.addAll(hits); //left half precedes right half, so coordinate order is preserved
+			return merged;
+		}
+	} //end MatchCoordinateTask class
 } //end Oligo class
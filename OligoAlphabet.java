@@ -0,0 +1,220 @@
+/**
+ *class OligoAlphabet: lookup tables for validating, complementing and packing Oligo sequences in a single pass. Bases are coded a/A = 0, c/C = 1, g/G = 2, t/T = 3;
+ *the wildcard n/N and the degenerate IUPAC codes (r, y, s, w, k, m, b, d, h, v, either case) are valid but have no 2-bit code, and are coded WILDCARD
+ *
+ *For degenerate matching every symbol also has a 4-bit mask of the bases it stands for (a = 1, c = 2, g = 4, t = 8, i.e. r = a|g, n = all four); two symbols match
+ *when their masks share a bit
+ */
+final class OligoAlphabet
+{
+	static final byte INVALID = -1;
+	static final byte WILDCARD = 4;
+	static final char[] BASES = {'a', 'c', 'g', 't'};
+	static final String IUPAC = "acgtnryswkmbdhv";
+	private static final byte[] CODE = new byte[128];
+	private static final char[] COMPLEMENT = new char[128];
+	private static final byte[] NIBBLE = new byte[128];
+	private static final char[] SYMBOL = new char[16]; //uppercase symbol of each non-zero mask
+
+	static
+	{
+		java.util.Arrays.fill(CODE, INVALID);
+		String complement = "tgcanyrswmkvhdb";
+		byte[] nibbles = {1, 2, 4, 8, 15, 1 | 4, 2 | 8, 2 | 4, 1 | 8, 4 | 8, 1 | 2, 2 | 4 | 8, 1 | 4 | 8, 1 | 2 | 8, 1 | 2 | 4};
+		for(int i = 0; i < IUPAC.length(); i++)
+		{
+			char lower = IUPAC.charAt(i);
+			char upper = Character.toUpperCase(lower);
+			CODE[lower] = (byte) Math.min(i, WILDCARD);
+			CODE[upper] = CODE[lower];
+			COMPLEMENT[lower] = complement.charAt(i);
+			COMPLEMENT[upper] = Character.toUpperCase(complement.charAt(i));
+			NIBBLE[lower] = nibbles[i];
+			NIBBLE[upper] = nibbles[i];
+			SYMBOL[nibbles[i]] = upper;
+		}
+	}
+
+	private OligoAlphabet()
+	{
+	}
+
+
+	/**
+	 * Returns the code of ch: 0-3 for a base, WILDCARD for n/N or a degenerate code, INVALID for anything else
+	 *
+	 * @param ch character to code
+	 * @return byte code
+	 */
+	static byte code(char ch)
+	{
+		return (ch < 128) ? CODE[ch] : INVALID;
+	}
+
+
+	/**
+	 * Returns the complement of a valid character, preserving case. n/N, s/S and w/W are their own complements
+	 *
+	 * @param ch valid oligo character
+	 * @return char complement
+	 */
+	static char complement(char ch)
+	{
+		return COMPLEMENT[ch];
+	}
+
+
+	/**
+	 * Returns the index of the first character of seq that is not a base or wildcard
+	 *
+	 * @param seq sequence to validate
+	 * @return int index of first invalid character; -1 if seq is valid
+	 */
+	static int indexOfInvalid(CharSequence seq)
+	{
+		final int LENGTH = seq.length();
+		for(int i = 0; i < LENGTH; i++)
+		{
+			char ch = seq.charAt(i);
+			if(ch >= 128 || CODE[ch] == INVALID)
+				return i;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the 4-bit base mask of a valid character
+	 *
+	 * @param ch valid oligo character
+	 * @return int mask, 1 to 15
+	 */
+	static int nibble(char ch)
+	{
+		return NIBBLE[ch];
+	}
+
+
+	/**
+	 * Returns the uppercase symbol whose 4-bit base mask is nibble
+	 *
+	 * @param nibble mask, 1 to 15
+	 * @return char 'A', 'C', 'G', 'T', 'N' or a degenerate code
+	 */
+	static char symbol(int nibble)
+	{
+		return SYMBOL[nibble];
+	}
+
+
+	/**
+	 * Returns the mask of the complement of the bases in nibble (a and t, c and g swap bits)
+	 *
+	 * @param nibble mask, 1 to 15
+	 * @return int mask, 1 to 15
+	 */
+	static int complementNibble(int nibble)
+	{
+		return Integer.reverse(nibble) >>> 28;
+	}
+
+
+	/**
+	 * Returns the index of the first wildcard (n/N or degenerate code) in seq
+	 *
+	 * @param seq valid oligo sequence
+	 * @return int index of first wildcard; -1 if there is none
+	 */
+	static int indexOfWildcard(CharSequence seq)
+	{
+		final int LENGTH = seq.length();
+		for(int i = 0; i < LENGTH; i++)
+		{
+			if(code(seq.charAt(i)) == WILDCARD)
+				return i;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Validates seq and packs it 2 bits per base (32 bases per long, first base in the lowest bits) in the same pass. Wildcard positions are packed as 0 and flagged
+	 * in wildcards, one bit per base
+	 *
+	 * @param seq sequence to pack
+	 * @param packed destination, at least (seq.length() + 31) / 32 longs
+	 * @param wildcards destination, at least (seq.length() + 63) / 64 longs; may be null if seq is known to contain no wildcards
+	 * @return int index of first invalid character; -1 if seq is valid and fully packed
+	 */
+	static int pack(CharSequence seq, long[] packed, long[] wildcards)
+	{
+		final int LENGTH = seq.length();
+		for(int i = 0; i < LENGTH; i++)
+		{
+			char ch = seq.charAt(i);
+			byte code = (ch < 128) ? CODE[ch] : INVALID;
+			if(code == INVALID)
+				return i;
+			if(code == WILDCARD)
+			{
+				if(wildcards == null)
+					return i;
+				wildcards[i >>> 6] |= 1L << i;
+			}
+			else
+				packed[i >>> 5] |= (long) code << ((i & 31) << 1);
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the 2-bit code of base i of a sequence packed by pack()
+	 */
+	static int packedCode(long[] packed, int i)
+	{
+		return (int) (packed[i >>> 5] >>> ((i & 31) << 1)) & 3;
+	}
+
+
+	/**
+	 * Packs the 4-bit masks of seq[from, to), 16 per long, first in the lowest bits. One zero long of padding follows, so word() can read any window start
+	 *
+	 * @param seq valid oligo sequence
+	 * @param from first index to pack
+	 * @param to index after the last to pack
+	 * @return long[] packed masks
+	 */
+	static long[] packNibbles(CharSequence seq, int from, int to)
+	{
+		long[] packed = new long[(to - from + 15) / 16 + 1];
+		for(int i = from; i < to; i++)
+			packed[(i - from) >>> 4] |= (long) NIBBLE[seq.charAt(i)] << (((i - from) & 15) << 2);
+		return packed;
+	}
+
+
+	/**
+	 * Returns the 16 masks of a packNibbles() array starting at index i
+	 */
+	static long word(long[] packed, int i)
+	{
+		int index = i >>> 4;
+		int shift = (i & 15) << 2;
+		long word = packed[index] >>> shift;
+		return (shift == 0 || index + 1 == packed.length) ? word : word | (packed[index + 1] << (64 - shift));
+	}
+
+
+	/**
+	 * Returns the number of positions among the first 'count' (at most 16) at which two words of masks share no base
+	 */
+	static int wordMismatches(long a, long b, int count)
+	{
+		long x = a & b;
+		x |= x >>> 1;
+		x |= x >>> 2; //bit 0 of each nibble is now set if the nibble shared any base
+		long valid = (count == 16) ? 0x1111111111111111L : 0x1111111111111111L & ((1L << (count << 2)) - 1);
+		return count - Long.bitCount(x & valid);
+	}
+} //end OligoAlphabet class
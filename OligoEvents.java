@@ -0,0 +1,91 @@
+import jdk.jfr.*;
+
+/**
+ *class OligoEvents: JDK Flight Recorder events for Oligo's searches, alignments and exceptions. They are recorded whenever a recording enables them (all three are
+ *enabled by default, without stack traces), i.e. java -XX:StartFlightRecording, and cost an isEnabled() check otherwise. Indel-aware searches align every window,
+ *so each oligo.Search event of one comes with one or two oligo.Alignment events per window; raise the oligo.Alignment threshold to keep recordings small
+ */
+final class OligoEvents
+{
+	private OligoEvents()
+	{
+	}
+
+
+	@Name("oligo.Search")
+	@Label("Oligo Search")
+	@Category("Oligo")
+	@Description("Scan of a range of search windows by getAllMatchCoordinates(); parallel searches emit one event per chunk")
+	@StackTrace(false)
+	static final class Search extends Event
+	{
+		@Label("Source Length")
+		int sourceLength;
+
+		@Label("Query Length")
+		int queryLength;
+
+		@Label("Mismatches")
+		int mismatches;
+
+		@Label("Inserts")
+		@Description("Allowed inserts in the source; 0 for mismatch-only searches")
+		int ins;
+
+		@Label("Deletions")
+		@Description("Allowed deletions in the source; 0 for mismatch-only searches")
+		int del;
+
+		@Label("First Window")
+		int from;
+
+		@Label("Windows")
+		int windows;
+
+		@Label("Hits")
+		int hits;
+	} //end Search class
+
+
+	@Name("oligo.Alignment")
+	@Label("Oligo Alignment")
+	@Category("Oligo")
+	@Description("Smith-Waterman alignment of a query against a source, or its lookup in the AlignmentCache")
+	@StackTrace(false)
+	static final class Alignment extends Event
+	{
+		@Label("Source Length")
+		int sourceLength;
+
+		@Label("Query Length")
+		int queryLength;
+
+		@Label("Cells")
+		@Description("Scores matrix cells filled; 0 for cache hits")
+		long cells;
+
+		@Label("Insertions")
+		int insertions;
+
+		@Label("Deletions")
+		int deletions;
+
+		@Label("Cached")
+		boolean cached;
+	} //end Alignment class
+
+
+	@Name("oligo.Exception")
+	@Label("Oligo Exception")
+	@Category("Oligo")
+	@Description("OligoException created")
+	@StackTrace(false)
+	static final class Failure extends Event
+	{
+		@Label("Error")
+		String error;
+
+		@Label("Method")
+		String method;
+	} //end Failure class
+} //end OligoEvents class
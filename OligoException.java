@@ -11,12 +11,42 @@ public class OligoException extends Exception
     {
         error = e;
         method = m;
+        record();
     }
     
     OligoException(String e)
     {
         error = e;
         method = "";
+        record();
+    }
+    
+    /**
+     *Constructor: writableStackTrace = false skips stack trace capture, which makes the exception cheap enough to create on search hot paths
+     */
+    OligoException(String e, String m, boolean writableStackTrace)
+    {
+        super(null, null, false, writableStackTrace);
+        error = e;
+        method = m;
+        record();
+    }
+    
+    /**
+     *Counts the exception in Oligo's metrics and emits an oligo.Exception event, when either is enabled
+     */
+    private void record()
+    {
+        OligoMetrics metrics = Oligo.getMetrics();
+        if(metrics != null)
+            metrics.count(OligoMetrics.Counter.EXCEPTIONS, 1);
+        OligoEvents.Failure event = new OligoEvents.Failure();
+        if(event.shouldCommit())
+        {
+            event.error = error;
+            event.method = method;
+            event.commit();
+        }
     }
 
    @Override
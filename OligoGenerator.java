@@ -0,0 +1,172 @@
+import com.google.common.base.Preconditions;
+import java.util.*;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ *class OligoGenerator: seeded, reproducible source of random oligos (lowercase, no wildcards). With uniform composition each random long yields 32 bases, 2 bits
+ *apiece; with a custom composition each yields 4 bases at 16-bit resolution
+ *
+ *Bulk methods draw every block of BLOCK_SIZE oligos from its own stream, split from this generator in block order, so generate() and generateParallel() return the
+ *same oligos for the same seed regardless of thread count. Instances are not thread-safe; use split() to give each thread its own generator
+ */
+public final class OligoGenerator
+{
+	public static final int BLOCK_SIZE = 1024;
+
+	private final SplittableRandom random;
+	private final int[] thresholds; //cumulative 16-bit thresholds for a, c and g; null for uniform composition
+
+	private OligoGenerator(SplittableRandom random, int[] thresholds)
+	{
+		this.random = random;
+		this.thresholds = thresholds;
+	}
+
+
+	/**
+	 * Constructor: creates a generator with uniform base composition
+	 *
+	 * @param seed random seed
+	 */
+	public OligoGenerator(long seed)
+	{
+		this(new SplittableRandom(seed), null);
+	}
+
+
+	/**
+	 * Constructor: creates a generator with the given base composition. Weights are relative and need not sum to 1
+	 *
+	 * @param seed random seed
+	 * @param a weight of 'a'
+	 * @param c weight of 'c'
+	 * @param g weight of 'g'
+	 * @param t weight of 't'
+	 */
+	public OligoGenerator(long seed, double a, double c, double g, double t)
+	{
+		this(new SplittableRandom(seed), thresholds(a, c, g, t));
+	}
+
+
+	/**
+	 * Returns a new generator with the same composition and an independent stream
+	 *
+	 * @return OligoGenerator
+	 */
+	public OligoGenerator split()
+	{
+		return new OligoGenerator(random.split(), thresholds);
+	}
+
+
+	/**
+	 * Generates one random oligo
+	 *
+	 * @param length length of random oligo
+	 * @return Oligo object
+	 */
+	public Oligo next(int length)
+	{
+		return (thresholds == null) ? uniform(random, length) : weighted(random, length, thresholds);
+	}
+
+
+	/**
+	 * Generates count random oligos of the given length
+	 *
+	 * @param count number of oligos
+	 * @param length length of each oligo
+	 * @return List of Oligo objects
+	 */
+	public List<Oligo> generate(int count, int length)
+	{
+		OligoGenerator[] blocks = splitBlocks(count);
+		Oligo[] oligos = new Oligo[count];
+		for(int b = 0; b < blocks.length; b++)
+			blocks[b].fill(oligos, b * BLOCK_SIZE, length);
+		return Arrays.asList(oligos);
+	}
+
+
+	/**
+	 * generate(int count, int length) with the blocks filled in parallel on the common ForkJoinPool; returns the same oligos as generate()
+	 *
+	 * @param count number of oligos
+	 * @param length length of each oligo
+	 * @return List of Oligo objects
+	 */
+	public List<Oligo> generateParallel(int count, int length)
+	{
+		OligoGenerator[] blocks = splitBlocks(count);
+		Oligo[] oligos = new Oligo[count];
+		IntStream.range(0, blocks.length).parallel().forEach(b -> blocks[b].fill(oligos, b * BLOCK_SIZE, length));
+		return Arrays.asList(oligos);
+	}
+
+
+//================================| HELPERS |=================================//
+	private OligoGenerator[] splitBlocks(int count)
+	{
+		Preconditions.checkArgument(count >= 0, "count must not be negative: %s", count);
+		OligoGenerator[] blocks = new OligoGenerator[(count + BLOCK_SIZE - 1) / BLOCK_SIZE];
+		for(int b = 0; b < blocks.length; b++)
+			blocks[b] = split();
+		return blocks;
+	}
+
+
+	private void fill(Oligo[] oligos, int from, int length)
+	{
+		for(int i = from; i < Math.min(from + BLOCK_SIZE, oligos.length); i++)
+			oligos[i] = next(length);
+	}
+
+
+	private static int[] thresholds(double a, double c, double g, double t)
+	{
+		Preconditions.checkArgument(a >= 0 && c >= 0 && g >= 0 && t >= 0 && a + c + g + t > 0, "Base weights must be non-negative and not all zero");
+		double total = a + c + g + t;
+		return new int[] {(int) Math.round(a / total * 65536), (int) Math.round((a + c) / total * 65536), (int) Math.round((a + c + g) / total * 65536)};
+	}
+
+
+	/**
+	 * Returns a uniformly random oligo, taking 32 bases from each random long
+	 */
+	static Oligo uniform(RandomGenerator random, int length)
+	{
+		Preconditions.checkArgument(length >= 0, "length must not be negative: %s", length);
+		char[] bases = new char[length];
+		long bits = 0;
+		for(int i = 0; i < length; i++)
+		{
+			if((i & 31) == 0)
+				bits = random.nextLong();
+			bases[i] = OligoAlphabet.BASES[(int) bits & 3];
+			bits >>>= 2;
+		}
+		return Oligo.trusted(new String(bases));
+	}
+
+
+	/**
+	 * Returns a random oligo with the given composition, taking 4 bases from each random long
+	 */
+	private static Oligo weighted(RandomGenerator random, int length, int[] thresholds)
+	{
+		Preconditions.checkArgument(length >= 0, "length must not be negative: %s", length);
+		char[] bases = new char[length];
+		long bits = 0;
+		for(int i = 0; i < length; i++)
+		{
+			if((i & 3) == 0)
+				bits = random.nextLong();
+			int r = (int) bits & 0xFFFF;
+			bases[i] = OligoAlphabet.BASES[(r < thresholds[0]) ? 0 : (r < thresholds[1]) ? 1 : (r < thresholds[2]) ? 2 : 3];
+			bits >>>= 16;
+		}
+		return Oligo.trusted(new String(bases));
+	}
+} //end OligoGenerator class
@@ -0,0 +1,353 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ *class OligoLibrary: read-only, memory-mapped view of an oligo library file written by OligoLibrary.Writer. Opening only maps the file and reads its footer;
+ *records are decoded on demand by index. Files are limited to 2 GiB
+ *
+ *File layout (big-endian):
+ *  records  - per oligo: int wildcardRuns, wildcardRuns x (int start, int length, byte mask), then the bases packed 2 bits each, 4 per byte, first base in the
+ *             lowest bits. A run is a stretch of one repeated wildcard or degenerate symbol, stored as its OligoAlphabet 4-bit base mask. The top bit of
+ *             wildcardRuns flags an all-lowercase oligo
+ *  index    - long[count] record offsets, then int[count] oligo lengths
+ *  names    - optional: long[count + 1] offsets into the UTF-8 name bytes that follow
+ *  footer   - long count, long indexOffset, long namesOffset (-1 if none), int version, int MAGIC
+ *
+ *Case is kept per oligo, not per base: all-lowercase oligos are read back in lowercase, and every other oligo - including mixed-case ones - in uppercase. This
+ *applies to wildcard and degenerate (IUPAC) symbols as well. Only version 2 files can be opened
+ */
+public class OligoLibrary implements Closeable
+{
+	static final int MAGIC = 0x4F4C4942; //"OLIB"
+	static final int VERSION = 2;
+	private static final int FOOTER_BYTES = 8 + 8 + 8 + 4 + 4;
+	private static final int RUN_BYTES = 4 + 4 + 1;
+	private static final int LOWERCASE = 1 << 31; //record flag, stored in the top bit of the run count
+	private static final char[] UPPER_BASES = {'A', 'C', 'G', 'T'};
+
+	private final FileChannel channel;
+	private final ByteBuffer data;
+	private final int count;
+	private final int indexOffset;
+	private final int lengthsOffset;
+	private final int namesOffset;
+
+	private OligoLibrary(FileChannel channel) throws IOException
+	{
+		this.channel = channel;
+		long size = channel.size();
+		if(size > Integer.MAX_VALUE)
+			throw new IOException("Oligo library exceeds 2 GiB: " + size);
+		if(size < FOOTER_BYTES)
+			throw new IOException("Not an oligo library: file too short");
+		data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+		int footer = (int) size - FOOTER_BYTES;
+		if(data.getInt(footer + 28) != MAGIC)
+			throw new IOException("Not an oligo library: bad magic number");
+		int version = data.getInt(footer + 24);
+		if(version != VERSION)
+			throw new IOException("Unsupported oligo library version: " + version);
+		count = (int) data.getLong(footer);
+		indexOffset = (int) data.getLong(footer + 8);
+		lengthsOffset = indexOffset + 8 * count;
+		long names = data.getLong(footer + 16);
+		namesOffset = (names < 0) ? -1 : (int) names;
+	}
+
+
+	/**
+	 * Maps an oligo library file
+	 *
+	 * @param path library file
+	 * @return OligoLibrary
+	 * @throws IOException if the file cannot be read or is not an oligo library
+	 */
+	public static OligoLibrary open(Path path) throws IOException
+	{
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try
+		{
+			return new OligoLibrary(channel);
+		}
+		catch(IOException e)
+		{
+			channel.close();
+			throw e;
+		}
+	} //end open()
+
+
+	/**
+	 * Creates a writer for a new library file, replacing any existing file
+	 *
+	 * @param path library file
+	 * @param withNames true to store a name for every oligo
+	 * @return Writer
+	 * @throws IOException
+	 */
+	public static Writer writer(Path path, boolean withNames) throws IOException
+	{
+		return new Writer(path, withNames);
+	}
+
+
+	public int size()
+	{
+		return count;
+	}
+
+
+	public boolean hasNames()
+	{
+		return namesOffset != -1;
+	}
+
+
+	/**
+	 * Returns the length of oligo i without decoding it
+	 *
+	 * @param i index
+	 * @return int length
+	 */
+	public int length(int i)
+	{
+		return data.getInt(lengthsOffset + 4 * checkIndex(i));
+	}
+
+
+	/**
+	 * Decodes oligo i. Oligos written in lowercase are returned in lowercase; all others, including mixed-case oligos, are returned in uppercase
+	 *
+	 * @param i index
+	 * @return Oligo object (lowercase if written in lowercase, otherwise uppercase)
+	 */
+	public Oligo get(int i)
+	{
+		final int LENGTH = length(i);
+		int p = (int) data.getLong(indexOffset + 8 * i);
+		int header = data.getInt(p);
+		int runs = header & ~LOWERCASE;
+		boolean lower = (header & LOWERCASE) != 0;
+		char[] alphabet = lower ? OligoAlphabet.BASES : UPPER_BASES;
+		int packed = p + 4 + RUN_BYTES * runs;
+		char[] bases = new char[LENGTH];
+
+		for(int j = 0; j < LENGTH; j++)
+			bases[j] = alphabet[(data.get(packed + (j >>> 2)) >>> ((j & 3) << 1)) & 3];
+		for(int r = 0; r < runs; r++)
+		{
+			int run = p + 4 + RUN_BYTES * r;
+			int start = data.getInt(run);
+			char symbol = OligoAlphabet.symbol(data.get(run + 8));
+			Arrays.fill(bases, start, start + data.getInt(run + 4), lower ? Character.toLowerCase(symbol) : symbol);
+		}
+		return Oligo.trusted(new String(bases));
+	} //end get()
+
+
+	/**
+	 * Returns the name of oligo i
+	 *
+	 * @param i index
+	 * @return String name; null if the library was written without names
+	 */
+	public String name(int i)
+	{
+		checkIndex(i);
+		if(namesOffset == -1)
+			return null;
+		int bytes = namesOffset + 8 * (count + 1);
+		int start = (int) data.getLong(namesOffset + 8 * i);
+		int end = (int) data.getLong(namesOffset + 8 * (i + 1));
+		byte[] name = new byte[end - start];
+		data.get(bytes + start, name);
+		return new String(name, StandardCharsets.UTF_8);
+	} //end name()
+
+
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+
+
+	private int checkIndex(int i)
+	{
+		if(i < 0 || i >= count)
+			throw new IndexOutOfBoundsException("Oligo index " + i + " out of range [0, " + count + ")");
+		return i;
+	}
+
+
+//================================| WRITER |==================================//
+	/**
+	 * Writes an oligo library sequentially. Record offsets and lengths are kept in memory (12 bytes per oligo) and names are spooled to a temporary file until
+	 * close() writes the index, name table and footer
+	 */
+	public static class Writer implements Closeable
+	{
+		private final DataOutputStream out;
+		private final Path namesPath;
+		private final DataOutputStream names;
+		private long[] offsets = new long[1024];
+		private int[] lengths = new int[1024];
+		private long[] nameEnds; //end of each name in the name bytes; null without names
+		private int count;
+		private long position;
+		private long namesLength;
+		private int[] runs = new int[16]; //scratch: start/length pairs of wildcard runs
+		private byte[] runMasks = new byte[8]; //scratch: base mask of each run
+		private byte[] packed = new byte[64]; //scratch: packed bases
+
+		private Writer(Path path, boolean withNames) throws IOException
+		{
+			out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+			if(withNames)
+			{
+				namesPath = Files.createTempFile(path.toAbsolutePath().getParent(), "oligo-names", ".tmp");
+				names = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(namesPath), 1 << 16));
+				nameEnds = new long[1024];
+			}
+			else
+			{
+				namesPath = null;
+				names = null;
+			}
+		}
+
+
+		/**
+		 * Appends an oligo to a library written without names
+		 *
+		 * @param oligo oligo to append
+		 * @throws IOException
+		 */
+		public void add(Oligo oligo) throws IOException
+		{
+			if(names != null)
+				throw new IllegalStateException("This library stores names; use add(String, Oligo)");
+			write(oligo);
+		}
+
+
+		/**
+		 * Appends a named oligo to a library written with names
+		 *
+		 * @param name oligo name
+		 * @param oligo oligo to append
+		 * @throws IOException
+		 */
+		public void add(String name, Oligo oligo) throws IOException
+		{
+			if(names == null)
+				throw new IllegalStateException("This library does not store names; use add(Oligo)");
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			write(oligo);
+			names.write(bytes);
+			namesLength += bytes.length;
+			nameEnds[count - 1] = namesLength;
+		}
+
+
+		private void write(Oligo oligo) throws IOException
+		{
+			String seq = oligo.toString();
+			final int LENGTH = seq.length();
+			int runCount = 0;
+			boolean lower = LENGTH > 0;
+			if(packed.length < (LENGTH + 3) / 4)
+				packed = new byte[(LENGTH + 3) / 4 * 2];
+			Arrays.fill(packed, 0, (LENGTH + 3) / 4, (byte) 0);
+
+			for(int j = 0; j < LENGTH; j++) //pack bases and collect wildcard runs in one pass
+			{
+				char ch = seq.charAt(j);
+				byte code = OligoAlphabet.code(ch);
+				lower &= Character.isLowerCase(ch);
+				if(code == OligoAlphabet.WILDCARD)
+				{
+					byte mask = (byte) OligoAlphabet.nibble(ch);
+					if(runCount > 0 && runs[2 * runCount - 2] + runs[2 * runCount - 1] == j && runMasks[runCount - 1] == mask)
+						runs[2 * runCount - 1]++;
+					else
+					{
+						if(runs.length < 2 * runCount + 2)
+						{
+							runs = Arrays.copyOf(runs, runs.length * 2);
+							runMasks = Arrays.copyOf(runMasks, runMasks.length * 2);
+						}
+						runs[2 * runCount] = j;
+						runs[2 * runCount + 1] = 1;
+						runMasks[runCount] = mask;
+						runCount++;
+					}
+				}
+				else
+					packed[j >>> 2] |= (byte) (code << ((j & 3) << 1));
+			}
+
+			if(count == offsets.length)
+			{
+				offsets = Arrays.copyOf(offsets, count * 2);
+				lengths = Arrays.copyOf(lengths, count * 2);
+				if(nameEnds != null)
+					nameEnds = Arrays.copyOf(nameEnds, count * 2);
+			}
+			offsets[count] = position;
+			lengths[count] = LENGTH;
+			count++;
+
+			out.writeInt(lower ? runCount | LOWERCASE : runCount);
+			for(int r = 0; r < runCount; r++)
+			{
+				out.writeInt(runs[2 * r]);
+				out.writeInt(runs[2 * r + 1]);
+				out.writeByte(runMasks[r]);
+			}
+			out.write(packed, 0, (LENGTH + 3) / 4);
+			position += 4 + (long) RUN_BYTES * runCount + (LENGTH + 3) / 4;
+		} //end write()
+
+
+		/**
+		 * Writes the index, name table and footer and closes the file
+		 *
+		 * @throws IOException
+		 */
+		@Override
+		public void close() throws IOException
+		{
+			long indexOffset = position;
+			for(int i = 0; i < count; i++)
+				out.writeLong(offsets[i]);
+			for(int i = 0; i < count; i++)
+				out.writeInt(lengths[i]);
+			position += 12L * count;
+
+			long namesOffset = -1;
+			if(names != null)
+			{
+				names.close();
+				namesOffset = position;
+				out.writeLong(0);
+				for(int i = 0; i < count; i++)
+					out.writeLong(nameEnds[i]);
+				Files.copy(namesPath, out);
+				Files.delete(namesPath);
+			}
+
+			out.writeLong(count);
+			out.writeLong(indexOffset);
+			out.writeLong(namesOffset);
+			out.writeInt(VERSION);
+			out.writeInt(MAGIC);
+			out.close();
+		} //end close()
+	} //end Writer class
+} //end OligoLibrary class
@@ -0,0 +1,194 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *interface OligoMetrics: receives the counters and histograms measured on Oligo's hot paths, installed with Oligo.setMetrics(). Methods are called from inside
+ *searches and alignments on any thread, so implementations must be thread-safe and cheap; Recorder keeps them in memory, and other implementations can forward them
+ *to a metrics library. With no metrics installed (the default) each instrumented call costs one field read
+ *
+ *Searches are counted per scanned range of windows, so a parallel search counts once per chunk. Allocation is an estimate from array and object sizes, not a
+ *measurement
+ */
+public interface OligoMetrics
+{
+	enum Counter
+	{
+		SEARCHES,         //mismatch-only or indel-aware scans of a range of windows
+		WINDOWS,          //search windows evaluated
+		HITS,             //matches found by searches
+		ALIGNMENTS,       //Smith-Waterman alignments computed, excluding cache hits
+		CELLS,            //scores matrix cells filled by those alignments
+		CACHE_HITS,       //alignments answered by the AlignmentCache
+		CACHE_MISSES,     //alignments computed because the AlignmentCache had no entry
+		EXCEPTIONS,       //OligoExceptions created
+		ALLOCATED_BYTES   //estimated bytes allocated by searches and alignments
+	}
+
+	enum Histogram
+	{
+		SEARCH_NANOS,     //duration of each scanned range
+		ALIGNMENT_NANOS,  //duration of each computed alignment
+		ALIGNMENT_CELLS   //scores matrix size of each computed alignment
+	}
+
+	/**
+	 * Adds delta to a counter
+	 *
+	 * @param counter counter
+	 * @param delta amount to add
+	 */
+	void count(Counter counter, long delta);
+
+
+	/**
+	 * Records one value in a histogram
+	 *
+	 * @param histogram histogram
+	 * @param value non-negative value
+	 */
+	void record(Histogram histogram, long value);
+
+
+//================================| RECORDER |================================//
+	/**
+	 * In-memory OligoMetrics: counters are LongAdders, and histograms count values in power-of-two buckets, so percentiles are upper bounds within a factor of 2
+	 */
+	final class Recorder implements OligoMetrics
+	{
+		private static final int BUCKETS = 64; //bucket b holds values in [2^(b-1), 2^b); bucket 0 holds 0
+
+		private final LongAdder[] counters = adders(Counter.values().length);
+		private final LongAdder[][] buckets = new LongAdder[Histogram.values().length][];
+		private final LongAdder[] sums = adders(Histogram.values().length);
+		private final LongAccumulator[] maxima = new LongAccumulator[Histogram.values().length];
+
+		public Recorder()
+		{
+			for(int h = 0; h < buckets.length; h++)
+			{
+				buckets[h] = adders(BUCKETS);
+				maxima[h] = new LongAccumulator(Math::max, 0);
+			}
+		}
+
+
+		@Override
+		public void count(Counter counter, long delta)
+		{
+			counters[counter.ordinal()].add(delta);
+		}
+
+
+		@Override
+		public void record(Histogram histogram, long value)
+		{
+			int h = histogram.ordinal();
+			buckets[h][Math.min(64 - Long.numberOfLeadingZeros(Math.max(value, 0)), BUCKETS - 1)].increment();
+			sums[h].add(value);
+			maxima[h].accumulate(value);
+		}
+
+
+		public long get(Counter counter)
+		{
+			return counters[counter.ordinal()].sum();
+		}
+
+
+		/**
+		 * Returns the number of values recorded in a histogram
+		 *
+		 * @param histogram histogram
+		 * @return long count
+		 */
+		public long count(Histogram histogram)
+		{
+			long count = 0;
+			for(LongAdder bucket : buckets[histogram.ordinal()])
+				count += bucket.sum();
+			return count;
+		}
+
+
+		public double mean(Histogram histogram)
+		{
+			long count = count(histogram);
+			return (count == 0) ? 0.0 : (double) sums[histogram.ordinal()].sum() / count;
+		}
+
+
+		public long max(Histogram histogram)
+		{
+			return maxima[histogram.ordinal()].get();
+		}
+
+
+		/**
+		 * Returns an upper bound of the given percentile: the top of the power-of-two bucket that holds it, capped at the maximum recorded value
+		 *
+		 * @param histogram histogram
+		 * @param p percentile, 0.0 to 1.0
+		 * @return long upper bound; 0 if nothing was recorded
+		 */
+		public long percentile(Histogram histogram, double p)
+		{
+			long[] counts = new long[BUCKETS];
+			long total = 0;
+			for(int b = 0; b < BUCKETS; b++)
+			{
+				counts[b] = buckets[histogram.ordinal()][b].sum();
+				total += counts[b];
+			}
+			long rank = Math.max((long) Math.ceil(p * total), 1);
+			for(int b = 0; b < BUCKETS; b++)
+			{
+				rank -= counts[b];
+				if(rank <= 0)
+					return Math.min((b == 0) ? 0 : (b == BUCKETS - 1) ? Long.MAX_VALUE : (1L << b) - 1, max(histogram));
+			}
+			return 0;
+		} //end percentile()
+
+
+		/**
+		 * Clears every counter and histogram. Values recorded concurrently with reset() may be kept or lost
+		 */
+		public void reset()
+		{
+			for(LongAdder counter : counters)
+				counter.reset();
+			for(int h = 0; h < buckets.length; h++)
+			{
+				for(LongAdder bucket : buckets[h])
+					bucket.reset();
+				sums[h].reset();
+				maxima[h].reset();
+			}
+		}
+
+
+		@Override
+		public String toString()
+		{
+			StringBuilder s = new StringBuilder("OligoMetrics.Recorder[");
+			for(Counter counter : Counter.values())
+				s.append(counter).append('=').append(get(counter)).append(", ");
+			for(Histogram histogram : Histogram.values())
+			{
+				s.append(histogram).append("={count=").append(count(histogram)).append(String.format(", mean=%.1f", mean(histogram))).append(", p50<=")
+						.append(percentile(histogram, 0.5)).append(", p99<=").append(percentile(histogram, 0.99)).append(", max=").append(max(histogram)).append("}, ");
+			}
+			s.setLength(s.length() - 2);
+			return s.append(']').toString();
+		} //end toString()
+
+
+		private static LongAdder[] adders(int count)
+		{
+			LongAdder[] adders = new LongAdder[count];
+			for(int i = 0; i < count; i++)
+				adders[i] = new LongAdder();
+			return adders;
+		}
+	} //end Recorder class
+} //end OligoMetrics interface
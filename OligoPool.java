@@ -0,0 +1,153 @@
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+/**
+ *class OligoPool: thread-safe interning pool that collapses duplicate oligos to one shared instance. Oligos of up to MAX_PACKED_LENGTH bases in a single case and
+ *without wildcards - i.e. typical primers - are keyed on their packed form, a single long, in a striped open-addressing table; the pool holds these strongly and
+ *stops admitting new ones once maximumPackedSize is reached (about 24 bytes per entry). All other oligos are interned through a weak interner and are dropped
+ *once no longer referenced elsewhere
+ *
+ *Interning preserves case: "acgt" and "ACGT" stay distinct, as they are for Oligo.equals()
+ */
+public final class OligoPool
+{
+	public static final int MAX_PACKED_LENGTH = 30;
+	private static final int SEGMENT_BITS = 6;
+	private static final long LOWERCASE = 1L << 62; //packed key flag; bit 2 * length marks the end of the bases
+
+	private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+	private final Interner<Oligo> unpacked = Interners.newWeakInterner();
+
+	/**
+	 * Constructor: creates an empty pool
+	 *
+	 * @param maximumPackedSize approximate maximum number of packed oligos to hold
+	 */
+	public OligoPool(long maximumPackedSize)
+	{
+		Preconditions.checkArgument(maximumPackedSize > 0, "maximumPackedSize must be positive: %s", maximumPackedSize);
+		int segmentSize = (int) Math.min((maximumPackedSize + segments.length - 1) / segments.length, 1 << 29);
+		for(int i = 0; i < segments.length; i++)
+			segments[i] = new Segment(segmentSize);
+	}
+
+
+	/**
+	 * Returns the pooled instance equal to oligo, adding oligo to the pool if there is none. A full pool returns oligo itself for new packed sequences
+	 *
+	 * @param oligo oligo to intern
+	 * @return Oligo object equal to oligo
+	 */
+	public Oligo intern(Oligo oligo)
+	{
+		long key = packedKey(oligo.toString());
+		if(key == 0)
+			return unpacked.intern(oligo);
+
+		long h = key * 0x9E3779B97F4A7C15L;
+		return segments[(int) (h >>> (64 - SEGMENT_BITS))].intern(key, (int) h, oligo);
+	}
+
+
+	/**
+	 * Returns the number of packed oligos held by the pool
+	 *
+	 * @return long count
+	 */
+	public long packedSize()
+	{
+		long size = 0;
+		for(Segment segment : segments)
+			size += segment.size();
+		return size;
+	}
+
+
+	/**
+	 * Returns the packed key of seq: its 2-bit codes, an end marker bit and a lowercase flag; 0 if seq cannot be packed
+	 */
+	static long packedKey(String seq)
+	{
+		final int LENGTH = seq.length();
+		if(LENGTH > MAX_PACKED_LENGTH)
+			return 0;
+
+		long key = 1L << (2 * LENGTH);
+		boolean lower = LENGTH > 0 && Character.isLowerCase(seq.charAt(0));
+		for(int i = 0; i < LENGTH; i++)
+		{
+			char ch = seq.charAt(i);
+			byte code = OligoAlphabet.code(ch);
+			if(code == OligoAlphabet.WILDCARD || Character.isLowerCase(ch) != lower)
+				return 0;
+			key |= (long) code << (2 * i);
+		}
+		return lower ? key | LOWERCASE : key;
+	} //end packedKey()
+
+
+	/**
+	 * One lock stripe of the packed table: linear probing over parallel key and value arrays, kept at most half full
+	 */
+	private static final class Segment
+	{
+		private final int maxSize;
+		private long[] keys = new long[16]; //0 marks an empty slot; packed keys are never 0
+		private Oligo[] values = new Oligo[16];
+		private int size;
+
+		Segment(int maxSize)
+		{
+			this.maxSize = maxSize;
+		}
+
+
+		synchronized Oligo intern(long key, int hash, Oligo oligo)
+		{
+			int mask = keys.length - 1;
+			for(int i = hash & mask; ; i = (i + 1) & mask)
+			{
+				if(keys[i] == key)
+					return values[i];
+				if(keys[i] == 0)
+				{
+					if(size >= maxSize)
+						return oligo;
+					keys[i] = key;
+					values[i] = oligo;
+					if(2 * ++size > keys.length)
+						resize();
+					return oligo;
+				}
+			}
+		} //end intern()
+
+
+		synchronized int size()
+		{
+			return size;
+		}
+
+
+		private void resize()
+		{
+			long[] oldKeys = keys;
+			Oligo[] oldValues = values;
+			keys = new long[oldKeys.length * 2];
+			values = new Oligo[oldKeys.length * 2];
+			int mask = keys.length - 1;
+
+			for(int j = 0; j < oldKeys.length; j++)
+			{
+				if(oldKeys[j] == 0)
+					continue;
+				int i = (int) (oldKeys[j] * 0x9E3779B97F4A7C15L) & mask;
+				while(keys[i] != 0)
+					i = (i + 1) & mask;
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		} //end resize()
+	} //end Segment class
+} //end OligoPool class
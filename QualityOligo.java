@@ -0,0 +1,882 @@
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *class QualityOligo: Oligo annotated with one Phred quality score per base, i.e. a Sanger trace or FASTQ read, stored as a parallel byte[]. The quality-aware
+ *methods take a minQuality: bases called below it are treated as unknown, so they match any query base in searches and score 0 instead of MATCH or MISMATCH in
+ *alignments. They no longer use up the mismatch budget or force wider indel searches. Each has an overload that takes SearchOptions; the quality-aware
+ *alignments bypass the alignment cache
+ *
+ *Operations that keep or rearrange bases of this oligo - extractSequence(), the excise and tryExcise methods, complement(), reverse(), antiparallel(),
+ *toLowerCase() and toUpperCase() - return a QualityOligo carrying the scores of those bases. Operations that add bases return a plain Oligo without scores:
+ *ligate(), insert(), mutate(), randomize() and resetToNull(), as do spliceOut() and the search keys. cutAt() returns QualityOligo fragments in a List<Oligo>
+ *
+ *Equality is inherited from Oligo and compares sequences only
+ */
+public class QualityOligo extends Oligo
+{
+	private static final long serialVersionUID = 1L;
+
+	public static final int MAX_PHRED = 93; //highest score representable in Phred+33
+
+	private final byte[] quality;
+
+	/**
+	 * Constructor: annotates a sequence with quality scores
+	 *
+	 * @param oligo sequence
+	 * @param quality Phred score of each base, 0 to MAX_PHRED; copied
+	 */
+	public QualityOligo(String oligo, byte[] quality)
+	{
+		super(oligo);
+		Preconditions.checkArgument(quality.length == oligo.length(), "Expected %s quality scores, got %s", oligo.length(), quality.length);
+		for(byte q : quality)
+			Preconditions.checkArgument(q >= 0 && q <= MAX_PHRED, "Phred score out of range: %s", q);
+		this.quality = quality.clone();
+	}
+
+
+	/**
+	 * Constructor: wraps a sequence and scores already known to be valid, without copying
+	 */
+	private QualityOligo(String oligo, byte[] quality, boolean trusted)
+	{
+		super(oligo, trusted);
+		this.quality = quality;
+	}
+
+
+	/**
+	 * Creates a quality-annotated oligo from a FASTQ sequence and its Phred+33 quality string
+	 *
+	 * @param oligo sequence
+	 * @param phred33 quality string, one character per base
+	 * @return QualityOligo
+	 */
+	public static QualityOligo fromPhred33(CharSequence oligo, CharSequence phred33)
+	{
+		Preconditions.checkArgument(phred33.length() == oligo.length(), "Expected %s quality characters, got %s", oligo.length(), phred33.length());
+		byte[] quality = new byte[phred33.length()];
+		for(int i = 0; i < quality.length; i++)
+		{
+			int q = phred33.charAt(i) - 33;
+			Preconditions.checkArgument(q >= 0 && q <= MAX_PHRED, "Invalid Phred+33 character '%s' at offset %s", phred33.charAt(i), i);
+			quality[i] = (byte) q;
+		}
+		Preconditions.checkArgument(OligoAlphabet.indexOfInvalid(oligo) == -1, "Oligo object cannot be created. Input Oligo object [%s] contains invalid characters.", oligo);
+		return new QualityOligo(oligo.toString(), quality, true);
+	} //end fromPhred33()
+
+
+//===============================| ACCESSORS |================================//
+	public int getQuality(int i)
+	{
+		return quality[i];
+	}
+
+
+	/**
+	 * Returns a copy of the quality scores
+	 *
+	 * @return byte[] Phred scores
+	 */
+	public byte[] getQualities()
+	{
+		return quality.clone();
+	}
+
+
+	/**
+	 * Returns the quality scores as a Phred+33 string
+	 *
+	 * @return String
+	 */
+	public String toPhred33()
+	{
+		char[] chars = new char[quality.length];
+		for(int i = 0; i < chars.length; i++)
+			chars[i] = (char) (quality[i] + 33);
+		return new String(chars);
+	}
+
+
+//=================================| METHODS |================================//
+	/**
+	 * Returns the reverse complement, with the scores reversed to stay with their bases
+	 *
+	 * @return QualityOligo
+	 */
+	@Override
+	public QualityOligo antiparallel()
+	{
+		return new QualityOligo(super.antiparallel().toString(), reversedQuality(), true);
+	}
+
+
+	/**
+	 * Returns the complement, with the same scores
+	 *
+	 * @return QualityOligo
+	 */
+	@Override
+	public QualityOligo complement()
+	{
+		return new QualityOligo(super.complement().toString(), quality, true);
+	}
+
+
+	/**
+	 * Returns the reverse, with the scores reversed to stay with their bases
+	 *
+	 * @return QualityOligo
+	 */
+	@Override
+	public QualityOligo reverse()
+	{
+		return new QualityOligo(super.reverse().toString(), reversedQuality(), true);
+	}
+
+
+	@Override
+	public QualityOligo toLowerCase()
+	{
+		return new QualityOligo(super.toLowerCase().toString(), quality, true);
+	}
+
+
+	@Override
+	public QualityOligo toUpperCase()
+	{
+		return new QualityOligo(super.toUpperCase().toString(), quality, true);
+	}
+
+
+	/**
+	 * Extracts a sequence and its scores based on given start and end indices, inclusively
+	 *
+	 * @param start start index
+	 * @param end end index
+	 * @return QualityOligo
+	 * @throws OligoException if either index is out of bounds
+	 */
+	@Override
+	public QualityOligo extractSequence(int start, int end) throws OligoException
+	{
+		return (QualityOligo) super.extractSequence(start, end); //delegates to tryExtractSequence(int, int)
+	}
+
+
+	@Override
+	public QualityOligo tryExtractSequence(int start, int end)
+	{
+		return (start >= 0 && end <= length() - 1) ? sub(start, end + 1) : null;
+	}
+
+
+	/**
+	 * Returns the start index of every window that matches query, ignoring bases called below minQuality
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches, int minQuality)
+	{
+		return getAllMatchCoordinates(query, mismatches, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * getAllMatchCoordinates(Oligo query, int mismatches, int minQuality) using the given search settings
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard and case settings
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches, int minQuality, SearchOptions options)
+	{
+		if(masksToWildcards(options))
+			return masked(minQuality).getAllMatchCoordinates(query, mismatches, options);
+
+		ArrayList<Integer> hits = new ArrayList<Integer>();
+		for(int i = 0; i + query.length() <= length(); i++)
+		{
+			if(isMatchAt(i, query, mismatches, minQuality, options))
+				hits.add(i);
+		}
+		return hits;
+	}
+
+
+	/**
+	 * Returns the start index of every window that matches query with indels, ignoring bases called below minQuality
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return getAllMatchCoordinates(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality) using the given search settings
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard, case and scoring settings
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		ArrayList<Integer> hits = new ArrayList<Integer>();
+		for(int i = 0; i + query.length() + ins <= length(); i++)
+		{
+			if(isMatchAt(i, query, mismatches, ins, del, minKeyLength, minQuality, options))
+				hits.add(i);
+		}
+		return hits;
+	}
+
+
+	/**
+	 * Returns the index of the first window that matches query, ignoring bases called below minQuality
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return int index if found; otherwise returns -1
+	 */
+	public int getFirstMatchCoordinate(Oligo query, int mismatches, int minQuality)
+	{
+		return getFirstMatchCoordinate(query, mismatches, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * getFirstMatchCoordinate(Oligo query, int mismatches, int minQuality) using the given search settings
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard and case settings
+	 * @return int index if found; otherwise returns -1
+	 */
+	public int getFirstMatchCoordinate(Oligo query, int mismatches, int minQuality, SearchOptions options)
+	{
+		for(int i = 0; i + query.length() <= length(); i++)
+		{
+			if(isMatchAt(i, query, mismatches, minQuality, options))
+				return i;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the index of the first window that matches query with indels, ignoring bases called below minQuality
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return int index if found; otherwise returns -1
+	 */
+	public int getFirstMatchCoordinate(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * getFirstMatchCoordinate(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality) using the given search settings
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard, case and scoring settings
+	 * @return int index if found; otherwise returns -1
+	 */
+	public int getFirstMatchCoordinate(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		for(int i = 0; i + query.length() + ins <= length(); i++)
+		{
+			if(isMatchAt(i, query, mismatches, ins, del, minKeyLength, minQuality, options))
+				return i;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return [Oligo object] Found key
+	 * @throws OligoException
+	 */
+	public Oligo getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality) throws OligoException
+	{
+		return getFuzzySWkey(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality) using the given search settings
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard, case and scoring settings
+	 * @return [Oligo object] Found key
+	 * @throws OligoException
+	 */
+	public Oligo getFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options) throws OligoException
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, minQuality, options);
+		if(swKey != null)
+			return swKey;
+		else
+			throw new OligoException("MatchNotFound", "getFuzzySWkey()");
+	}
+
+
+	/**
+	 * isFuzzyMatch(Oligo inputQuery, int mismatches), ignoring bases called below minQuality
+	 *
+	 * @param inputQuery sequence to compare
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return boolean
+	 */
+	public boolean isFuzzyMatch(Oligo inputQuery, int mismatches, int minQuality)
+	{
+		return isFuzzyMatch(inputQuery, mismatches, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * isFuzzyMatch(Oligo inputQuery, int mismatches, int minQuality) using the given search settings
+	 *
+	 * @param inputQuery sequence to compare
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard and case settings
+	 * @return boolean
+	 */
+	public boolean isFuzzyMatch(Oligo inputQuery, int mismatches, int minQuality, SearchOptions options)
+	{
+		return getFirstMatchCoordinate(inputQuery, mismatches, minQuality, options) != -1;
+	}
+
+
+	/**
+	 * isFuzzySmithWatermanMatch(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query The query sequence to search for
+	 * @param mismatches The maximum allowed number of mismatches between query and source
+	 * @param ins The maximum allowed number of inserts in the SOURCE sequence (i.e. # deletions in query)
+	 * @param del The maximum allowed number of deletions in the SOURCE sequence (i.e. # insertions in query)
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard, case and scoring settings
+	 * @return boolean TRUE if query is found within source, given the specified conditions; FALSE otherwise
+	 */
+	public boolean isFuzzySmithWatermanMatch(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		return tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, minQuality, options) != null;
+	}
+
+
+	/**
+	 * Returns a copy of the sequence with every base called below minQuality replaced by the wildcard 'n' (in the case of the base it replaces)
+	 *
+	 * @param minQuality lowest Phred score of a base that is kept
+	 * @return Oligo object
+	 */
+	public Oligo masked(int minQuality)
+	{
+		char[] bases = toCharArray();
+		for(int i = 0; i < bases.length; i++)
+		{
+			if(quality[i] < minQuality)
+				bases[i] = Character.isUpperCase(bases[i]) ? 'N' : 'n';
+		}
+		return trusted(new String(bases));
+	}
+
+
+	/**
+	 * tryGetFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return [Oligo object] Found key; otherwise returns null
+	 */
+	public Oligo tryGetFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * tryGetFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality) using the given search settings
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @param options wildcard, case and scoring settings
+	 * @return [Oligo object] Found key; otherwise returns null
+	 */
+	public Oligo tryGetFuzzySWkey(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		Oligo swKey = trySmithWaterman(query, ins, del, minQuality, options);
+		return (swKey != null && isFuzzyMatch(swKey, mismatches, minQuality, options) && swKey.length() >= minKeyLength) ? swKey : null;
+	}
+
+
+	/**
+	 * trySmithWaterman(Oligo query, int ins, int del), scoring bases called below minQuality as 0 instead of MATCH or MISMATCH
+	 *
+	 * @param query The query sequence to search for
+	 * @param ins The maximum number of inserts allowed in the source sequence
+	 * @param del The maximum number of deletes allowed in the source sequence
+	 * @param minQuality lowest Phred score of a base that is scored
+	 * @return Oligo object: transformed query sequence, if within specified conditions; otherwise returns null
+	 */
+	public Oligo trySmithWaterman(Oligo query, int ins, int del, int minQuality)
+	{
+		return trySmithWaterman(query, ins, del, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	/**
+	 * trySmithWaterman(Oligo query, int ins, int del, int minQuality) using the given case and scoring settings. Bypasses the alignment cache
+	 *
+	 * @param query The query sequence to search for
+	 * @param ins The maximum number of inserts allowed in the source sequence
+	 * @param del The maximum number of deletes allowed in the source sequence
+	 * @param minQuality lowest Phred score of a base that is scored
+	 * @param options wildcard, case and scoring settings
+	 * @return Oligo object: transformed query sequence, if within specified conditions; otherwise returns null
+	 */
+	public Oligo trySmithWaterman(Oligo query, int ins, int del, int minQuality, SearchOptions options)
+	{
+		boolean[] neutral = new boolean[quality.length];
+		for(int i = 0; i < neutral.length; i++)
+			neutral[i] = quality[i] < minQuality;
+		return trySmithWaterman(query, ins, del, options, neutral);
+	}
+
+
+	/**
+	 * Trims the 3' end at the first window of 'window' bases whose mean quality is below minMeanQuality (Trimmomatic SLIDINGWINDOW); the window sum is updated
+	 * incrementally, so trimming is O(n)
+	 *
+	 * @param window window length
+	 * @param minMeanQuality lowest acceptable mean Phred score
+	 * @return QualityOligo - the bases before the failing window; this oligo if no window fails
+	 */
+	public QualityOligo trimSlidingWindow(int window, int minMeanQuality)
+	{
+		Preconditions.checkArgument(window > 0, "window must be positive: %s", window);
+		final int LENGTH = quality.length;
+		final int MIN_SUM = window * minMeanQuality;
+		int sum = 0;
+		for(int i = 0; i < LENGTH; i++)
+		{
+			sum += quality[i];
+			if(i >= window)
+				sum -= quality[i - window];
+			if(i >= window - 1 && sum < MIN_SUM)
+				return sub(0, i - window + 1);
+		}
+		if(LENGTH < window && LENGTH > 0 && sum < LENGTH * minMeanQuality) //reads shorter than the window are one window
+			return sub(0, 0);
+		return this;
+	} //end trimSlidingWindow()
+
+
+//===========================| QUALITY EXCISION |=============================//
+	/**
+	 * tryExciseLeftFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return [QualityOligo object] Resulting sequence and scores after excision; otherwise returns null
+	 */
+	public QualityOligo tryExciseLeftFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return tryExciseLeftFrom(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	public QualityOligo tryExciseLeftFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, minQuality, options);
+		int index = (swKey != null) ? getFirstMatchCoordinate(swKey, mismatches, minQuality, options) : -1;
+		return (index != -1) ? sub(index + swKey.length(), length()) : null;
+	}
+
+
+	/**
+	 * tryExciseLeftOf(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return [QualityOligo object] Resulting sequence and scores after excision; otherwise returns null
+	 */
+	public QualityOligo tryExciseLeftOf(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return tryExciseLeftOf(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	public QualityOligo tryExciseLeftOf(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength, minQuality, options);
+		return (index != -1) ? sub(index, length()) : null;
+	}
+
+
+	/**
+	 * tryExciseRightFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return [QualityOligo object] Resulting sequence and scores after excision; otherwise returns null
+	 */
+	public QualityOligo tryExciseRightFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return tryExciseRightFrom(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	public QualityOligo tryExciseRightFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		int index = getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength, minQuality, options);
+		return (index != -1) ? sub(0, index) : null;
+	}
+
+
+	/**
+	 * tryExciseRightOf(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return [QualityOligo object] Resulting sequence and scores after excision; otherwise returns null
+	 */
+	public QualityOligo tryExciseRightOf(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return tryExciseRightOf(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	public QualityOligo tryExciseRightOf(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, minQuality, options);
+		int index = (swKey != null) ? getFirstMatchCoordinate(query, mismatches, ins, del, minKeyLength, minQuality, options) : -1;
+		return (index != -1) ? sub(0, index + swKey.length()) : null;
+	}
+
+
+	/**
+	 * tryExtractSequence(Oligo query, int mismatches, int ins, int del, int minKeyLength), ignoring bases called below minQuality
+	 *
+	 * @param query search key
+	 * @param mismatches max number of allowed mismatches
+	 * @param ins maximum allowed number of inserts in SOURCE sequence
+	 * @param del maximum allowed number of deletes in SOURCE sequence
+	 * @param minKeyLength minimum length of found key in order for search to be considered successful
+	 * @param minQuality lowest Phred score of a base that counts
+	 * @return [QualityOligo object] Extracted source sequence and scores; otherwise returns null
+	 */
+	public QualityOligo tryExtractSequence(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality)
+	{
+		return tryExtractSequence(query, mismatches, ins, del, minKeyLength, minQuality, SearchOptions.DEFAULT);
+	}
+
+
+	public QualityOligo tryExtractSequence(Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength, minQuality, options);
+		int index = (swKey != null) ? getFirstMatchCoordinate(swKey, mismatches, minQuality, options) : -1;
+		return (index != -1) ? sub(index, index + swKey.length()) : null;
+	}
+
+
+//==================| EXCISION OVERRIDES: KEEP THE SCORES |===================//
+	//the searches are Oligo's; only the results carry the scores of the bases they keep. The throwing variants delegate to the try* variants
+
+	@Override
+	public QualityOligo exciseLeftFrom(Oligo query, int mismatches) throws OligoException
+	{
+		return (QualityOligo) super.exciseLeftFrom(query, mismatches);
+	}
+
+
+	@Override
+	public QualityOligo exciseLeftFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
+	{
+		return (QualityOligo) super.exciseLeftFrom(query, mismatches, ins, del, minKeyLength);
+	}
+
+
+	@Override
+	public QualityOligo exciseLeftOf(Oligo query, int mismatches) throws OligoException
+	{
+		return (QualityOligo) super.exciseLeftOf(query, mismatches);
+	}
+
+
+	@Override
+	public QualityOligo exciseLeftOf(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
+	{
+		return (QualityOligo) super.exciseLeftOf(query, mismatches, ins, del, minKeyLength);
+	}
+
+
+	@Override
+	public QualityOligo exciseRightFrom(Oligo query, int mismatches) throws OligoException
+	{
+		return (QualityOligo) super.exciseRightFrom(query, mismatches);
+	}
+
+
+	@Override
+	public QualityOligo exciseRightFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
+	{
+		return (QualityOligo) super.exciseRightFrom(query, mismatches, ins, del, minKeyLength);
+	}
+
+
+	@Override
+	public QualityOligo exciseRightOf(Oligo query, int mismatches) throws OligoException
+	{
+		return (QualityOligo) super.exciseRightOf(query, mismatches);
+	}
+
+
+	@Override
+	public QualityOligo exciseRightOf(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
+	{
+		return (QualityOligo) super.exciseRightOf(query, mismatches, ins, del, minKeyLength);
+	}
+
+
+	@Override
+	public QualityOligo extractSequence(Oligo query, int mismatches) throws OligoException
+	{
+		return (QualityOligo) super.extractSequence(query, mismatches);
+	}
+
+
+	@Override
+	public QualityOligo extractSequence(Oligo query, int mismatches, int ins, int del, int minKeyLength) throws OligoException
+	{
+		return (QualityOligo) super.extractSequence(query, mismatches, ins, del, minKeyLength);
+	}
+
+
+	@Override
+	public QualityOligo tryExciseLeftFrom(Oligo query, int mismatches)
+	{
+		return suffix(super.tryExciseLeftFrom(query, mismatches));
+	}
+
+
+	@Override
+	public QualityOligo tryExciseLeftFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		return suffix(super.tryExciseLeftFrom(query, mismatches, ins, del, minKeyLength));
+	}
+
+
+	@Override
+	public QualityOligo tryExciseLeftOf(Oligo query, int mismatches)
+	{
+		return suffix(super.tryExciseLeftOf(query, mismatches));
+	}
+
+
+	@Override
+	public QualityOligo tryExciseLeftOf(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		return suffix(super.tryExciseLeftOf(query, mismatches, ins, del, minKeyLength));
+	}
+
+
+	@Override
+	public QualityOligo tryExciseRightFrom(Oligo query, int mismatches)
+	{
+		return prefix(super.tryExciseRightFrom(query, mismatches));
+	}
+
+
+	@Override
+	public QualityOligo tryExciseRightFrom(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		return prefix(super.tryExciseRightFrom(query, mismatches, ins, del, minKeyLength));
+	}
+
+
+	@Override
+	public QualityOligo tryExciseRightOf(Oligo query, int mismatches)
+	{
+		return prefix(super.tryExciseRightOf(query, mismatches));
+	}
+
+
+	@Override
+	public QualityOligo tryExciseRightOf(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		return prefix(super.tryExciseRightOf(query, mismatches, ins, del, minKeyLength));
+	}
+
+
+	@Override
+	public QualityOligo tryExtractSequence(Oligo query, int mismatches)
+	{
+		int start = getFirstMatchCoordinate(query, mismatches);
+		return (start != -1) ? sub(start, start + query.length()) : null;
+	}
+
+
+	@Override
+	public QualityOligo tryExtractSequence(Oligo query, int mismatches, int ins, int del, int minKeyLength)
+	{
+		Oligo swKey = tryGetFuzzySWkey(query, mismatches, ins, del, minKeyLength);
+		return (swKey != null) ? tryExtractSequence(swKey, mismatches) : null;
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Returns true if searching the masked() sequence is the same as ignoring low-quality bases under options, i.e. the masking characters n and N are wildcards
+	 */
+	private static boolean masksToWildcards(SearchOptions options)
+	{
+		return options.isWildcard('n') && options.isWildcard('N');
+	}
+
+
+	/**
+	 * Returns true if the window starting at index i matches query with at most 'mismatches' mismatches, not counting bases called below minQuality
+	 */
+	private boolean isMatchAt(int i, Oligo query, int mismatches, int minQuality, SearchOptions options)
+	{
+		final String SOURCE = toString();
+		final String QUERY = query.toString();
+		int misses = 0;
+
+		for(int j = 0; j < QUERY.length(); j++)
+		{
+			if(quality[i + j] >= minQuality && !options.matches(SOURCE.charAt(i + j), QUERY.charAt(j)) && ++misses > mismatches)
+				return false;
+		}
+		return true;
+	}
+
+
+	/**
+	 * Returns true if the indel-aware search window starting at index i matches query, ignoring bases called below minQuality; mirrors the Oligo search
+	 */
+	private boolean isMatchAt(int i, Oligo query, int mismatches, int ins, int del, int minKeyLength, int minQuality, SearchOptions options)
+	{
+		QualityOligo searchWindow = sub(i, i + query.length() + ins); //searchWindow must compensate for number of allowed inserts
+		Oligo swKey = searchWindow.trySmithWaterman(query, ins, del, minQuality, options);
+
+		if(swKey == null)
+			return false;
+		searchWindow = sub(i, i + swKey.length()); //narrow searchWindow to length of potential key
+		return searchWindow.isFuzzySmithWatermanMatch(query, mismatches, ins, del, minKeyLength, minQuality, options)
+				&& searchWindow.isFuzzyMatch(swKey, mismatches, minQuality, options);
+	}
+
+
+	/**
+	 * Returns the bases [from, to) with their scores
+	 */
+	private QualityOligo sub(int from, int to)
+	{
+		return new QualityOligo(toString().substring(from, to), Arrays.copyOfRange(quality, from, to), true);
+	}
+
+
+	/**
+	 * Returns the prefix of this oligo as long as 'part', a prefix excised by Oligo, with its scores; null if part is null
+	 */
+	private QualityOligo prefix(Oligo part)
+	{
+		return (part != null) ? sub(0, part.length()) : null;
+	}
+
+
+	/**
+	 * Returns the suffix of this oligo as long as 'part', a suffix excised by Oligo, with its scores; null if part is null
+	 */
+	private QualityOligo suffix(Oligo part)
+	{
+		return (part != null) ? sub(length() - part.length(), length()) : null;
+	}
+
+
+	private byte[] reversedQuality()
+	{
+		byte[] reversed = new byte[quality.length];
+		for(int i = 0; i < reversed.length; i++)
+			reversed[i] = quality[quality.length - 1 - i];
+		return reversed;
+	}
+} //end QualityOligo class
@@ -0,0 +1,287 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ *class ReferenceIndex: k-mer table over a reference Oligo, used to answer getAllMatchCoordinates(query, mismatches) without scanning every window. The table can
+ *be saved to a versioned file and memory-mapped back in, so startup does not rebuild it and JVMs on one host share its pages
+ *
+ *Searches split the query into mismatches + 1 segments; by the pigeonhole principle every match contains at least one segment exactly, so only reference
+ *positions where a segment's leading k-mer occurs (plus windows overlapping reference wildcards, which the table cannot hold) are verified. Results equal
+ *Oligo.getAllMatchCoordinates(query, mismatches). Queries that contain wildcards, or whose segments are shorter than k, fall back to the full scan
+ *
+ *File layout (big-endian): int MAGIC, int VERSION, int k, int referenceLength, int referenceHash, int wildcardRuns, int positionCount,
+ *wildcardRuns x (int start, int length), int[4^k + 1] bucket offsets, int[positionCount] positions
+ */
+public class ReferenceIndex implements Closeable
+{
+	static final int MAGIC = 0x4F494458; //"OIDX"
+	static final int VERSION = 1;
+	public static final int MAX_K = 13;
+	private static final int HEADER_INTS = 7;
+
+	private final Oligo reference;
+	private final int k;
+	private final int[] wildcardRuns; //start/length pairs
+	private final IntBuffer offsets; //bucket offsets into positions, indexed by 2-bit k-mer code
+	private final IntBuffer positions; //k-mer start coordinates, grouped by k-mer and ascending within each group
+	private final FileChannel channel; //null when built in memory
+
+	private ReferenceIndex(Oligo reference, int k, int[] wildcardRuns, IntBuffer offsets, IntBuffer positions, FileChannel channel)
+	{
+		this.reference = reference;
+		this.k = k;
+		this.wildcardRuns = wildcardRuns;
+		this.offsets = offsets;
+		this.positions = positions;
+		this.channel = channel;
+	}
+
+
+	/**
+	 * Builds the k-mer table of a reference in memory. The offset table holds 4^k ints, so k = 12 costs 64 MiB regardless of reference length
+	 *
+	 * @param reference sequence to index
+	 * @param k k-mer length, 1 to MAX_K
+	 * @return ReferenceIndex
+	 */
+	public static ReferenceIndex build(Oligo reference, int k)
+	{
+		if(k < 1 || k > MAX_K)
+			throw new IllegalArgumentException("k must be between 1 and " + MAX_K + ": " + k);
+		String seq = reference.toString();
+		final int LENGTH = seq.length();
+		final int MASK = (1 << (2 * k)) - 1;
+		int[] offsets = new int[(1 << (2 * k)) + 1];
+
+		//pass 1: count k-mers and collect wildcard runs
+		List<Integer> runs = new ArrayList<Integer>();
+		int code = 0;
+		int valid = 0; //bases since the last wildcard
+		for(int i = 0; i < LENGTH; i++)
+		{
+			byte base = OligoAlphabet.code(seq.charAt(i));
+			if(base == OligoAlphabet.WILDCARD)
+			{
+				if(runs.size() > 0 && runs.get(runs.size() - 2) + runs.get(runs.size() - 1) == i)
+					runs.set(runs.size() - 1, runs.get(runs.size() - 1) + 1);
+				else
+				{
+					runs.add(i);
+					runs.add(1);
+				}
+				valid = 0;
+				continue;
+			}
+			code = ((code << 2) | base) & MASK;
+			if(++valid >= k)
+				offsets[code + 1]++;
+		}
+		for(int c = 1; c < offsets.length; c++)
+			offsets[c] += offsets[c - 1];
+
+		//pass 2: place each k-mer start in its bucket
+		int[] positions = new int[offsets[offsets.length - 1]];
+		int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+		code = 0;
+		valid = 0;
+		for(int i = 0; i < LENGTH; i++)
+		{
+			byte base = OligoAlphabet.code(seq.charAt(i));
+			if(base == OligoAlphabet.WILDCARD)
+			{
+				valid = 0;
+				continue;
+			}
+			code = ((code << 2) | base) & MASK;
+			if(++valid >= k)
+				positions[next[code]++] = i - k + 1;
+		}
+
+		int[] wildcardRuns = new int[runs.size()];
+		for(int r = 0; r < wildcardRuns.length; r++)
+			wildcardRuns[r] = runs.get(r);
+		return new ReferenceIndex(reference, k, wildcardRuns, IntBuffer.wrap(offsets), IntBuffer.wrap(positions), null);
+	} //end build()
+
+
+	/**
+	 * Writes the index to a file that open() can map
+	 *
+	 * @param path index file
+	 * @throws IOException
+	 */
+	public void save(Path path) throws IOException
+	{
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16)))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(k);
+			out.writeInt(reference.length());
+			out.writeInt(reference.toString().hashCode());
+			out.writeInt(wildcardRuns.length / 2);
+			out.writeInt(positions.limit());
+			for(int run : wildcardRuns)
+				out.writeInt(run);
+			for(int c = 0; c < offsets.limit(); c++)
+				out.writeInt(offsets.get(c));
+			for(int p = 0; p < positions.limit(); p++)
+				out.writeInt(positions.get(p));
+		}
+	} //end save()
+
+
+	/**
+	 * Maps an index file written by save(). The reference must be the sequence the index was built from
+	 *
+	 * @param path index file
+	 * @param reference indexed sequence
+	 * @return ReferenceIndex
+	 * @throws IOException if the file is not a compatible index of this reference
+	 */
+	public static ReferenceIndex open(Path path, Oligo reference) throws IOException
+	{
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try
+		{
+			ByteBuffer header = ByteBuffer.allocate(4 * HEADER_INTS);
+			if(channel.read(header, 0) != header.capacity() || header.getInt(0) != MAGIC)
+				throw new IOException("Not a reference index: " + path);
+			if(header.getInt(4) != VERSION)
+				throw new IOException("Unsupported reference index version: " + header.getInt(4));
+			if(header.getInt(12) != reference.length() || header.getInt(16) != reference.toString().hashCode())
+				throw new IOException("Reference index " + path + " was built from a different reference");
+
+			int k = header.getInt(8);
+			int runCount = header.getInt(20);
+			int positionCount = header.getInt(24);
+			long runsOffset = 4L * HEADER_INTS;
+			long offsetsOffset = runsOffset + 8L * runCount;
+			long positionsOffset = offsetsOffset + 4L * ((1 << (2 * k)) + 1);
+			if(channel.size() != positionsOffset + 4L * positionCount)
+				throw new IOException("Reference index " + path + " is truncated");
+
+			ByteBuffer runBytes = ByteBuffer.allocate(8 * runCount);
+			channel.read(runBytes, runsOffset);
+			int[] wildcardRuns = new int[2 * runCount];
+			runBytes.flip();
+			runBytes.asIntBuffer().get(wildcardRuns);
+
+			IntBuffer offsets = channel.map(FileChannel.MapMode.READ_ONLY, offsetsOffset, positionsOffset - offsetsOffset).asIntBuffer();
+			IntBuffer positions = channel.map(FileChannel.MapMode.READ_ONLY, positionsOffset, 4L * positionCount).asIntBuffer();
+			return new ReferenceIndex(reference, k, wildcardRuns, offsets, positions, channel);
+		}
+		catch(IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+	} //end open()
+
+
+	public int getK()
+	{
+		return k;
+	}
+
+
+	public Oligo getReference()
+	{
+		return reference;
+	}
+
+
+	/**
+	 * Returns the number of reference positions at which the k-mer occurs exactly (case-insensitive)
+	 *
+	 * @param kmer k bases without wildcards
+	 * @return int count
+	 */
+	public int count(Oligo kmer)
+	{
+		int code = (kmer.length() == k) ? encode(kmer.toString(), 0) : -1;
+		if(code == -1)
+			throw new IllegalArgumentException("Expected " + k + " bases without wildcards: " + kmer);
+		return offsets.get(code + 1) - offsets.get(code);
+	}
+
+
+	/**
+	 * Same result as getReference().getAllMatchCoordinates(query, mismatches), verifying only seeded candidate windows
+	 *
+	 * @param query query sequence
+	 * @param mismatches maximum number of allowedMismatches
+	 * @return ArrayList object (ArrayList is empty if zero matches are found)
+	 */
+	public ArrayList<Integer> getAllMatchCoordinates(Oligo query, int mismatches)
+	{
+		final int QUERY_LENGTH = query.length();
+		final int LAST_START = reference.length() - QUERY_LENGTH;
+		String q = query.toString();
+		int segments = Math.max(mismatches, 0) + 1;
+		int segmentLength = QUERY_LENGTH / segments;
+
+		if(segmentLength < k || OligoAlphabet.indexOfWildcard(q) != -1)
+			return reference.getAllMatchCoordinates(query, mismatches);
+
+		BitSet candidates = new BitSet(Math.max(LAST_START + 1, 0));
+		for(int s = 0; s < segments; s++)
+		{
+			int segmentStart = s * segmentLength;
+			int code = encode(q, segmentStart);
+			for(int p = offsets.get(code); p < offsets.get(code + 1); p++)
+			{
+				int start = positions.get(p) - segmentStart;
+				if(start >= 0 && start <= LAST_START)
+					candidates.set(start);
+			}
+		}
+		for(int r = 0; r < wildcardRuns.length; r += 2) //windows overlapping a reference wildcard may have no exact seed
+		{
+			int from = Math.max(wildcardRuns[r] - QUERY_LENGTH + 1, 0);
+			int to = Math.min(wildcardRuns[r] + wildcardRuns[r + 1] - 1, LAST_START);
+			if(from <= to)
+				candidates.set(from, to + 1);
+		}
+
+		ArrayList<Integer> hits = new ArrayList<Integer>();
+		for(int start = candidates.nextSetBit(0); start >= 0; start = candidates.nextSetBit(start + 1))
+		{
+			if(reference.isMatchAt(start, query, mismatches, SearchOptions.DEFAULT))
+				hits.add(start);
+		}
+		return hits;
+	} //end getAllMatchCoordinates()
+
+
+	/**
+	 * Closes the index file. The JVM releases the mappings once this index is unreachable
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if(channel != null)
+			channel.close();
+	}
+
+
+	/**
+	 * Returns the 2-bit code of the k bases of seq starting at 'from'; -1 if they include a wildcard
+	 */
+	private int encode(String seq, int from)
+	{
+		int code = 0;
+		for(int i = from; i < from + k; i++)
+		{
+			byte base = OligoAlphabet.code(seq.charAt(i));
+			if(base == OligoAlphabet.WILDCARD)
+				return -1;
+			code = (code << 2) | base;
+		}
+		return code;
+	}
+} //end ReferenceIndex class
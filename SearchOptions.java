@@ -0,0 +1,189 @@
+import java.io.Serializable;
+
+/**
+ *class SearchOptions: immutable settings shared by the Oligo search and alignment methods - the wildcard characters, case sensitivity and the smithWaterman()
+ *scoring parameters. Instances are thread-safe; the with*() methods return modified copies
+ *
+ *Two characters match when they stand for a common base: degenerate IUPAC codes match the bases they include (r matches a, g, r, ...), wildcards match
+ *everything, and n/N is literal unless it is a wildcard. Each character is given a bit mask (4 bits, or 8 if case-sensitive, plus bits for a literal n/N), so a
+ *comparison is one AND
+ */
+public final class SearchOptions implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** Wildcard 'n'/'N', case-insensitive, match = 1.0, mismatch = -0.3, gap of length k = 1.0 + 0.3k */
+	public static final SearchOptions DEFAULT = new SearchOptions("n", false, 1.0, -0.3, 1.0, 0.3);
+
+	private final String wildcards;
+	private final boolean caseSensitive;
+	private final double matchScore;
+	private final double mismatchScore;
+	private final double gapOpen;
+	private final double gapExtend;
+	private final boolean[] isWildcard = new boolean[128]; //ASCII lookup; non-ASCII characters are never wildcards
+	private final int[] mask = new int[128]; //ASCII lookup of match masks; non-ASCII characters match nothing
+	private final boolean iupacNibbles; //true if matching reduces to plain 4-bit IUPAC masks: case-insensitive with n/N as the only wildcard in the alphabet
+
+	private SearchOptions(String wildcards, boolean caseSensitive, double matchScore, double mismatchScore, double gapOpen, double gapExtend)
+	{
+		this.wildcards = wildcards;
+		this.caseSensitive = caseSensitive;
+		this.matchScore = matchScore;
+		this.mismatchScore = mismatchScore;
+		this.gapOpen = gapOpen;
+		this.gapExtend = gapExtend;
+
+		for(char ch : wildcards.toCharArray())
+		{
+			if(ch >= 128)
+				throw new IllegalArgumentException("Wildcard must be an ASCII character: " + ch);
+			isWildcard[ch] = true;
+			if(!caseSensitive)
+			{
+				isWildcard[Character.toLowerCase(ch)] = true;
+				isWildcard[Character.toUpperCase(ch)] = true;
+			}
+		}
+
+		for(char lower : OligoAlphabet.IUPAC.toCharArray())
+		{
+			char upper = Character.toUpperCase(lower);
+			int nibble = (lower == 'n') ? 1 << 8 : OligoAlphabet.nibble(lower); //literal n/N gets its own bit
+			mask[lower] = nibble;
+			mask[upper] = caseSensitive ? ((lower == 'n') ? 1 << 9 : nibble << 4) : nibble;
+		}
+		boolean otherWildcards = false;
+		for(int ch = 0; ch < 128; ch++)
+		{
+			if(isWildcard[ch])
+			{
+				mask[ch] = -1;
+				otherWildcards |= Character.toLowerCase((char) ch) != 'n' && OligoAlphabet.code((char) ch) != OligoAlphabet.INVALID;
+			}
+		}
+		iupacNibbles = !caseSensitive && isWildcard['n'] && !otherWildcards;
+	}
+
+
+//===============================| MODIFIERS |================================//
+	/**
+	 * Returns a copy of these options whose wildcards are the characters of the given String. An empty String disables wildcards
+	 *
+	 * @param wildcards characters that match any base
+	 * @return SearchOptions object
+	 */
+	public SearchOptions withWildcards(String wildcards)
+	{
+		return new SearchOptions(wildcards, caseSensitive, matchScore, mismatchScore, gapOpen, gapExtend);
+	}
+
+
+	public SearchOptions withCaseSensitive(boolean caseSensitive)
+	{
+		return new SearchOptions(wildcards, caseSensitive, matchScore, mismatchScore, gapOpen, gapExtend);
+	}
+
+
+	/**
+	 * Returns a copy of these options with the given smithWaterman() scores. A gap of length k costs gapOpen + gapExtend * k
+	 *
+	 * @param matchScore score of an aligned base-base match
+	 * @param mismatchScore score of an aligned base-base mismatch
+	 * @param gapOpen fixed cost of a gap
+	 * @param gapExtend cost per gap position
+	 * @return SearchOptions object
+	 */
+	public SearchOptions withScoring(double matchScore, double mismatchScore, double gapOpen, double gapExtend)
+	{
+		return new SearchOptions(wildcards, caseSensitive, matchScore, mismatchScore, gapOpen, gapExtend);
+	}
+
+
+//===============================| ACCESSORS |================================//
+	public String getWildcards()
+	{
+		return wildcards;
+	}
+
+
+	public boolean isCaseSensitive()
+	{
+		return caseSensitive;
+	}
+
+
+	public double getMatchScore()
+	{
+		return matchScore;
+	}
+
+
+	public double getMismatchScore()
+	{
+		return mismatchScore;
+	}
+
+
+	public double getGapOpen()
+	{
+		return gapOpen;
+	}
+
+
+	public double getGapExtend()
+	{
+		return gapExtend;
+	}
+
+
+	/**
+	 * Determines whether ch matches any base
+	 *
+	 * @param ch character to test
+	 * @return boolean
+	 */
+	public boolean isWildcard(char ch)
+	{
+		return ch < 128 && isWildcard[ch];
+	}
+
+
+	/**
+	 * Determines whether two characters match: either is a wildcard, or both stand for a common base (respecting case sensitivity)
+	 *
+	 * @param a first character
+	 * @param b second character
+	 * @return boolean
+	 */
+	public boolean matches(char a, char b)
+	{
+		return (mask(a) & mask(b)) != 0;
+	}
+
+
+	/**
+	 * Returns the match mask of ch; two characters match when their masks share a bit
+	 */
+	int mask(char ch)
+	{
+		return (ch < 128) ? mask[ch] : 0;
+	}
+
+
+	/**
+	 * Returns true if matches() is equivalent to comparing OligoAlphabet.nibble() masks, so sequences can be compared 16 bases per long
+	 */
+	boolean isIupacNibbles()
+	{
+		return iupacNibbles;
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return "SearchOptions[wildcards=" + wildcards + ", caseSensitive=" + caseSensitive + ", match=" + matchScore + ", mismatch=" + mismatchScore + ", gapOpen=" + gapOpen
+				+ ", gapExtend=" + gapExtend + "]";
+	}
+} //end SearchOptions class
@@ -0,0 +1,557 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ *class SequenceReader: streams FASTA or FASTQ records (format detected from the first record) as SequenceRecord views. Plain files are memory-mapped in windows
+ *of up to 1 GiB, so records are views over the mapped pages. Gzip files are decompressed by a background thread into a bounded queue of chunks, so decompression
+ *and parsing run in parallel. A record must fit in one window
+ */
+public class SequenceReader implements Closeable
+{
+	private static final int MAP_WINDOW = 1 << 30; //bytes mapped at a time
+	private static final int GZIP_CHUNK = 1 << 20; //bytes per decompressed chunk
+	private static final int GZIP_QUEUE = 8; //decompressed chunks buffered ahead of the parser
+	private static final int BOUNDARY_SCAN = 1 << 20; //bytes mapped at a time when aligning split points
+
+	private final Source source;
+	private final long rangeEnd; //records starting at or after this file offset belong to the next split
+	private ByteBuffer buf;
+	private long bufOffset; //file offset (or decompressed stream offset) of buf index 0
+	private int pos;
+	private boolean fastq;
+	private boolean formatKnown;
+
+	private SequenceReader(Source source, long rangeStart, long rangeEnd) throws IOException
+	{
+		this.source = source;
+		this.rangeEnd = rangeEnd;
+		this.bufOffset = rangeStart;
+		this.buf = source.more(null, 0, rangeStart);
+		if(buf == null)
+			buf = ByteBuffer.allocate(0);
+	}
+
+
+	/**
+	 * Opens a FASTA or FASTQ file for sequential reading. Gzip input is recognised by its magic number
+	 *
+	 * @param path file to read
+	 * @return SequenceReader
+	 * @throws IOException
+	 */
+	public static SequenceReader open(Path path) throws IOException
+	{
+		if(isGzip(path))
+			return new SequenceReader(new GzipSource(path), 0, Long.MAX_VALUE);
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		return new SequenceReader(new MappedSource(channel), 0, Long.MAX_VALUE);
+	} //end open()
+
+
+	/**
+	 * Splits an uncompressed FASTA or FASTQ file into at most 'parts' readers over disjoint, record-aligned byte ranges, for processing on separate threads. Gzip
+	 * files cannot be split; they yield a single reader
+	 *
+	 * @param path file to read
+	 * @param parts desired number of readers
+	 * @return List of readers, in file order
+	 * @throws IOException
+	 */
+	public static List<SequenceReader> split(Path path, int parts) throws IOException
+	{
+		if(parts < 1)
+			throw new IllegalArgumentException("parts must be at least 1: " + parts);
+		if(isGzip(path))
+			return Collections.singletonList(open(path));
+
+		List<Long> starts = new ArrayList<Long>();
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			boolean isFastq = firstRecordChar(channel) == '@';
+			starts.add(0L);
+			for(int i = 1; i < parts; i++)
+			{
+				long start = nextRecordStart(channel, size * i / parts, isFastq);
+				if(start > starts.get(starts.size() - 1) && start < size)
+					starts.add(start);
+			}
+			starts.add(size);
+		}
+
+		List<SequenceReader> readers = new ArrayList<SequenceReader>();
+		for(int i = 0; i + 1 < starts.size(); i++)
+		{
+			FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+			readers.add(new SequenceReader(new MappedSource(channel), starts.get(i), starts.get(i + 1)));
+		}
+		return readers;
+	} //end split()
+
+
+	/**
+	 * Returns the next record
+	 *
+	 * @return SequenceRecord; null when the file (or this reader's range) is exhausted
+	 * @throws IOException if the file cannot be read or a record is malformed
+	 */
+	public SequenceRecord next() throws IOException
+	{
+		while(true)
+		{
+			while(pos < buf.limit() && isLineBreak(buf.get(pos)))
+				pos++;
+			if(bufOffset + pos >= rangeEnd)
+				return null;
+			if(pos == buf.limit())
+			{
+				if(!refill())
+					return null;
+				continue;
+			}
+
+			if(!formatKnown)
+			{
+				byte first = buf.get(pos);
+				if(first != '>' && first != '@')
+					throw new IOException("Unrecognised sequence format at offset " + (bufOffset + pos));
+				fastq = first == '@';
+				formatKnown = true;
+			}
+
+			SequenceRecord record = fastq ? parseFastq() : parseFasta();
+			if(record != null)
+				return record;
+			refill(); //if no input remains, the source is now exhausted and the record is re-parsed as the last one
+		}
+	} //end next()
+
+
+	@Override
+	public void close() throws IOException
+	{
+		source.close();
+	}
+
+
+//================================| PARSING |=================================//
+	/**
+	 * Parses the FASTA record at pos and advances past it
+	 *
+	 * @return SequenceRecord; null if the record runs past the end of buf and more input is available
+	 */
+	private SequenceRecord parseFasta() throws IOException
+	{
+		final int LIMIT = buf.limit();
+		final boolean EOF = source.isExhausted();
+
+		if(buf.get(pos) != '>')
+			throw new IOException("Malformed FASTA record at offset " + (bufOffset + pos));
+		int headerEnd = indexOfLineEnd(pos);
+		if(headerEnd == -1)
+			return null;
+
+		int recordEnd = headerEnd + 1;
+		while(true) //the record ends at the next line starting with '>'
+		{
+			if(recordEnd >= LIMIT)
+			{
+				if(!EOF)
+					return null;
+				recordEnd = LIMIT;
+				break;
+			}
+			if(buf.get(recordEnd) == '>')
+				break;
+			int lineEnd = indexOfLineEnd(recordEnd);
+			if(lineEnd == -1)
+				return null;
+			recordEnd = lineEnd + 1;
+		}
+
+		CharSequence name = view(pos + 1, headerEnd);
+		CharSequence sequence = sequenceLines(Math.min(headerEnd + 1, LIMIT), Math.min(recordEnd, LIMIT));
+		pos = Math.min(recordEnd, LIMIT);
+		return new SequenceRecord(name, sequence, null);
+	} //end parseFasta()
+
+
+	/**
+	 * Parses the four-line FASTQ record at pos and advances past it
+	 *
+	 * @return SequenceRecord; null if the record runs past the end of buf and more input is available
+	 */
+	private SequenceRecord parseFastq() throws IOException
+	{
+		if(buf.get(pos) != '@')
+			throw new IOException("Malformed FASTQ record at offset " + (bufOffset + pos));
+		int headerEnd = indexOfLineEnd(pos);
+		int sequenceEnd = (headerEnd == -1 || headerEnd >= buf.limit()) ? -1 : indexOfLineEnd(headerEnd + 1);
+		int separatorEnd = (sequenceEnd == -1 || sequenceEnd >= buf.limit()) ? -1 : indexOfLineEnd(sequenceEnd + 1);
+		int qualityEnd = (separatorEnd == -1 || separatorEnd >= buf.limit()) ? -1 : indexOfLineEnd(separatorEnd + 1);
+		if(qualityEnd == -1)
+		{
+			if(source.isExhausted())
+				throw new IOException("Truncated FASTQ record at offset " + (bufOffset + pos));
+			return null;
+		}
+
+		CharSequence sequence = view(headerEnd + 1, sequenceEnd);
+		CharSequence quality = view(separatorEnd + 1, qualityEnd);
+		if(buf.get(sequenceEnd + 1) != '+' || sequence.length() != quality.length())
+			throw new IOException("Malformed FASTQ record at offset " + (bufOffset + pos));
+
+		CharSequence name = view(pos + 1, headerEnd);
+		pos = Math.min(qualityEnd + 1, buf.limit());
+		return new SequenceRecord(name, sequence, quality);
+	} //end parseFastq()
+
+
+	/**
+	 * Returns the sequence lines in [from, to) as a view if they form a single line; otherwise joins them, without line breaks, into one new buffer
+	 */
+	private CharSequence sequenceLines(int from, int to)
+	{
+		int end = to;
+		while(end > from && isLineBreak(buf.get(end - 1)))
+			end--;
+
+		int breaks = 0;
+		for(int i = from; i < end; i++)
+		{
+			if(isLineBreak(buf.get(i)))
+				breaks++;
+		}
+		if(breaks == 0)
+			return new ByteSequence(buf, from, end - from);
+
+		byte[] joined = new byte[end - from - breaks];
+		int length = 0;
+		for(int i = from; i < end; i++)
+		{
+			byte b = buf.get(i);
+			if(!isLineBreak(b))
+				joined[length++] = b;
+		}
+		return new ByteSequence(ByteBuffer.wrap(joined), 0, length);
+	} //end sequenceLines()
+
+
+	/**
+	 * Returns a view of [from, lineEnd), excluding a trailing '\r'
+	 */
+	private CharSequence view(int from, int lineEnd)
+	{
+		int end = (lineEnd > from && buf.get(lineEnd - 1) == '\r') ? lineEnd - 1 : lineEnd;
+		return new ByteSequence(buf, from, end - from);
+	}
+
+
+	/**
+	 * Returns the index of the '\n' ending the line that contains 'from'; buf.limit() if the input ends without one; -1 if more input is needed to find it
+	 */
+	private int indexOfLineEnd(int from)
+	{
+		for(int i = from; i < buf.limit(); i++)
+		{
+			if(buf.get(i) == '\n')
+				return i;
+		}
+		return source.isExhausted() ? buf.limit() : -1;
+	}
+
+
+	/**
+	 * Replaces buf with one that starts at pos and holds more input
+	 *
+	 * @return boolean false if no more input is available
+	 */
+	private boolean refill() throws IOException
+	{
+		int kept = buf.limit() - pos;
+		ByteBuffer next = source.more(buf, pos, bufOffset + pos);
+		if(next == null)
+			return false;
+		if(next.limit() <= kept)
+			throw new IOException("Record at offset " + (bufOffset + pos) + " does not fit in one read window");
+		bufOffset += pos;
+		buf = next;
+		pos = 0;
+		return true;
+	}
+
+
+	private static boolean isLineBreak(byte b)
+	{
+		return b == '\n' || b == '\r';
+	}
+
+
+//=============================| SPLIT POINTS |===============================//
+	private static boolean isGzip(Path path) throws IOException
+	{
+		try(InputStream in = Files.newInputStream(path))
+		{
+			return in.read() == 0x1f && in.read() == 0x8b;
+		}
+	}
+
+
+	private static int firstRecordChar(FileChannel channel) throws IOException
+	{
+		ByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), BOUNDARY_SCAN));
+		for(int i = 0; i < head.limit(); i++)
+		{
+			byte b = head.get(i);
+			if(!isLineBreak(b))
+				return b;
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Returns the offset of the first record that starts at or after 'from'; channel.size() if there is none. A FASTQ record starts at a line beginning with '@'
+	 * whose second following line begins with '+' - quality lines may also begin with '@', but are never followed by that pattern
+	 */
+	private static long nextRecordStart(FileChannel channel, long from, boolean isFastq) throws IOException
+	{
+		final long SIZE = channel.size();
+		long lineStart = from;
+
+		while(lineStart < SIZE)
+		{
+			ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, lineStart, Math.min(SIZE - lineStart, BOUNDARY_SCAN));
+			int i = 0;
+			if(lineStart > 0 && lineStart == from) //'from' may be mid-line; skip to the next line start
+			{
+				ByteBuffer previous = channel.map(FileChannel.MapMode.READ_ONLY, lineStart - 1, 1);
+				if(previous.get(0) != '\n')
+				{
+					while(i < window.limit() && window.get(i) != '\n')
+						i++;
+					i++;
+				}
+			}
+
+			while(i < window.limit())
+			{
+				byte b = window.get(i);
+				if(!isFastq && b == '>')
+					return lineStart + i;
+				if(isFastq && b == '@')
+				{
+					int separator = skipLines(window, i, 2);
+					if(separator == -1)
+					{
+						if(lineStart + window.limit() >= SIZE) //too few lines left for a record
+							return SIZE;
+						break; //pattern crosses the window; rescan from this line
+					}
+					if(separator < window.limit() && window.get(separator) == '+')
+						return lineStart + i;
+				}
+				int next = skipLines(window, i, 1);
+				if(next == -1)
+				{
+					if(lineStart + window.limit() >= SIZE)
+						return SIZE;
+					break;
+				}
+				i = next;
+			}
+			if(i == 0)
+				throw new IOException("Line at offset " + lineStart + " is longer than the split scan window");
+			lineStart += i;
+		}
+		return SIZE;
+	} //end nextRecordStart()
+
+
+	/**
+	 * Returns the index just past the 'lines'-th '\n' at or after 'from'; -1 if the window ends first
+	 */
+	private static int skipLines(ByteBuffer window, int from, int lines)
+	{
+		int i = from;
+		for(int n = 0; n < lines; n++)
+		{
+			while(i < window.limit() && window.get(i) != '\n')
+				i++;
+			if(i == window.limit())
+				return -1;
+			i++;
+		}
+		return i;
+	}
+
+
+//================================| SOURCES |=================================//
+	/**
+	 * Supplies input as a sequence of buffers
+	 */
+	private interface Source extends Closeable
+	{
+		/**
+		 * Returns a buffer whose index 0 holds the byte at stream offset 'offset' (current index keepFrom) and that extends past the end of current
+		 *
+		 * @return ByteBuffer; null if no input remains beyond current
+		 */
+		ByteBuffer more(ByteBuffer current, int keepFrom, long offset) throws IOException;
+
+		/**
+		 * Returns true once the most recent buffer reaches the end of the input
+		 */
+		boolean isExhausted();
+	}
+
+
+	/**
+	 * Maps successive windows of a file; each refill remaps the file from the first unparsed byte. Old windows stay valid while records still reference them
+	 */
+	private static class MappedSource implements Source
+	{
+		private final FileChannel channel;
+		private final long size;
+		private boolean exhausted;
+
+		MappedSource(FileChannel channel) throws IOException
+		{
+			this.channel = channel;
+			this.size = channel.size();
+		}
+
+		@Override
+		public ByteBuffer more(ByteBuffer current, int keepFrom, long offset) throws IOException
+		{
+			if(offset >= size || (current != null && offset + (current.limit() - keepFrom) >= size))
+			{
+				exhausted = true;
+				return null;
+			}
+			long length = Math.min(size - offset, MAP_WINDOW);
+			exhausted = offset + length >= size;
+			return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+		}
+
+		@Override
+		public boolean isExhausted()
+		{
+			return exhausted;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			channel.close();
+		}
+	} //end MappedSource class
+
+
+	/**
+	 * Decompresses a gzip file on a background thread into a bounded queue of chunks; each refill appends the next chunk to the unparsed tail of the current buffer
+	 */
+	private static class GzipSource implements Source
+	{
+		private static final byte[] END = new byte[0];
+		private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<byte[]>(GZIP_QUEUE);
+		private final Thread decompressor;
+		private volatile IOException failure;
+		private boolean exhausted;
+
+		GzipSource(Path path)
+		{
+			decompressor = new Thread(() -> decompress(path), "SequenceReader-gunzip");
+			decompressor.setDaemon(true);
+			decompressor.start();
+		}
+
+		private void decompress(Path path)
+		{
+			try(InputStream in = new GZIPInputStream(Files.newInputStream(path), 1 << 16))
+			{
+				while(true)
+				{
+					byte[] chunk = in.readNBytes(GZIP_CHUNK);
+					if(chunk.length == 0)
+						break;
+					chunks.put(chunk);
+				}
+			}
+			catch(IOException e)
+			{
+				failure = e;
+			}
+			catch(InterruptedException e)
+			{
+				return; //reader closed
+			}
+
+			try
+			{
+				chunks.put(END);
+			}
+			catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public ByteBuffer more(ByteBuffer current, int keepFrom, long offset) throws IOException
+		{
+			if(exhausted)
+				return null;
+			byte[] chunk;
+			try
+			{
+				chunk = chunks.take();
+			}
+			catch(InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for decompressed input");
+			}
+			if(failure != null)
+				throw failure;
+			if(chunk == END)
+			{
+				exhausted = true;
+				return null;
+			}
+
+			int kept = (current == null) ? 0 : current.limit() - keepFrom;
+			byte[] joined = new byte[kept + chunk.length];
+			if(kept > 0)
+				current.get(keepFrom, joined, 0, kept);
+			System.arraycopy(chunk, 0, joined, kept, chunk.length);
+
+			byte[] peek = chunks.peek();
+			exhausted = peek == END; //lets the parser finish a final record without blocking for END
+			if(exhausted)
+			{
+				chunks.poll();
+				if(failure != null) //set before END was queued; a failure after the last chunk must not read as a clean EOF
+					throw failure;
+			}
+			return ByteBuffer.wrap(joined);
+		}
+
+		@Override
+		public boolean isExhausted()
+		{
+			return exhausted;
+		}
+
+		@Override
+		public void close()
+		{
+			decompressor.interrupt();
+		}
+	} //end GzipSource class
+} //end SequenceReader class
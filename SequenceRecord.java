@@ -0,0 +1,86 @@
+import com.google.common.base.Preconditions;
+
+/**
+ *class SequenceRecord: one FASTA or FASTQ record read by SequenceReader. Name, sequence and quality are views over the reader's buffers; the sequence is only
+ *copied when toOligo() is called
+ */
+public final class SequenceRecord
+{
+	private final CharSequence name;
+	private final CharSequence sequence;
+	private final CharSequence quality;
+
+	SequenceRecord(CharSequence name, CharSequence sequence, CharSequence quality)
+	{
+		this.name = name;
+		this.sequence = sequence;
+		this.quality = quality;
+	}
+
+
+	/**
+	 * Returns the header line without its leading '>' or '@'
+	 *
+	 * @return CharSequence view of the header
+	 */
+	public CharSequence getName()
+	{
+		return name;
+	}
+
+
+	public CharSequence getSequence()
+	{
+		return sequence;
+	}
+
+
+	/**
+	 * Returns the Phred+33 quality string of a FASTQ record
+	 *
+	 * @return CharSequence view of the quality line; null for FASTA records
+	 */
+	public CharSequence getQuality()
+	{
+		return quality;
+	}
+
+
+	public int length()
+	{
+		return sequence.length();
+	}
+
+
+	/**
+	 * Validates the sequence and copies it into an Oligo object
+	 *
+	 * @return Oligo object
+	 */
+	public Oligo toOligo()
+	{
+		Preconditions.checkArgument(OligoAlphabet.indexOfInvalid(sequence) == -1, "Oligo object cannot be created. Record [%s] contains invalid characters.", name);
+		return Oligo.trusted(sequence.toString());
+	}
+
+
+	/**
+	 * Validates the sequence and copies it, with its quality scores, into a QualityOligo object
+	 *
+	 * @return QualityOligo object
+	 * @throws IllegalStateException if this is a FASTA record
+	 */
+	public QualityOligo toQualityOligo()
+	{
+		if(quality == null)
+			throw new IllegalStateException("FASTA record [" + name + "] has no quality scores");
+		return QualityOligo.fromPhred33(sequence, quality);
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return "SequenceRecord[" + name + ", length=" + sequence.length() + "]";
+	}
+} //end SequenceRecord class
@@ -0,0 +1,277 @@
+import com.google.common.base.Preconditions;
+import java.util.*;
+
+/**
+ *class Translator: codon translation in all six reading frames, and an open reading frame (ORF) finder. Codons are looked up by their 6-bit code (first base in the
+ *high bits, a = 0, c = 1, g = 2, t = 3); codons containing a wildcard translate to 'X' and stops to '*'. Reverse frames are read directly off the forward sequence,
+ *so no reverse complement is built, and each translation allocates only its result. Instances are immutable and thread-safe
+ *
+ *Frames are numbered 1, 2, 3 (forward, starting at index 0, 1, 2) and -1, -2, -3 (reverse complement, starting at the last, second-last and third-last base)
+ */
+public final class Translator
+{
+	/** Standard genetic code, ATG start */
+	public static final Translator STANDARD = new Translator("KNKNTTTTRSRSIIMIQHQHPPPPRRRRLLLLEDEDAAAAGGGGVVVV*Y*YSSSS*CWCLFLF", new boolean[64]).withStartCodons("ATG");
+	private static final int[] FRAMES = {1, 2, 3, -1, -2, -3};
+
+	private final String table;
+	private final boolean[] isStart;
+
+	private Translator(String table, boolean[] isStart)
+	{
+		Preconditions.checkArgument(table.length() == 64, "Codon table must have 64 entries: %s", table.length());
+		this.table = table;
+		this.isStart = isStart;
+	}
+
+
+	/**
+	 * Returns a copy of this translator using the given genetic code
+	 *
+	 * @param table 64 amino acids (stops as '*') ordered by codon code: AAA, AAC, AAG, AAT, ACA, ... TTT
+	 * @return Translator
+	 */
+	public Translator withCodonTable(String table)
+	{
+		return new Translator(table, isStart);
+	}
+
+
+	/**
+	 * Returns a copy of this translator whose ORFs begin at any of the given codons (i.e. "ATG", "GTG", "TTG")
+	 *
+	 * @param codons start codons
+	 * @return Translator
+	 */
+	public Translator withStartCodons(String... codons)
+	{
+		boolean[] starts = new boolean[64];
+		for(String codon : codons)
+		{
+			int code = (codon.length() == 3) ? codon(codes(codon), 0) : -1;
+			Preconditions.checkArgument(code != -1, "Invalid start codon: %s", codon);
+			starts[code] = true;
+		}
+		return new Translator(table, starts);
+	}
+
+
+	/**
+	 * Translates one reading frame
+	 *
+	 * @param seq sequence to translate (an Oligo, String or SequenceRecord view)
+	 * @param frame 1, 2, 3, -1, -2 or -3
+	 * @return String protein sequence
+	 */
+	public String translate(CharSequence seq, int frame)
+	{
+		checkFrame(frame);
+		return new String(translate(codes(seq), frame));
+	}
+
+
+	public String translate(Oligo oligo, int frame)
+	{
+		return translate(oligo.toString(), frame);
+	}
+
+
+	/**
+	 * Translates all six reading frames
+	 *
+	 * @param seq sequence to translate
+	 * @return String[6] proteins of frames 1, 2, 3, -1, -2, -3
+	 */
+	public String[] translateSixFrames(CharSequence seq)
+	{
+		byte[] codes = codes(seq);
+		String[] proteins = new String[FRAMES.length];
+		for(int f = 0; f < FRAMES.length; f++)
+			proteins[f] = new String(translate(codes, FRAMES[f]));
+		return proteins;
+	}
+
+
+	/**
+	 * Translates one reading frame of every sequence
+	 *
+	 * @param seqs sequences to translate
+	 * @param frame 1, 2, 3, -1, -2 or -3
+	 * @return List of protein sequences, in order
+	 */
+	public List<String> translateAll(List<? extends CharSequence> seqs, int frame)
+	{
+		checkFrame(frame);
+		List<String> proteins = new ArrayList<String>(seqs.size());
+		for(CharSequence seq : seqs)
+			proteins.add(new String(translate(codes(seq), frame)));
+		return proteins;
+	}
+
+
+	/**
+	 * Finds every ORF in all six frames: a start codon followed, in frame, by a stop codon, with no stop in between. Only the first start after a stop opens an ORF,
+	 * and ORFs not closed by a stop before the end of the sequence are not reported
+	 *
+	 * @param seq sequence to search
+	 * @param minLength minimum ORF length in amino acids, excluding the stop
+	 * @return List of Orf objects, by frame (1, 2, 3, -1, -2, -3) and then position along the frame
+	 */
+	public List<Orf> findOrfs(CharSequence seq, int minLength)
+	{
+		byte[] codes = codes(seq);
+		final int LENGTH = codes.length;
+		List<Orf> orfs = new ArrayList<Orf>();
+
+		for(int frame : FRAMES)
+		{
+			char[] protein = translate(codes, frame);
+			int open = -1; //codon index of the current ORF's start codon
+			for(int k = 0; k < protein.length; k++)
+			{
+				if(open == -1 && isStart(codes, frame, k))
+					open = k;
+				else if(protein[k] == '*' && open != -1)
+				{
+					if(k - open >= minLength)
+					{
+						protein[open] = 'M'; //alternative starts are translated as methionine
+						int first = (frame > 0) ? frame - 1 + 3 * open : LENGTH + frame - 3 * k - 2;
+						int last = (frame > 0) ? frame - 1 + 3 * k + 2 : LENGTH + frame - 3 * open;
+						orfs.add(new Orf(frame, first, last, new String(protein, open, k - open)));
+					}
+					open = -1;
+				}
+			}
+		}
+		return orfs;
+	} //end findOrfs()
+
+
+	public List<Orf> findOrfs(Oligo oligo, int minLength)
+	{
+		return findOrfs(oligo.toString(), minLength);
+	}
+
+
+//================================| HELPERS |=================================//
+	private char[] translate(byte[] codes, int frame)
+	{
+		final int LENGTH = codes.length;
+		int offset = Math.abs(frame) - 1;
+		char[] protein = new char[Math.max((LENGTH - offset) / 3, 0)];
+
+		for(int k = 0; k < protein.length; k++)
+		{
+			int code = (frame > 0) ? codon(codes, offset + 3 * k) : reverseCodon(codes, LENGTH - 1 - offset - 3 * k);
+			protein[k] = (code == -1) ? 'X' : table.charAt(code);
+		}
+		return protein;
+	}
+
+
+	private boolean isStart(byte[] codes, int frame, int k)
+	{
+		int offset = Math.abs(frame) - 1;
+		int code = (frame > 0) ? codon(codes, offset + 3 * k) : reverseCodon(codes, codes.length - 1 - offset - 3 * k);
+		return code != -1 && isStart[code];
+	}
+
+
+	private static byte[] codes(CharSequence seq)
+	{
+		final int LENGTH = seq.length();
+		byte[] codes = new byte[LENGTH];
+		for(int i = 0; i < LENGTH; i++)
+		{
+			codes[i] = OligoAlphabet.code(seq.charAt(i));
+			Preconditions.checkArgument(codes[i] != OligoAlphabet.INVALID, "Invalid base '%s' at offset %s", seq.charAt(i), i);
+		}
+		return codes;
+	}
+
+
+	/**
+	 * Returns the 6-bit code of the forward codon starting at i; -1 if it contains a wildcard
+	 */
+	private static int codon(byte[] codes, int i)
+	{
+		int b1 = codes[i];
+		int b2 = codes[i + 1];
+		int b3 = codes[i + 2];
+		return (b1 | b2 | b3) > 3 ? -1 : (b1 << 4) | (b2 << 2) | b3;
+	}
+
+
+	/**
+	 * Returns the 6-bit code of the reverse-strand codon whose first base is the complement of forward base i (read i, i - 1, i - 2); -1 if it contains a wildcard
+	 */
+	private static int reverseCodon(byte[] codes, int i)
+	{
+		int b1 = codes[i];
+		int b2 = codes[i - 1];
+		int b3 = codes[i - 2];
+		return (b1 | b2 | b3) > 3 ? -1 : ((3 - b1) << 4) | ((3 - b2) << 2) | (3 - b3);
+	}
+
+
+	private static void checkFrame(int frame)
+	{
+		Preconditions.checkArgument(frame != 0 && Math.abs(frame) <= 3, "Frame must be 1, 2, 3, -1, -2 or -3: %s", frame);
+	}
+
+
+//==================================| ORF |===================================//
+	/**
+	 * Open reading frame found by findOrfs(). start and end are ZERO-based, inclusive forward-strand coordinates that span the start and stop codons
+	 */
+	public static final class Orf
+	{
+		private final int frame;
+		private final int start;
+		private final int end;
+		private final String protein;
+
+		Orf(int frame, int start, int end, String protein)
+		{
+			this.frame = frame;
+			this.start = start;
+			this.end = end;
+			this.protein = protein;
+		}
+
+
+		public int getFrame()
+		{
+			return frame;
+		}
+
+
+		public int getStart()
+		{
+			return start;
+		}
+
+
+		public int getEnd()
+		{
+			return end;
+		}
+
+
+		/**
+		 * Returns the translated ORF, starting with 'M' and excluding the stop
+		 */
+		public String getProtein()
+		{
+			return protein;
+		}
+
+
+		@Override
+		public String toString()
+		{
+			return "Orf[frame=" + frame + ", " + start + "-" + end + ", " + protein + "]";
+		}
+	} //end Orf class
+} //end Translator class
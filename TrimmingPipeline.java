@@ -0,0 +1,459 @@
+import com.google.common.base.Preconditions;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *class TrimmingPipeline: staged 3' adapter and quality trimming of FASTA/FASTQ files. The calling thread reads batches of records, 'threads' workers trim them and a
+ *writer thread writes them back in input order; stages are connected by bounded queues, so a slow stage holds back the ones before it instead of buffering the
+ *whole input. run() returns the records handled and time spent busy per stage
+ *
+ *Each read is cut at the leftmost adapter occurrence (at most 'mismatches' mismatches, SearchOptions.DEFAULT matching) or, failing that, at the longest suffix of at
+ *least minOverlap bases that matches an adapter prefix, allowing mismatches in proportion to the overlap. FASTQ reads are then quality-trimmed from the 3' end
+ *(BWA-style: the cut maximises the sum of qualityCutoff - Phred score over the removed bases), and reads shorter than minLength are dropped. Instances are
+ *immutable; the with*() methods return modified copies
+ */
+public final class TrimmingPipeline
+{
+	public enum Stage
+	{
+		READ, TRIM, WRITE
+	}
+
+	private static final int QUEUE_BATCHES = 16; //batches buffered between stages
+	private static final List<SequenceRecord> END = new ArrayList<SequenceRecord>(); //end-of-input marker, compared by identity
+
+	private final List<Oligo> adapters;
+	private final int mismatches;
+	private final int minOverlap;
+	private final int qualityCutoff;
+	private final int minLength;
+	private final int threads;
+	private final int batchSize;
+
+	private TrimmingPipeline(List<Oligo> adapters, int mismatches, int minOverlap, int qualityCutoff, int minLength, int threads, int batchSize)
+	{
+		Preconditions.checkArgument(mismatches >= 0 && minOverlap >= 1 && qualityCutoff >= 0 && minLength >= 0, "Trimming limits must not be negative");
+		Preconditions.checkArgument(threads >= 1 && batchSize >= 1, "threads and batchSize must be positive");
+		this.adapters = adapters;
+		this.mismatches = mismatches;
+		this.minOverlap = minOverlap;
+		this.qualityCutoff = qualityCutoff;
+		this.minLength = minLength;
+		this.threads = threads;
+		this.batchSize = batchSize;
+	}
+
+
+	/**
+	 * Constructor: trims the given 3' adapters with a minimum partial overlap of 3 bases, no quality trimming, no length filter, one worker per available processor
+	 * and batches of 1024 records
+	 *
+	 * @param adapters 3' adapters
+	 * @param mismatches maximum number of mismatches in a full adapter match
+	 */
+	public TrimmingPipeline(List<Oligo> adapters, int mismatches)
+	{
+		this(new ArrayList<Oligo>(adapters), mismatches, 3, 0, 0, Runtime.getRuntime().availableProcessors(), 1024);
+	}
+
+
+	public TrimmingPipeline withMinOverlap(int minOverlap)
+	{
+		return new TrimmingPipeline(adapters, mismatches, minOverlap, qualityCutoff, minLength, threads, batchSize);
+	}
+
+
+	/**
+	 * Returns a copy of this pipeline that quality-trims FASTQ reads at the given Phred score; 0 disables quality trimming
+	 */
+	public TrimmingPipeline withQualityCutoff(int qualityCutoff)
+	{
+		return new TrimmingPipeline(adapters, mismatches, minOverlap, qualityCutoff, minLength, threads, batchSize);
+	}
+
+
+	public TrimmingPipeline withMinLength(int minLength)
+	{
+		return new TrimmingPipeline(adapters, mismatches, minOverlap, qualityCutoff, minLength, threads, batchSize);
+	}
+
+
+	public TrimmingPipeline withThreads(int threads)
+	{
+		return new TrimmingPipeline(adapters, mismatches, minOverlap, qualityCutoff, minLength, threads, batchSize);
+	}
+
+
+	public TrimmingPipeline withBatchSize(int batchSize)
+	{
+		return new TrimmingPipeline(adapters, mismatches, minOverlap, qualityCutoff, minLength, threads, batchSize);
+	}
+
+
+	/**
+	 * Trims every record of input into output, replacing any existing file. FASTQ input is written as FASTQ, FASTA input as FASTA
+	 *
+	 * @param input FASTA or FASTQ file, optionally gzipped
+	 * @param output trimmed file (uncompressed)
+	 * @return Stats per stage
+	 * @throws IOException if reading or writing fails
+	 * @throws InterruptedException if interrupted while waiting on a stage
+	 */
+	public Stats run(Path input, Path output) throws IOException, InterruptedException
+	{
+		Stats stats = new Stats();
+		BlockingQueue<List<SequenceRecord>> toTrim = new ArrayBlockingQueue<List<SequenceRecord>>(QUEUE_BATCHES);
+		BlockingQueue<Batch> toWrite = new ArrayBlockingQueue<Batch>(QUEUE_BATCHES);
+		ExecutorService stages = Executors.newFixedThreadPool(threads + 1);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		long start = System.nanoTime();
+
+		try(SequenceReader reader = SequenceReader.open(input))
+		{
+			futures.add(stages.submit(() -> write(toWrite, output, stats)));
+			long[] sequence = new long[1]; //batch numbers handed out to the workers, in input order
+			for(int t = 0; t < threads; t++)
+				futures.add(stages.submit(() -> trim(toTrim, toWrite, sequence, stats)));
+
+			while(true)
+			{
+				long busy = System.nanoTime();
+				List<SequenceRecord> batch = new ArrayList<SequenceRecord>(batchSize);
+				for(SequenceRecord record; batch.size() < batchSize && (record = reader.next()) != null; )
+					batch.add(record);
+				stats.add(Stage.READ, batch.size(), System.nanoTime() - busy);
+				if(batch.isEmpty())
+					break;
+				put(toTrim, batch, futures);
+			}
+			for(int t = 0; t < threads; t++)
+				put(toTrim, END, futures);
+
+			awaitAll(futures);
+		}
+		catch(ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if(cause instanceof IOException)
+				throw (IOException) cause;
+			if(cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if(cause instanceof Error)
+				throw (Error) cause;
+			throw new IOException(cause);
+		}
+		finally
+		{
+			stages.shutdownNow();
+		}
+		stats.wallNanos = System.nanoTime() - start;
+		return stats;
+	} //end run()
+
+
+	/**
+	 * Returns the length to which seq is cut by adapter trimming: the start of the leftmost full adapter match, else of the longest partial 3' overlap, else its
+	 * length
+	 *
+	 * @param seq read sequence
+	 * @return int trimmed length
+	 */
+	public int adapterCut(CharSequence seq)
+	{
+		final int LENGTH = seq.length();
+		int cut = LENGTH;
+		for(Oligo adapter : adapters)
+		{
+			String a = adapter.toString();
+			for(int i = 0; i < cut && i + a.length() <= LENGTH; i++)
+			{
+				if(mismatches(seq, i, a, a.length(), mismatches) <= mismatches)
+				{
+					cut = i;
+					break;
+				}
+			}
+		}
+		if(cut < LENGTH)
+			return cut;
+
+		for(int i = Math.max(LENGTH - maxAdapterLength() + 1, 0); i <= LENGTH - minOverlap; i++) //longest overlap first
+		{
+			int overlap = LENGTH - i;
+			for(Oligo adapter : adapters)
+			{
+				String a = adapter.toString();
+				int allowed = mismatches * overlap / a.length();
+				if(overlap < a.length() && mismatches(seq, i, a, overlap, allowed) <= allowed)
+					return i;
+			}
+		}
+		return LENGTH;
+	} //end adapterCut()
+
+
+	/**
+	 * Returns the length to which a read with the given Phred+33 qualities is cut by 3' quality trimming
+	 *
+	 * @param quality quality string
+	 * @param length untrimmed length, at most quality.length()
+	 * @return int trimmed length
+	 */
+	public int qualityCut(CharSequence quality, int length)
+	{
+		if(qualityCutoff == 0)
+			return length;
+		int cut = length;
+		int sum = 0;
+		int best = 0;
+		for(int i = length - 1; i >= 0; i--)
+		{
+			sum += qualityCutoff - (quality.charAt(i) - 33);
+			if(sum < 0)
+				break;
+			if(sum > best)
+			{
+				best = sum;
+				cut = i;
+			}
+		}
+		return cut;
+	} //end qualityCut()
+
+
+//================================| STAGES |==================================//
+	private Void trim(BlockingQueue<List<SequenceRecord>> in, BlockingQueue<Batch> out, long[] sequence, Stats stats) throws InterruptedException
+	{
+		while(true)
+		{
+			List<SequenceRecord> records;
+			long number;
+			synchronized(sequence) //take and number together, so the writer can restore input order
+			{
+				records = in.take();
+				number = sequence[0]++;
+			}
+			if(records == END)
+			{
+				out.put(new Batch(-1, null, 0));
+				return null;
+			}
+
+			long busy = System.nanoTime();
+			StringBuilder text = new StringBuilder(records.size() * 64);
+			int written = 0;
+			for(SequenceRecord record : records)
+			{
+				CharSequence seq = record.getSequence();
+				CharSequence quality = record.getQuality();
+				int cut = adapterCut(seq);
+				if(quality != null)
+					cut = qualityCut(quality, cut);
+				if(cut < minLength)
+					continue;
+
+				text.append(quality == null ? '>' : '@').append(record.getName()).append('\n').append(seq, 0, cut).append('\n');
+				if(quality != null)
+					text.append("+\n").append(quality, 0, cut).append('\n');
+				written++;
+			}
+			stats.add(Stage.TRIM, records.size(), System.nanoTime() - busy);
+			stats.discarded.add(records.size() - written);
+			out.put(new Batch(number, text.toString(), written));
+		}
+	} //end trim()
+
+
+	private Void write(BlockingQueue<Batch> in, Path output, Stats stats) throws IOException, InterruptedException
+	{
+		Map<Long, Batch> early = new HashMap<Long, Batch>(); //batches that arrived before their predecessors
+		long next = 0;
+		int ended = 0;
+		try(Writer writer = Files.newBufferedWriter(output, StandardCharsets.ISO_8859_1))
+		{
+			while(ended < threads)
+			{
+				Batch batch = in.take();
+				if(batch.number == -1)
+				{
+					ended++;
+					continue;
+				}
+				early.put(batch.number, batch);
+				for(Batch ready; (ready = early.remove(next)) != null; next++)
+				{
+					long busy = System.nanoTime();
+					writer.write(ready.text);
+					stats.add(Stage.WRITE, ready.records, System.nanoTime() - busy);
+				}
+			}
+		}
+		return null;
+	} //end write()
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Waits for queue space, failing fast if a stage has already stopped
+	 */
+	private static <T> void put(BlockingQueue<T> queue, T item, List<Future<?>> stages) throws InterruptedException, ExecutionException
+	{
+		while(!queue.offer(item, 100, TimeUnit.MILLISECONDS))
+		{
+			for(Future<?> stage : stages)
+			{
+				if(stage.isDone())
+					stage.get(); //throws the stage's failure
+			}
+		}
+	}
+
+
+	/**
+	 * Waits for every stage to finish, failing fast if any stage fails; a failed worker never sends its end marker, so waiting on the writer alone would hang
+	 */
+	private static void awaitAll(List<Future<?>> stages) throws InterruptedException, ExecutionException
+	{
+		for(Future<?> waiting : stages)
+		{
+			while(true)
+			{
+				try
+				{
+					waiting.get(100, TimeUnit.MILLISECONDS);
+					break;
+				}
+				catch(TimeoutException e)
+				{
+					for(Future<?> stage : stages)
+					{
+						if(stage.isDone())
+							stage.get(); //throws the stage's failure
+					}
+				}
+			}
+		}
+	} //end awaitAll()
+
+
+	/**
+	 * Returns the number of mismatches between seq[from, from + length) and the first 'length' bases of adapter, stopping early once 'limit' is exceeded
+	 */
+	private static int mismatches(CharSequence seq, int from, String adapter, int length, int limit)
+	{
+		int misses = 0;
+		for(int j = 0; j < length && misses <= limit; j++)
+		{
+			if(!SearchOptions.DEFAULT.matches(seq.charAt(from + j), adapter.charAt(j)))
+				misses++;
+		}
+		return misses;
+	}
+
+
+	private int maxAdapterLength()
+	{
+		int max = 0;
+		for(Oligo adapter : adapters)
+			max = Math.max(max, adapter.length());
+		return max;
+	}
+
+
+	private static final class Batch
+	{
+		final long number;
+		final String text;
+		final int records;
+
+		Batch(long number, String text, int records)
+		{
+			this.number = number;
+			this.text = text;
+			this.records = records;
+		}
+	} //end Batch class
+
+
+//=================================| STATS |==================================//
+	/**
+	 * Records handled and nanoseconds spent busy (excluding queue waits) per stage, summed over the stage's threads
+	 */
+	public static final class Stats
+	{
+		private final LongAdder[] records = new LongAdder[Stage.values().length];
+		private final LongAdder[] busyNanos = new LongAdder[Stage.values().length];
+		private final LongAdder discarded = new LongAdder();
+		private volatile long wallNanos;
+
+		Stats()
+		{
+			for(int s = 0; s < records.length; s++)
+			{
+				records[s] = new LongAdder();
+				busyNanos[s] = new LongAdder();
+			}
+		}
+
+
+		void add(Stage stage, long count, long nanos)
+		{
+			records[stage.ordinal()].add(count);
+			busyNanos[stage.ordinal()].add(nanos);
+		}
+
+
+		public long getRecords(Stage stage)
+		{
+			return records[stage.ordinal()].sum();
+		}
+
+
+		public long getBusyNanos(Stage stage)
+		{
+			return busyNanos[stage.ordinal()].sum();
+		}
+
+
+		/**
+		 * Returns the stage's throughput while busy, in records per second of (summed) thread time
+		 *
+		 * @param stage pipeline stage
+		 * @return double records per second
+		 */
+		public double getThroughput(Stage stage)
+		{
+			long nanos = getBusyNanos(stage);
+			return (nanos == 0) ? 0 : getRecords(stage) * 1e9 / nanos;
+		}
+
+
+		/**
+		 * Returns the number of reads dropped for being shorter than minLength after trimming
+		 */
+		public long getDiscarded()
+		{
+			return discarded.sum();
+		}
+
+
+		public long getWallNanos()
+		{
+			return wallNanos;
+		}
+
+
+		@Override
+		public String toString()
+		{
+			StringBuilder s = new StringBuilder("Stats[wall=" + wallNanos / 1000000 + "ms");
+			for(Stage stage : Stage.values())
+				s.append(String.format(", %s=%d records %.0f/s", stage, getRecords(stage), getThroughput(stage)));
+			return s.append(", discarded=").append(getDiscarded()).append(']').toString();
+		}
+	} //end Stats class
+} //end TrimmingPipeline class
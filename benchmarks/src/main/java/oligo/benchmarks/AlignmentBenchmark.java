@@ -0,0 +1,42 @@
+package oligo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import oligo.Oligo;
+import oligo.OligoException;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ *class AlignmentBenchmark: smithWaterman of a 20-nt primer against a template holding one copy of it with its middle base deleted. The cost grows with the
+ *square of the template length, so templates stop at 10 kb
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlignmentBenchmark
+{
+	@Param({"100", "1000", "10000"})
+	public int templateLength;
+
+	@Param({"1", "2"})
+	public int indels;
+
+	private Oligo template;
+	private Oligo primer;
+
+	@Setup
+	public void setUp()
+	{
+		primer = Workloads.primer();
+		template = Workloads.plant(Workloads.template(templateLength), Workloads.deleteMiddle(primer));
+	}
+
+
+	@Benchmark
+	public Oligo smithWaterman() throws OligoException
+	{
+		return template.smithWaterman(primer, indels, indels);
+	}
+} //end AlignmentBenchmark class
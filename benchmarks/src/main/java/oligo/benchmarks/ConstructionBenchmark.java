@@ -0,0 +1,66 @@
+package oligo.benchmarks;
+
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import oligo.Oligo;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ *class ConstructionBenchmark: creating oligos (validation and copying) and the per-base transforms, from primer to megabase lengths
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConstructionBenchmark
+{
+	@Param({"20", "1000", "100000", "1000000"})
+	public int length;
+
+	private String sequence;
+	private Oligo oligo;
+
+	@Setup
+	public void setUp()
+	{
+		oligo = Workloads.template(length);
+		sequence = oligo.toString();
+	}
+
+
+	@Benchmark
+	public Oligo construct()
+	{
+		return new Oligo(sequence);
+	}
+
+
+	@Benchmark
+	public Oligo generateRandomOligo()
+	{
+		return Oligo.generateRandomOligo(length);
+	}
+
+
+	@Benchmark
+	public Oligo complement()
+	{
+		return oligo.complement();
+	}
+
+
+	@Benchmark
+	public Oligo antiparallel()
+	{
+		return oligo.antiparallel();
+	}
+
+
+	@Benchmark
+	public TreeMap<String, Integer> baseContent()
+	{
+		return oligo.baseContent();
+	}
+} //end ConstructionBenchmark class
@@ -0,0 +1,45 @@
+package oligo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import oligo.Oligo;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ *class IndelSearchBenchmark: getAllMatchCoordinates with an indel budget. The template holds one copy of the 20-nt primer with its middle base deleted near its
+ *3' end
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndelSearchBenchmark
+{
+	@Param({"1000", "10000", "100000"})
+	public int templateLength;
+
+	@Param({"0", "2"})
+	public int mismatches;
+
+	@Param({"1", "2"})
+	public int indels;
+
+	private Oligo template;
+	private Oligo primer;
+
+	@Setup
+	public void setUp()
+	{
+		primer = Workloads.primer();
+		template = Workloads.plant(Workloads.template(templateLength), Workloads.deleteMiddle(primer));
+	}
+
+
+	@Benchmark
+	public ArrayList<Integer> getAllMatchCoordinates()
+	{
+		return template.getAllMatchCoordinates(primer, mismatches, indels, indels, 0);
+	}
+} //end IndelSearchBenchmark class
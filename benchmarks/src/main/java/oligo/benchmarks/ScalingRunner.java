@@ -0,0 +1,92 @@
+package oligo.benchmarks;
+
+import java.util.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *class ScalingRunner: runs the selected benchmarks once per thread count with the GC profiler attached, then prints each benchmark's throughput and allocation per
+ *operation at every thread count, with the speedup over the first count
+ *
+ *Arguments: a comma-separated list of thread counts (empty for 1, 2, 4 and the number of processors), followed by any JMH command-line options, i.e.
+ *"1,8 SearchBenchmark -p templateLength=1000000"
+ */
+public final class ScalingRunner
+{
+	private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+	private ScalingRunner()
+	{
+	}
+
+
+	public static void main(String[] args) throws Exception
+	{
+		int[] threads = (args.length > 0 && !args[0].isEmpty()) ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : defaultThreads();
+		CommandLineOptions cmd = new CommandLineOptions(Arrays.copyOfRange(args, Math.min(1, args.length), args.length));
+
+		Map<String, double[]> throughput = new TreeMap<String, double[]>();
+		Map<String, double[]> allocation = new TreeMap<String, double[]>();
+		String unit = "";
+		for(int t = 0; t < threads.length; t++)
+		{
+			Options options = new OptionsBuilder().parent(cmd).threads(threads[t]).addProfiler(GCProfiler.class).build();
+			for(RunResult run : new Runner(options).run())
+			{
+				String label = label(run);
+				Result primary = run.getPrimaryResult();
+				throughput.computeIfAbsent(label, l -> new double[threads.length])[t] = primary.getScore();
+				unit = primary.getScoreUnit();
+				for(Map.Entry<String, Result> secondary : run.getSecondaryResults().entrySet())
+				{
+					if(secondary.getKey().endsWith(ALLOCATION))
+						allocation.computeIfAbsent(label, l -> new double[threads.length])[t] = secondary.getValue().getScore();
+				}
+			}
+		}
+		print(threads, throughput, allocation, unit);
+	} //end main()
+
+
+	private static int[] defaultThreads()
+	{
+		int processors = Runtime.getRuntime().availableProcessors();
+		return Arrays.stream(new int[] {1, 2, 4, processors}).filter(t -> t <= processors).distinct().sorted().toArray();
+	}
+
+
+	/**
+	 * Returns the benchmark's simple name followed by its parameters, i.e. "SearchBenchmark.isFuzzyMatch mismatches=2 templateLength=1000"
+	 */
+	private static String label(RunResult run)
+	{
+		String benchmark = run.getParams().getBenchmark();
+		StringBuilder label = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+		for(String key : run.getParams().getParamsKeys())
+			label.append(' ').append(key).append('=').append(run.getParams().getParam(key));
+		return label.toString();
+	}
+
+
+	private static void print(int[] threads, Map<String, double[]> throughput, Map<String, double[]> allocation, String unit)
+	{
+		System.out.println();
+		System.out.println("Scaling summary: throughput (" + unit + ") and allocation (B/op) by thread count; speedup is relative to " + threads[0] + " thread(s)");
+		for(Map.Entry<String, double[]> entry : throughput.entrySet())
+		{
+			double[] scores = entry.getValue();
+			double[] bytes = allocation.getOrDefault(entry.getKey(), new double[threads.length]);
+			System.out.println(entry.getKey());
+			for(int t = 0; t < threads.length; t++)
+			{
+				System.out.printf(Locale.ROOT, "  threads=%-3d %14.3f %s  x%.2f  %12.1f B/op%n", threads[t], scores[t], unit, (scores[0] > 0) ? scores[t] / scores[0] : 0.0,
+						bytes[t]);
+			}
+		}
+	} //end print()
+} //end ScalingRunner class
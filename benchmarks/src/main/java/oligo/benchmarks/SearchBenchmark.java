@@ -0,0 +1,49 @@
+package oligo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import oligo.Oligo;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ *class SearchBenchmark: Hamming-distance searches for a 20-nt primer. The template holds one copy of the primer with 'mismatches' substitutions near its 3' end,
+ *so isFuzzyMatch scans almost the whole template and getAllMatchCoordinates finds exactly that copy
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark
+{
+	@Param({"1000", "100000", "1000000"})
+	public int templateLength;
+
+	@Param({"0", "2"})
+	public int mismatches;
+
+	private Oligo template;
+	private Oligo primer;
+
+	@Setup
+	public void setUp()
+	{
+		primer = Workloads.primer();
+		template = Workloads.plant(Workloads.template(templateLength), Workloads.substitute(primer, mismatches));
+	}
+
+
+	@Benchmark
+	public boolean isFuzzyMatch()
+	{
+		return template.isFuzzyMatch(primer, mismatches);
+	}
+
+
+	@Benchmark
+	public ArrayList<Integer> getAllMatchCoordinates()
+	{
+		return template.getAllMatchCoordinates(primer, mismatches);
+	}
+} //end SearchBenchmark class
@@ -0,0 +1,345 @@
+package oligo.benchmarks;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import oligo.Mutagenesis;
+import oligo.Oligo;
+import oligo.OligoGenerator;
+
+/**
+ *class WorkloadReplay: end-to-end macro benchmark. It builds a seeded synthetic genome, primer panel and read set (genome fragments with sequencing errors,
+ *followed by an adapter), then replays a weighted mix of operations through the public Oligo API on a fixed number of threads. Each operation processes one batch
+ *of reads:
+ *  scan     - every primer of the panel is searched in every read with getAllMatchCoordinates
+ *  trim     - the adapter and everything after it is excised from every read with tryExciseRightFrom
+ *  assemble - every read is ligated between two vector arms and a barcode is inserted after the left arm
+ *
+ *The schedule of operations and batches is drawn from the seed, so runs with the same options replay the same work. The report gives reads/sec, p50 and p99
+ *latency and bytes allocated per operation (from the per-thread allocation counters); it can be saved as a baseline, and a later run compared against it fails
+ *(exit status 1) when any metric regresses by more than the threshold
+ *
+ *Options (--name=value): seed, genome, reads, readLength, batch, panel, mismatches, threads, ops, warmup, mix (i.e. "scan=5,trim=4,assemble=1"), baseline
+ *(file to compare against), saveBaseline (file to write) and threshold (fraction, i.e. 0.10)
+ */
+public final class WorkloadReplay
+{
+	private static final String[] OPERATIONS = {"scan", "trim", "assemble"};
+	private static final Map<String, String> DEFAULTS = new LinkedHashMap<String, String>();
+	private static final String ADAPTER = "agatcggaagagcacacgtctgaactccagtcac"; //Illumina TruSeq read 1 adapter
+	private static final Oligo LEFT_ARM = new Oligo("gaattcgagctcggtacccggggatcctctagagtcgacctgcag");
+	private static final Oligo RIGHT_ARM = new Oligo("aagcttggcactggccgtcgttttacaacgtcgtgactgggaaaac");
+	private static final Oligo BARCODE = new Oligo("acgtacgtac");
+
+	static
+	{
+		DEFAULTS.put("seed", "42");
+		DEFAULTS.put("genome", "1000000");
+		DEFAULTS.put("reads", "20000");
+		DEFAULTS.put("readLength", "150");
+		DEFAULTS.put("batch", "100");
+		DEFAULTS.put("panel", "24");
+		DEFAULTS.put("mismatches", "2");
+		DEFAULTS.put("threads", "4");
+		DEFAULTS.put("ops", "2000");
+		DEFAULTS.put("warmup", "500");
+		DEFAULTS.put("mix", "scan=5,trim=4,assemble=1");
+	}
+
+	private final Map<String, String> options;
+	private final Oligo adapter = new Oligo(ADAPTER);
+	private final List<Oligo> panel = new ArrayList<Oligo>();
+	private final List<List<Oligo>> batches = new ArrayList<List<Oligo>>();
+	private final int mismatches;
+	private final LongAdder sink = new LongAdder(); //consumes every result, so no operation is optimized away
+
+	private WorkloadReplay(Map<String, String> options)
+	{
+		this.options = options;
+		mismatches = intOption("mismatches");
+		long seed = Long.parseLong(options.get("seed"));
+		Oligo genome = new OligoGenerator(seed).next(intOption("genome"));
+		String g = genome.toString();
+		SplittableRandom random = new SplittableRandom(seed);
+
+		for(int p = 0; p < intOption("panel"); p++)
+		{
+			int at = random.nextInt(g.length() - Workloads.PRIMER_LENGTH);
+			panel.add(new Oligo(g.substring(at, at + Workloads.PRIMER_LENGTH)));
+		}
+
+		final int READ_LENGTH = intOption("readLength");
+		Mutagenesis errors = new Mutagenesis(seed, 0.01, 0.001, 0.001);
+		OligoGenerator filler = new OligoGenerator(seed + 1);
+		List<Oligo> batch = new ArrayList<Oligo>();
+		for(int r = 0; r < intOption("reads"); r++)
+		{
+			int insert = READ_LENGTH / 2 + random.nextInt(READ_LENGTH / 2 + 1); //inserts shorter than the read run into the adapter
+			int at = random.nextInt(g.length() - insert);
+			String read = errors.mutate(new Oligo(g.substring(at, at + insert))).toString() + ADAPTER;
+			if(read.length() < READ_LENGTH)
+				read += filler.next(READ_LENGTH - read.length()).toString();
+			batch.add(new Oligo(read.substring(0, READ_LENGTH)));
+			if(batch.size() == intOption("batch"))
+			{
+				batches.add(batch);
+				batch = new ArrayList<Oligo>();
+			}
+		}
+		if(!batch.isEmpty())
+			batches.add(batch);
+	} //end WorkloadReplay()
+
+
+	public static void main(String[] args) throws Exception
+	{
+		Map<String, String> options = new LinkedHashMap<String, String>(DEFAULTS);
+		for(String arg : args)
+		{
+			int eq = arg.indexOf('=');
+			if(!arg.startsWith("--") || eq < 0)
+				throw new IllegalArgumentException("Expected --name=value: " + arg);
+			options.put(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+
+		WorkloadReplay replay = new WorkloadReplay(options);
+		long seed = Long.parseLong(options.get("seed"));
+		replay.run(replay.schedule(seed + 2, replay.intOption("warmup")));
+		Report report = replay.run(replay.schedule(seed + 3, replay.intOption("ops")));
+		report.print(System.out);
+
+		Properties measured = report.toProperties(options);
+		if(options.containsKey("saveBaseline"))
+		{
+			try(OutputStream out = Files.newOutputStream(Paths.get(options.get("saveBaseline"))))
+			{
+				measured.store(out, "WorkloadReplay baseline");
+			}
+			System.out.println("Baseline saved to " + options.get("saveBaseline"));
+		}
+		if(options.containsKey("baseline"))
+		{
+			Properties baseline = new Properties();
+			try(InputStream in = Files.newInputStream(Paths.get(options.get("baseline"))))
+			{
+				baseline.load(in);
+			}
+			double threshold = Double.parseDouble(options.getOrDefault("threshold", "0.10"));
+			if(!compare(baseline, measured, threshold, System.out))
+				System.exit(1);
+		}
+	} //end main()
+
+
+//================================| REPLAY |==================================//
+	/**
+	 * Draws 'count' operations by the mix weights; each is encoded as (operation index << 32 | batch index)
+	 */
+	private long[] schedule(long seed, int count)
+	{
+		int[] weights = new int[OPERATIONS.length];
+		for(String entry : options.get("mix").split(","))
+		{
+			String[] pair = entry.split("=");
+			int op = Arrays.asList(OPERATIONS).indexOf(pair[0].trim());
+			if(op < 0 || pair.length != 2)
+				throw new IllegalArgumentException("Unknown operation in mix: " + entry);
+			weights[op] = Integer.parseInt(pair[1].trim());
+		}
+		int total = Arrays.stream(weights).sum();
+		if(total <= 0)
+			throw new IllegalArgumentException("The mix must give some operation a positive weight");
+
+		SplittableRandom random = new SplittableRandom(seed);
+		long[] schedule = new long[count];
+		for(int i = 0; i < count; i++)
+		{
+			int pick = random.nextInt(total);
+			int op = 0;
+			for(; pick >= weights[op]; op++)
+				pick -= weights[op];
+			schedule[i] = (long) op << 32 | random.nextInt(batches.size());
+		}
+		return schedule;
+	} //end schedule()
+
+
+	/**
+	 * Replays the schedule on a fixed pool of threads, which take operations in schedule order
+	 */
+	private Report run(long[] schedule) throws InterruptedException, ExecutionException
+	{
+		final int THREADS = intOption("threads");
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long[] latencies = new long[schedule.length];
+		long[] allocated = new long[schedule.length];
+		AtomicInteger next = new AtomicInteger();
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try
+		{
+			List<Callable<Void>> workers = Collections.nCopies(THREADS, () ->
+			{
+				for(int i = next.getAndIncrement(); i < schedule.length; i = next.getAndIncrement())
+				{
+					long bytes = threadBean.getCurrentThreadAllocatedBytes();
+					long start = System.nanoTime();
+					execute((int) (schedule[i] >>> 32), batches.get((int) schedule[i]));
+					latencies[i] = System.nanoTime() - start;
+					allocated[i] = threadBean.getCurrentThreadAllocatedBytes() - bytes;
+				}
+				return null;
+			});
+			long start = System.nanoTime();
+			for(Future<Void> worker : pool.invokeAll(workers))
+				worker.get();
+			return new Report(schedule, latencies, allocated, System.nanoTime() - start, batches);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	} //end run()
+
+
+	private void execute(int op, List<Oligo> batch)
+	{
+		long result = 0;
+		for(Oligo read : batch)
+		{
+			switch(OPERATIONS[op])
+			{
+				case "scan":
+					for(Oligo primer : panel)
+						result += read.getAllMatchCoordinates(primer, mismatches).size();
+					break;
+				case "trim":
+					Oligo trimmed = read.tryExciseRightFrom(adapter, mismatches);
+					result += (trimmed != null) ? trimmed.length() : read.length();
+					break;
+				default:
+					result += LEFT_ARM.ligate(read).ligate(RIGHT_ARM).insert(BARCODE, LEFT_ARM.length()).length();
+			}
+		}
+		sink.add(result);
+	} //end execute()
+
+
+	private int intOption(String name)
+	{
+		return Integer.parseInt(options.get(name));
+	}
+
+
+//================================| REPORTS |=================================//
+	/**
+	 * Compares measured metrics with a baseline recorded under the same options and prints each; returns false if any regressed by more than threshold
+	 */
+	static boolean compare(Properties baseline, Properties measured, double threshold, PrintStream out)
+	{
+		for(String key : measured.stringPropertyNames())
+		{
+			if(key.startsWith("option.") && !measured.getProperty(key).equals(baseline.getProperty(key)))
+			{
+				out.println("Baseline was recorded with " + key + "=" + baseline.getProperty(key) + ", not " + measured.getProperty(key) + "; not comparable");
+				return false;
+			}
+		}
+
+		boolean passed = true;
+		out.printf(Locale.ROOT, "%nComparison with baseline (threshold %.0f%%)%n", threshold * 100);
+		for(String key : new TreeSet<String>(baseline.stringPropertyNames()))
+		{
+			if(key.startsWith("option.") || measured.getProperty(key) == null)
+				continue;
+			double base = Double.parseDouble(baseline.getProperty(key));
+			double current = Double.parseDouble(measured.getProperty(key));
+			boolean higherIsBetter = key.endsWith("readsPerSec");
+			double regression = (base == 0) ? 0 : (higherIsBetter ? base - current : current - base) / base;
+			boolean failed = regression > threshold;
+			passed &= !failed;
+			out.printf(Locale.ROOT, "  %-26s %14.1f -> %14.1f  %+7.1f%%  %s%n", key, base, current, (base == 0) ? 0.0 : 100 * (current - base) / base, failed ? "REGRESSION" : "ok");
+		}
+		out.println(passed ? "PASSED" : "FAILED");
+		return passed;
+	} //end compare()
+
+
+	/**
+	 * Per-operation and overall metrics of one replay
+	 */
+	private static final class Report
+	{
+		private final Map<String, double[]> metrics = new LinkedHashMap<String, double[]>(); //name -> {ops, reads/sec, p50 us, p99 us, bytes/op}
+
+		Report(long[] schedule, long[] latencies, long[] allocated, long elapsed, List<List<Oligo>> batches)
+		{
+			for(int op = -1; op < OPERATIONS.length; op++)
+			{
+				List<Integer> selected = new ArrayList<Integer>();
+				for(int i = 0; i < schedule.length; i++)
+				{
+					if(op == -1 || (schedule[i] >>> 32) == op)
+						selected.add(i);
+				}
+				if(selected.isEmpty())
+					continue;
+
+				long[] times = new long[selected.size()];
+				long reads = 0;
+				long bytes = 0;
+				for(int s = 0; s < times.length; s++)
+				{
+					int i = selected.get(s);
+					times[s] = latencies[i];
+					reads += batches.get((int) schedule[i]).size();
+					bytes += allocated[i];
+				}
+				Arrays.sort(times);
+				metrics.put((op == -1) ? "all" : OPERATIONS[op], new double[] {times.length, reads * 1e9 / elapsed, percentile(times, 0.50) / 1e3,
+						percentile(times, 0.99) / 1e3, (double) bytes / times.length});
+			}
+		}
+
+
+		private static long percentile(long[] sorted, double p)
+		{
+			return sorted[Math.max((int) Math.ceil(p * sorted.length) - 1, 0)];
+		}
+
+
+		void print(PrintStream out)
+		{
+			out.printf(Locale.ROOT, "%-10s %8s %14s %12s %12s %14s%n", "operation", "ops", "reads/sec", "p50 (us)", "p99 (us)", "bytes/op");
+			for(Map.Entry<String, double[]> entry : metrics.entrySet())
+			{
+				double[] m = entry.getValue();
+				out.printf(Locale.ROOT, "%-10s %8d %14.1f %12.1f %12.1f %14.1f%n", entry.getKey(), (long) m[0], m[1], m[2], m[3], m[4]);
+			}
+		}
+
+
+		Properties toProperties(Map<String, String> options)
+		{
+			Properties properties = new Properties();
+			for(Map.Entry<String, String> option : options.entrySet())
+			{
+				if(DEFAULTS.containsKey(option.getKey()))
+					properties.setProperty("option." + option.getKey(), option.getValue());
+			}
+			for(Map.Entry<String, double[]> entry : metrics.entrySet())
+			{
+				double[] m = entry.getValue();
+				properties.setProperty(entry.getKey() + ".readsPerSec", Double.toString(m[1]));
+				properties.setProperty(entry.getKey() + ".p50Micros", Double.toString(m[2]));
+				properties.setProperty(entry.getKey() + ".p99Micros", Double.toString(m[3]));
+				properties.setProperty(entry.getKey() + ".bytesPerOp", Double.toString(m[4]));
+			}
+			return properties;
+		}
+	} //end Report class
+} //end WorkloadReplay class
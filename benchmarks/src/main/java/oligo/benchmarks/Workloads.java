@@ -0,0 +1,69 @@
+package oligo.benchmarks;
+
+import oligo.Oligo;
+import oligo.OligoGenerator;
+
+/**
+ *class Workloads: seeded inputs shared by the benchmarks, so every run and every thread count measures the same sequences
+ */
+final class Workloads
+{
+	static final long SEED = 42;
+	static final int PRIMER_LENGTH = 20;
+
+	private Workloads()
+	{
+	}
+
+
+	/**
+	 * Returns a uniformly random template of the given length
+	 */
+	static Oligo template(int length)
+	{
+		return new OligoGenerator(SEED).next(length);
+	}
+
+
+	/**
+	 * Returns a primer drawn independently of template(), so it only matches where it is planted
+	 */
+	static Oligo primer()
+	{
+		return new OligoGenerator(SEED + 1).next(PRIMER_LENGTH);
+	}
+
+
+	/**
+	 * Returns template with one copy of site written over it near the 3' end, so searches scan almost the whole template before the hit
+	 */
+	static Oligo plant(Oligo template, Oligo site)
+	{
+		String t = template.toString();
+		int at = Math.max(t.length() - 2 * site.length(), 0);
+		int end = Math.min(at + site.length(), t.length());
+		return new Oligo(t.substring(0, at) + site.toString().substring(0, end - at) + t.substring(end));
+	}
+
+
+	/**
+	 * Returns primer with its first 'count' odd positions substituted
+	 */
+	static Oligo substitute(Oligo primer, int count)
+	{
+		char[] bases = primer.toCharArray();
+		for(int i = 0; i < count; i++)
+			bases[2 * i + 1] = (bases[2 * i + 1] == 'a') ? 'c' : 'a';
+		return new Oligo(new String(bases));
+	}
+
+
+	/**
+	 * Returns primer with its middle base deleted
+	 */
+	static Oligo deleteMiddle(Oligo primer)
+	{
+		String p = primer.toString();
+		return new Oligo(p.substring(0, p.length() / 2) + p.substring(p.length() / 2 + 1));
+	}
+} //end Workloads class
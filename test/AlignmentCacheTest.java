@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AlignmentCacheTest
+{
+	@AfterEach
+	void uninstall()
+	{
+		Oligo.setAlignmentCache(null);
+	}
+
+
+	@Test
+	void repeatedAlignmentsHitTheCache() throws OligoException
+	{
+		AlignmentCache cache = new AlignmentCache(100);
+		Oligo.setAlignmentCache(cache);
+		Oligo source = new Oligo("GGACCTTAGTCAAGAGG");
+		Oligo query = new Oligo("ACCTAGTCAAGA");
+
+		Oligo key = source.smithWaterman(query, 1, 0);
+		assertEquals(1, cache.stats().missCount());
+		assertEquals(key, source.smithWaterman(query, 1, 0));
+		assertEquals(key, source.getFuzzySWkey(query, 0, 1, 0, 12));
+		assertNull(source.trySmithWaterman(query, 0, 0)); //one entry serves every (ins, del) limit
+		assertEquals(1, cache.stats().missCount());
+		assertEquals(3, cache.stats().hitCount());
+		assertEquals(1, cache.size());
+	}
+
+
+	@Test
+	void optionsThatChangeTheAlignmentGetTheirOwnEntries()
+	{
+		AlignmentCache cache = new AlignmentCache(100);
+		Oligo.setAlignmentCache(cache);
+		Oligo source = new Oligo("GGACCTTAGTCAAGAGG");
+		Oligo query = new Oligo("ACCTAGTCAAGA");
+
+		source.trySmithWaterman(query, 1, 0);
+		source.trySmithWaterman(query, 1, 0, SearchOptions.DEFAULT.withCaseSensitive(true));
+		source.trySmithWaterman(query, 1, 0, SearchOptions.DEFAULT.withWildcards(""));
+		source.trySmithWaterman(query, 1, 0, SearchOptions.DEFAULT.withScoring(2.0, -1.0, 3.0, 0.5));
+		source.trySmithWaterman(query.toLowerCase(), 1, 0);
+		assertEquals(5, cache.size());
+		assertEquals(0, cache.stats().hitCount());
+
+		source.trySmithWaterman(query, 1, 0, SearchOptions.DEFAULT.withCaseSensitive(true));
+		assertEquals(1, cache.stats().hitCount());
+	}
+
+
+	@Test
+	void leastRecentlyUsedAlignmentsAreEvicted()
+	{
+		AlignmentCache cache = new AlignmentCache(2);
+		Oligo.setAlignmentCache(cache);
+		Oligo source = new Oligo("ACGTACGTACGTTTGCA");
+
+		for(String query : List.of("ACGT", "CGTA", "GTAC", "TACG", "TTGC"))
+			source.trySmithWaterman(new Oligo(query), 0, 0);
+		assertTrue(cache.size() <= 2, cache.toString());
+		assertTrue(cache.stats().evictionCount() >= 3, cache.toString());
+
+		cache.invalidateAll();
+		assertEquals(0, cache.size());
+	}
+
+
+	@Test
+	void indelSearchesBypassTheCache() throws OligoException
+	{
+		AlignmentCache cache = new AlignmentCache(100);
+		Oligo.setAlignmentCache(cache);
+		Oligo source = new Oligo("AAAAGGACCTTAGTCAAGAGGAAAAGGACCTTAGTCAAGAGG");
+		Oligo query = new Oligo("ACCTAGTCAAGA");
+
+		assertEquals(List.of(6, 27), source.getAllMatchCoordinates(query, 0, 1, 0, 12));
+		assertEquals(List.of(6, 27), source.getAllMatchCoordinatesParallel(query, 0, 1, 0, 12));
+		assertEquals(6, source.getFirstMatchCoordinate(query, 0, 1, 0, 12));
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.stats().requestCount());
+	}
+} //end AlignmentCacheTest class
@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+
+class BatchAlignerTest
+{
+	@Test
+	void resultsFollowTheOrderOfTheJobs() throws Exception
+	{
+		Random random = new Random(27);
+		List<BatchAligner.Job> jobs = new ArrayList<BatchAligner.Job>();
+		List<Oligo> expected = new ArrayList<Oligo>();
+		for(int t = 0; t < 200; t++)
+		{
+			Oligo source = new Oligo(sequence(random, 20 + random.nextInt(40)));
+			Oligo query = new Oligo(sequence(random, 6 + random.nextInt(6)));
+			jobs.add(new BatchAligner.Job(source, query, 2, 1, 1));
+			expected.add(source.tryGetFuzzySWkey(query, 2, 1, 1, 0));
+		}
+
+		List<CompletableFuture<Oligo>> results;
+		try(BatchAligner aligner = new BatchAligner(8))
+		{
+			results = aligner.submitAll(jobs);
+		}
+		for(int t = 0; t < jobs.size(); t++)
+		{
+			assertTrue(results.get(t).isDone()); //close() waits for every submitted job
+			if(expected.get(t) == null)
+			{
+				ExecutionException e = assertThrows(ExecutionException.class, results.get(t)::get);
+				assertInstanceOf(OligoException.class, e.getCause());
+			}
+			else
+				assertEquals(expected.get(t), results.get(t).get(), "job " + t);
+		}
+	}
+
+
+	@Test
+	void submitBlocksWhileMaxInFlightJobsArePending() throws Exception
+	{
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		CountDownLatch gate = new CountDownLatch(1);
+		executor.execute(() -> awaitUninterruptibly(gate)); //holds the only worker so submitted jobs queue up
+		BatchAligner.Job job = new BatchAligner.Job(new Oligo("GGACCTTAGTCAAGAGG"), new Oligo("ACCTAGTCAAGA"), 0, 1, 0);
+		try(BatchAligner aligner = new BatchAligner(executor, 2))
+		{
+			CompletableFuture<Oligo> first = aligner.submit(job);
+			CompletableFuture<Oligo> second = aligner.submit(job);
+			CompletableFuture<CompletableFuture<Oligo>> third = CompletableFuture.supplyAsync(() -> submitUninterruptibly(aligner, job));
+
+			Thread.sleep(200);
+			assertFalse(third.isDone(), "third job was accepted while two were pending");
+			assertFalse(first.isDone() || second.isDone());
+
+			gate.countDown();
+			assertEquals("ACCTnAGTCAAGA", third.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS).toString());
+			assertEquals("ACCTnAGTCAAGA", first.get().toString());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+
+	@Test
+	void rejectsAlignmentsTooLargeForOneScoresMatrix()
+	{
+		char[] bases = new char[50000];
+		Arrays.fill(bases, 'A');
+		Oligo big = new Oligo(new String(bases));
+
+		assertThrows(IllegalArgumentException.class, () -> big.trySmithWaterman(big, 0, 0)); //50001^2 cells overflow an int
+		assertThrows(IllegalArgumentException.class, () -> new AlignmentScratch().matrix((long) Integer.MAX_VALUE + 1));
+		assertEquals(0, new AlignmentScratch().matrix(0).length);
+	}
+
+
+//================================| HELPERS |=================================//
+	private static String sequence(Random random, int length)
+	{
+		StringBuilder seq = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			seq.append("ACGT".charAt(random.nextInt(4)));
+		return seq.toString();
+	}
+
+
+	private static void awaitUninterruptibly(CountDownLatch latch)
+	{
+		try
+		{
+			latch.await();
+		}
+		catch(InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private static CompletableFuture<Oligo> submitUninterruptibly(BatchAligner aligner, BatchAligner.Job job)
+	{
+		try
+		{
+			return aligner.submit(job);
+		}
+		catch(InterruptedException e)
+		{
+			throw new CompletionException(e);
+		}
+	}
+} //end BatchAlignerTest class
@@ -0,0 +1,199 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DemultiplexerTest
+{
+	@TempDir
+	Path dir;
+
+	@Test
+	void assignsLikeABruteForceHammingScan()
+	{
+		Random random = new Random(40);
+		for(int round = 0; round < 30; round++)
+		{
+			int length = 3 + random.nextInt(6);
+			int mismatches = random.nextInt(3);
+			List<Oligo> barcodes = barcodes(random, 2 + random.nextInt(12), length);
+			Demultiplexer demultiplexer = new Demultiplexer(barcodes, mismatches);
+
+			for(int r = 0; r < 2000; r++)
+			{
+				String read = read(random, barcodes.get(random.nextInt(barcodes.size())).toString());
+				assertEquals(bruteForce(barcodes, mismatches, read), demultiplexer.assign(read), "barcodes " + barcodes + ", mismatches " + mismatches + ", read " + read);
+			}
+		}
+	}
+
+
+	@Test
+	void reportsEveryTiedBarcodePair()
+	{
+		Random random = new Random(41);
+		for(int round = 0; round < 30; round++)
+		{
+			int length = 3 + random.nextInt(4);
+			int mismatches = 1 + random.nextInt(2);
+			List<Oligo> barcodes = barcodes(random, 2 + random.nextInt(8), length);
+
+			Set<List<Integer>> expected = new HashSet<List<Integer>>();
+			for(int code = 0; code < 1 << (2 * length); code++) //every sequence of this length
+			{
+				StringBuilder seq = new StringBuilder();
+				for(int i = 0; i < length; i++)
+					seq.append("ACGT".charAt((code >>> (2 * i)) & 3));
+				List<Integer> nearest = nearest(barcodes, mismatches, seq.toString());
+				for(int i = 0; i < nearest.size(); i++)
+				{
+					for(int j = i + 1; j < nearest.size(); j++)
+						expected.add(List.of(nearest.get(i), nearest.get(j)));
+				}
+			}
+
+			Set<List<Integer>> actual = new HashSet<List<Integer>>();
+			for(int[] pair : new Demultiplexer(barcodes, mismatches).getCollisions())
+				actual.add(List.of(pair[0], pair[1]));
+			assertEquals(expected, actual, "barcodes " + barcodes + ", mismatches " + mismatches);
+		}
+	}
+
+
+	@Test
+	void demultiplexCountsMatchAssign() throws Exception
+	{
+		Random random = new Random(42);
+		List<Oligo> barcodes = barcodes(random, 8, 6);
+		Demultiplexer demultiplexer = new Demultiplexer(barcodes, 1);
+		StringBuilder text = new StringBuilder();
+		long[] expected = new long[barcodes.size() + 2];
+		for(int r = 0; r < 5000; r++)
+		{
+			String read = read(random, barcodes.get(random.nextInt(barcodes.size())).toString()) + "ACGTACGT";
+			int assigned = demultiplexer.assign(read);
+			expected[(assigned >= 0) ? assigned : (assigned == Demultiplexer.NO_MATCH) ? barcodes.size() : barcodes.size() + 1]++;
+			text.append(">r").append(r).append('\n').append(read).append('\n');
+		}
+		Path fasta = Files.write(dir.resolve("reads.fa"), text.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try(SequenceReader reader = SequenceReader.open(fasta))
+		{
+			long[] consumed = new long[1];
+			long[] counts = demultiplexer.demultiplex(reader, 64, executor, 3, (batch, assignments) ->
+			{
+				assertEquals(batch.size(), assignments.length);
+				synchronized(consumed)
+				{
+					consumed[0] += batch.size();
+				}
+			});
+			assertArrayEquals(expected, counts);
+			assertEquals(5000, consumed[0]);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+
+	@Test
+	void acceptsAllTBarcodesOfMaximumLength()
+	{
+		String allT = "T".repeat(Demultiplexer.MAX_BARCODE_LENGTH); //packs to -1
+		String allA = "A".repeat(Demultiplexer.MAX_BARCODE_LENGTH);
+		Demultiplexer demultiplexer = new Demultiplexer(List.of(new Oligo(allA), new Oligo(allT)), 1);
+
+		assertEquals(1, demultiplexer.assign(allT + "ACGT"));
+		assertEquals(1, demultiplexer.assign(allT.toLowerCase()));
+		assertEquals(1, demultiplexer.assign("G" + allT.substring(1)));
+		assertEquals(0, demultiplexer.assign(allA));
+		assertEquals(Demultiplexer.NO_MATCH, demultiplexer.assign("GG" + allT.substring(2)));
+		assertEquals(1, demultiplexer.assign("N" + allT.substring(1))); //wildcard: assigned by scan
+	}
+
+
+	@Test
+	void rejectsInvalidBarcodeSets()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new Demultiplexer(List.of(), 1));
+		assertThrows(IllegalArgumentException.class, () -> new Demultiplexer(List.of(new Oligo("ACGT"), new Oligo("ACG")), 1));
+		assertThrows(IllegalArgumentException.class, () -> new Demultiplexer(List.of(new Oligo("ACNT")), 1));
+		assertThrows(IllegalArgumentException.class, () -> new Demultiplexer(List.of(new Oligo("ACGT")), -1));
+	}
+
+
+//================================| HELPERS |=================================//
+	private static List<Oligo> barcodes(Random random, int count, int length)
+	{
+		List<Oligo> barcodes = new ArrayList<Oligo>();
+		for(int b = 0; b < count; b++)
+		{
+			StringBuilder barcode = new StringBuilder();
+			for(int i = 0; i < length; i++)
+				barcode.append("ACGT".charAt(random.nextInt(4)));
+			barcodes.add(new Oligo(barcode.toString()));
+		}
+		return barcodes;
+	}
+
+
+	/**
+	 * Returns a barcode with a few substitutions, lowercase bases or wildcards, followed by a short tail; occasionally shorter than the barcode
+	 */
+	private static String read(Random random, String barcode)
+	{
+		char[] read = barcode.toCharArray();
+		for(int s = random.nextInt(4); s > 0; s--)
+		{
+			int i = random.nextInt(read.length);
+			read[i] = "ACGTacgtNR".charAt(random.nextInt(10));
+		}
+		String tail = "TTGCA".substring(random.nextInt(5));
+		return (random.nextInt(20) == 0) ? new String(read, 0, read.length - 1) : new String(read) + tail;
+	}
+
+
+	/**
+	 * Returns the barcodes at the smallest Hamming distance from the read's leading bases, if that distance is within 'mismatches'; wildcards count as mismatches
+	 */
+	private static List<Integer> nearest(List<Oligo> barcodes, int mismatches, String read)
+	{
+		List<Integer> nearest = new ArrayList<Integer>();
+		int best = mismatches;
+		for(int b = 0; b < barcodes.size(); b++)
+		{
+			String barcode = barcodes.get(b).toString();
+			int distance = 0;
+			for(int i = 0; i < barcode.length(); i++)
+			{
+				if(Character.toUpperCase(read.charAt(i)) != Character.toUpperCase(barcode.charAt(i)))
+					distance++;
+			}
+			if(distance < best)
+			{
+				nearest.clear();
+				best = distance;
+			}
+			if(distance == best)
+				nearest.add(b);
+		}
+		return nearest;
+	}
+
+
+	private static int bruteForce(List<Oligo> barcodes, int mismatches, String read)
+	{
+		if(read.length() < barcodes.get(0).length())
+			return Demultiplexer.NO_MATCH;
+		List<Integer> nearest = nearest(barcodes, mismatches, read);
+		return nearest.isEmpty() ? Demultiplexer.NO_MATCH : (nearest.size() == 1) ? nearest.get(0) : Demultiplexer.AMBIGUOUS;
+	}
+} //end DemultiplexerTest class
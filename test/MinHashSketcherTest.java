@@ -0,0 +1,164 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.BiPredicate;
+import org.junit.jupiter.api.Test;
+
+class MinHashSketcherTest
+{
+	@Test
+	void sketchesIgnoreCaseAndStrand()
+	{
+		MinHashSketcher sketcher = new MinHashSketcher(8, 128);
+		Oligo oligo = randomOligo(new Random(44), 200);
+
+		assertArrayEquals(sketcher.sketch(oligo), sketcher.sketch(oligo.toLowerCase()));
+		assertArrayEquals(sketcher.sketch(oligo), sketcher.sketch(oligo.antiparallel()));
+		assertFalse(Arrays.equals(sketcher.withCanonical(false).sketch(oligo), sketcher.withCanonical(false).sketch(oligo.antiparallel())));
+		assertEquals(1.0, MinHashSketcher.jaccard(sketcher.sketch(oligo), sketcher.sketch(oligo)));
+	}
+
+
+	@Test
+	void sketchesWithoutKmersAreEmpty()
+	{
+		long[] sketch = new MinHashSketcher(8, 16).sketch("ACGTNACGTRYACG");
+
+		for(long slot : sketch)
+			assertEquals(MinHashSketcher.EMPTY, slot);
+		assertEquals(0.0, MinHashSketcher.jaccard(sketch, sketch));
+	}
+
+
+	@Test
+	void jaccardEstimatesTheKmerJaccard()
+	{
+		Random random = new Random(45);
+		MinHashSketcher sketcher = new MinHashSketcher(10, 1024).withCanonical(false);
+		for(int t = 0; t < 20; t++)
+		{
+			String a = randomOligo(random, 400).toString();
+			StringBuilder b = new StringBuilder(a);
+			for(int s = random.nextInt(30); s > 0; s--)
+				b.setCharAt(random.nextInt(b.length()), "ACGT".charAt(random.nextInt(4)));
+
+			Set<String> kmersA = kmers(a, 10);
+			Set<String> kmersB = kmers(b.toString(), 10);
+			Set<String> union = new HashSet<String>(kmersA);
+			union.addAll(kmersB);
+			kmersA.retainAll(kmersB);
+			double exact = (double) kmersA.size() / union.size();
+			assertEquals(exact, MinHashSketcher.jaccard(sketcher.sketch(a), sketcher.sketch(b)), 0.1, "substituted read " + t);
+		}
+	}
+
+
+	@Test
+	void candidatePairsShareABand()
+	{
+		Random random = new Random(46);
+		MinHashSketcher sketcher = new MinHashSketcher(6, 32);
+		List<Oligo> library = library(random, 60, 10);
+		List<long[]> sketches = sketcher.sketchAll(library);
+
+		List<String> expected = new ArrayList<String>();
+		for(int i = 0; i < sketches.size(); i++)
+		{
+			for(int j = i + 1; j < sketches.size(); j++)
+			{
+				if(shareBand(sketches.get(i), sketches.get(j), 8))
+					expected.add(i + "," + j);
+			}
+		}
+		List<String> actual = new ArrayList<String>();
+		for(int[] pair : sketcher.candidatePairs(sketches, 8))
+			actual.add(pair[0] + "," + pair[1]);
+		assertEquals(expected, actual);
+	}
+
+
+	@Test
+	void clustersAreComponentsOfVerifiedCandidates()
+	{
+		Random random = new Random(47);
+		MinHashSketcher sketcher = new MinHashSketcher(6, 32);
+		List<Oligo> library = library(random, 300, 40);
+		List<long[]> sketches = sketcher.sketchAll(library);
+		BiPredicate<Oligo, Oligo> verify = (a, b) -> a.isFuzzyMatch(b, 6) || b.isFuzzyMatch(a, 6);
+
+		int[] parent = new int[library.size()];
+		for(int i = 0; i < parent.length; i++)
+			parent[i] = i;
+		for(int[] pair : sketcher.candidatePairs(sketches, 8))
+		{
+			if(MinHashSketcher.jaccard(sketches.get(pair[0]), sketches.get(pair[1])) >= 0.3 && verify.test(library.get(pair[0]), library.get(pair[1])))
+				parent[root(parent, pair[0])] = root(parent, pair[1]);
+		}
+		Map<Integer, List<Integer>> expected = new LinkedHashMap<Integer, List<Integer>>();
+		for(int i = 0; i < parent.length; i++)
+			expected.computeIfAbsent(root(parent, i), r -> new ArrayList<Integer>()).add(i);
+
+		List<List<Integer>> clusters = sketcher.cluster(library, 8, 0.3, verify);
+		assertEquals(new ArrayList<List<Integer>>(expected.values()), clusters);
+		assertTrue(clusters.size() < library.size(), "planted near-duplicates were not clustered");
+	}
+
+
+//================================| HELPERS |=================================//
+	private static Oligo randomOligo(Random random, int length)
+	{
+		StringBuilder oligo = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			oligo.append("ACGT".charAt(random.nextInt(4)));
+		return new Oligo(oligo.toString());
+	}
+
+
+	/**
+	 * Returns 'count' oligos drawn from 'families' random 40-mers, each copy with up to three substitutions
+	 */
+	private static List<Oligo> library(Random random, int count, int families)
+	{
+		List<String> seeds = new ArrayList<String>();
+		for(int f = 0; f < families; f++)
+			seeds.add(randomOligo(random, 40).toString());
+		List<Oligo> library = new ArrayList<Oligo>();
+		for(int i = 0; i < count; i++)
+		{
+			char[] copy = seeds.get(random.nextInt(families)).toCharArray();
+			for(int s = random.nextInt(4); s > 0; s--)
+				copy[random.nextInt(copy.length)] = "ACGT".charAt(random.nextInt(4));
+			library.add(new Oligo(new String(copy)));
+		}
+		return library;
+	}
+
+
+	private static Set<String> kmers(String seq, int k)
+	{
+		Set<String> kmers = new HashSet<String>();
+		for(int i = 0; i + k <= seq.length(); i++)
+			kmers.add(seq.substring(i, i + k));
+		return kmers;
+	}
+
+
+	private static boolean shareBand(long[] a, long[] b, int bands)
+	{
+		int rows = a.length / bands;
+		for(int band = 0; band < bands; band++)
+		{
+			if(Arrays.equals(a, band * rows, (band + 1) * rows, b, band * rows, (band + 1) * rows))
+				return true;
+		}
+		return false;
+	}
+
+
+	private static int root(int[] parent, int i)
+	{
+		while(parent[i] != i)
+			i = parent[i];
+		return i;
+	}
+} //end MinHashSketcherTest class
@@ -0,0 +1,113 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class MutagenesisTest
+{
+	private static final Oligo TEMPLATE = new OligoGenerator(38).next(1000);
+
+	@Test
+	void sameSeedGivesTheSameCopiesSequentiallyAndInParallel()
+	{
+		int count = 3 * Mutagenesis.BLOCK_SIZE + 5;
+		List<Oligo> sequential = new Mutagenesis(38, 0.01, 0.005, 0.005).replicates(TEMPLATE, count);
+
+		assertEquals(count, sequential.size());
+		assertEquals(sequential, new Mutagenesis(38, 0.01, 0.005, 0.005).replicates(TEMPLATE, count));
+		assertEquals(sequential, new Mutagenesis(38, 0.01, 0.005, 0.005).replicatesParallel(TEMPLATE, count));
+		assertNotEquals(sequential, new Mutagenesis(39, 0.01, 0.005, 0.005).replicates(TEMPLATE, count));
+
+		List<Oligo> library = new OligoGenerator(39).generate(count, 60);
+		assertEquals(new Mutagenesis(40, 0.05, 0.05, 0.05).mutateAll(library), new Mutagenesis(40, 0.05, 0.05, 0.05).mutateAllParallel(library));
+	}
+
+
+	@Test
+	void substitutionsHappenAtTheGivenRate()
+	{
+		long changed = 0;
+		for(Oligo copy : new Mutagenesis(1, 0.05, 0, 0).replicates(TEMPLATE, 200)) //200k bases
+		{
+			assertEquals(TEMPLATE.length(), copy.length());
+			for(int i = 0; i < copy.length(); i++)
+			{
+				if(copy.toString().charAt(i) != TEMPLATE.toString().charAt(i))
+					changed++;
+			}
+		}
+		assertEquals(0.05, changed / 200000.0, 0.003);
+	}
+
+
+	@Test
+	void insertionsAndDeletionsChangeTheLengthAtTheGivenRate()
+	{
+		assertEquals(1050, meanLength(new Mutagenesis(2, 0, 0.05, 0).replicates(TEMPLATE, 200)), 3);
+		assertEquals(950, meanLength(new Mutagenesis(3, 0, 0, 0.05).replicates(TEMPLATE, 200)), 3);
+		assertEquals(1000, meanLength(new Mutagenesis(4, 0, 0.05, 0.05).replicates(TEMPLATE, 200)), 3);
+		for(Oligo copy : new Mutagenesis(5, 0, 0, 0).replicates(TEMPLATE, 10))
+			assertEquals(TEMPLATE, copy);
+		assertEquals("", new Mutagenesis(6, 0, 0, 1).mutate(TEMPLATE).toString());
+	}
+
+
+	@Test
+	void copiesKeepTheCaseOfTheTemplate()
+	{
+		Oligo template = new Oligo("ACGTACGTACacgtacgtac");
+		for(Oligo copy : new Mutagenesis(7, 0.3, 0.3, 0).replicates(template, 100))
+		{
+			String seq = copy.toString();
+			int split = firstLowercase(seq); //inserted bases take the case of the base they precede
+			assertEquals(seq.substring(0, split).toUpperCase(), seq.substring(0, split), seq);
+			assertEquals(seq.substring(split).toLowerCase(), seq.substring(split), seq);
+		}
+	}
+
+
+	@Test
+	void shufflesKeepTheBaseComposition()
+	{
+		Mutagenesis engine = new Mutagenesis(8, 0, 0, 0);
+		Oligo shuffled = engine.shuffle(TEMPLATE);
+
+		assertNotEquals(TEMPLATE, shuffled);
+		char[] expected = TEMPLATE.toCharArray();
+		char[] actual = shuffled.toCharArray();
+		Arrays.sort(expected);
+		Arrays.sort(actual);
+		assertArrayEquals(expected, actual);
+		assertEquals(shuffled, new Mutagenesis(8, 0, 0, 0).shuffle(TEMPLATE));
+	}
+
+
+	@Test
+	void rejectsInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new Mutagenesis(1, 0.5, 0.3, 0.3));
+		assertThrows(IllegalArgumentException.class, () -> new Mutagenesis(1, -0.1, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new Mutagenesis(1, 0.1, 0, 0).replicates(TEMPLATE, -1));
+	}
+
+
+//================================| HELPERS |=================================//
+	private static double meanLength(List<Oligo> copies)
+	{
+		long total = 0;
+		for(Oligo copy : copies)
+			total += copy.length();
+		return (double) total / copies.size();
+	}
+
+
+	private static int firstLowercase(String seq)
+	{
+		for(int i = 0; i < seq.length(); i++)
+		{
+			if(Character.isLowerCase(seq.charAt(i)))
+				return i;
+		}
+		return seq.length();
+	}
+} //end MutagenesisTest class
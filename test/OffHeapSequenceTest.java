@@ -0,0 +1,103 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class OffHeapSequenceTest
+{
+	@Test
+	void roundTripsDegenerateBases() throws OligoException
+	{
+		String seq = "ACGTRYNNacgtBDHVSWKMrrRR";
+		OffHeapSequence sequence = OffHeapSequence.of(new Oligo(seq));
+
+		assertEquals(seq.length(), sequence.length());
+		assertEquals(seq.toUpperCase(), sequence.extractSequence(0, seq.length() - 1).toString());
+		StringBuilder chars = new StringBuilder();
+		for(long i = 0; i < sequence.length(); i++)
+			chars.append(sequence.charAt(i));
+		assertEquals(seq.toUpperCase(), chars.toString());
+		assertEquals(new Oligo(seq).antiparallel().toString().toUpperCase(), sequence.antiparallel().extractSequence(0, seq.length() - 1).toString());
+		assertEquals("TRYNNAC", sequence.subSequence(3, 9).extractSequence(0, 6).toString());
+		assertEquals((seq + seq).toUpperCase(), sequence.ligate(sequence).extractSequence(0, 2 * seq.length() - 1).toString());
+	}
+
+
+	@Test
+	void buildersGrowPastTheirFirstChunk() throws OligoException
+	{
+		Random random = new Random(34);
+		StringBuilder seq = new StringBuilder();
+		for(int i = 0; i < 100003; i++)
+			seq.append("ACGTNRacgt".charAt(random.nextInt(10)));
+		String expected = seq.toString().toUpperCase();
+
+		for(OffHeapSequence sequence : List.of(OffHeapSequence.builder().append(seq).build(), OffHeapSequence.builder(10).append(seq).build(),
+				OffHeapSequence.builder(seq.length()).append(seq).build()))
+		{
+			assertEquals(seq.length(), sequence.length());
+			assertEquals(expected, sequence.extractSequence(0, seq.length() - 1).toString());
+		}
+		assertEquals(0, OffHeapSequence.builder().build().length());
+	}
+
+
+	@Test
+	void mismatchSearchesMatchOligo()
+	{
+		assertEquals(List.of(), OffHeapSequence.of(new Oligo("RRRRTTTT")).getAllMatchCoordinates(new Oligo("CCCC"), 0));
+		assertEquals(List.of(0L, 1L), OffHeapSequence.of(new Oligo("RRRRTTTT")).getAllMatchCoordinates(new Oligo("AGA"), 0));
+
+		Random random = new Random(35);
+		Oligo source = new Oligo(sequence(random, 20000, "ACGTNRYSWKMBDHVacgtn"));
+		OffHeapSequence sequence = OffHeapSequence.of(source);
+		for(int t = 0; t < 300; t++)
+		{
+			Oligo query = new Oligo(sequence(random, 1 + random.nextInt(10), "ACGTNRYSWKMBDHVacgtn"));
+			int mismatches = random.nextInt(3);
+			List<Long> expected = longs(source.getAllMatchCoordinates(query, mismatches));
+			assertEquals(expected, sequence.getAllMatchCoordinates(query, mismatches), query + ", mismatches = " + mismatches);
+			assertEquals(expected, sequence.getAllMatchCoordinatesParallel(query, mismatches));
+			assertEquals(source.getFirstMatchCoordinate(query, mismatches), sequence.getFirstMatchCoordinate(query, mismatches));
+		}
+	}
+
+
+	@Test
+	void indelSearchesMatchOligo()
+	{
+		Random random = new Random(37);
+		String seq = sequence(random, 3000, "ACGTACGTACGTACGTN");
+		Oligo source = new Oligo(seq);
+		OffHeapSequence sequence = OffHeapSequence.of(source);
+		for(int t = 0; t < 4; t++)
+		{
+			int start = random.nextInt(seq.length() - 12);
+			Oligo query = new Oligo(seq.substring(start, start + 6) + seq.substring(start + 7, start + 13)); //one base deleted
+			List<Long> expected = longs(source.getAllMatchCoordinates(query, 1, 1, 1, 10));
+			assertFalse(expected.isEmpty());
+			assertEquals(expected, sequence.getAllMatchCoordinates(query, 1, 1, 1, 10), query.toString());
+			assertEquals(expected, sequence.getAllMatchCoordinatesParallel(query, 1, 1, 1, 10));
+			assertEquals(source.getFirstMatchCoordinate(query, 1, 1, 1, 10), sequence.getFirstMatchCoordinate(query, 1, 1, 1, 10));
+		}
+	}
+
+
+//================================| HELPERS |=================================//
+	private static String sequence(Random random, int length, String alphabet)
+	{
+		StringBuilder seq = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			seq.append((random.nextInt(4) == 0) ? alphabet.charAt(random.nextInt(alphabet.length())) : "ACGT".charAt(random.nextInt(4)));
+		return seq.toString();
+	}
+
+
+	private static List<Long> longs(List<Integer> coordinates)
+	{
+		List<Long> longs = new ArrayList<Long>();
+		for(int coordinate : coordinates)
+			longs.add((long) coordinate);
+		return longs;
+	}
+} //end OffHeapSequenceTest class
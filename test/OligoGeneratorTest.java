@@ -0,0 +1,86 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class OligoGeneratorTest
+{
+	@Test
+	void sameSeedGivesTheSameOligosSequentiallyAndInParallel()
+	{
+		int count = 3 * OligoGenerator.BLOCK_SIZE + 17; //several blocks and a partial one
+		List<Oligo> sequential = new OligoGenerator(37).generate(count, 45);
+
+		assertEquals(count, sequential.size());
+		assertEquals(sequential, new OligoGenerator(37).generate(count, 45));
+		assertEquals(sequential, new OligoGenerator(37).generateParallel(count, 45));
+		assertNotEquals(sequential, new OligoGenerator(38).generate(count, 45));
+		assertEquals(new OligoGenerator(37, 1, 2, 3, 4).generate(count, 45), new OligoGenerator(37, 1, 2, 3, 4).generateParallel(count, 45));
+
+		OligoGenerator a = new OligoGenerator(37);
+		OligoGenerator b = new OligoGenerator(37);
+		for(int t = 0; t < 100; t++)
+			assertEquals(a.next(t), b.next(t));
+		assertEquals(a.split().next(50), b.split().next(50));
+	}
+
+
+	@Test
+	void uniformCompositionIsEven()
+	{
+		double[] frequencies = frequencies(new OligoGenerator(1).generate(1000, 200)); //200k bases
+
+		for(double frequency : frequencies)
+			assertEquals(0.25, frequency, 0.01);
+	}
+
+
+	@Test
+	void weightedCompositionFollowsTheWeights()
+	{
+		double[] frequencies = frequencies(new OligoGenerator(2, 0.7, 0.2, 0.1, 0).generate(1000, 200));
+
+		assertEquals(0.7, frequencies[0], 0.01);
+		assertEquals(0.2, frequencies[1], 0.01);
+		assertEquals(0.1, frequencies[2], 0.01);
+		assertEquals(0, frequencies[3]);
+		assertArrayEquals(frequencies(new OligoGenerator(3, 2, 2, 2, 2).generate(1000, 200)), frequencies(new OligoGenerator(3, 1, 1, 1, 1).generate(1000, 200)));
+	}
+
+
+	@Test
+	void rejectsInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new OligoGenerator(1, 0, 0, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> new OligoGenerator(1, -1, 1, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> new OligoGenerator(1).next(-1));
+		assertThrows(IllegalArgumentException.class, () -> new OligoGenerator(1).generate(-1, 10));
+		assertEquals(List.of(), new OligoGenerator(1).generate(0, 10));
+		assertEquals("", new OligoGenerator(1).next(0).toString());
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Returns the fraction of a, c, g and t over all oligos; fails on anything else
+	 */
+	private static double[] frequencies(List<Oligo> oligos)
+	{
+		long[] counts = new long[4];
+		long total = 0;
+		for(Oligo oligo : oligos)
+		{
+			for(char base : oligo.toString().toCharArray())
+			{
+				int code = "acgt".indexOf(base);
+				assertTrue(code >= 0, "unexpected base " + base);
+				counts[code]++;
+				total++;
+			}
+		}
+		double[] frequencies = new double[4];
+		for(int i = 0; i < 4; i++)
+			frequencies[i] = (double) counts[i] / total;
+		return frequencies;
+	}
+} //end OligoGeneratorTest class
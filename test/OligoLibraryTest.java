@@ -0,0 +1,121 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OligoLibraryTest
+{
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripsDegenerateBases() throws IOException
+	{
+		Path path = dir.resolve("primers.olib");
+		List<String> oligos = List.of("ACGTRYNNacgt", "rrRRyN", "", "N", "BDHVSWKMbdhvswkm", "ACGTNNNNNNNNACGTnnnn", "acgtrynnbdhv", "n", "nnnn");
+		try(OligoLibrary.Writer writer = OligoLibrary.writer(path, false))
+		{
+			for(String oligo : oligos)
+				writer.add(new Oligo(oligo));
+		}
+
+		try(OligoLibrary library = OligoLibrary.open(path))
+		{
+			assertEquals(oligos.size(), library.size());
+			assertFalse(library.hasNames());
+			for(int i = 0; i < oligos.size(); i++)
+			{
+				assertEquals(oligos.get(i).length(), library.length(i));
+				String oligo = oligos.get(i);
+				assertEquals(oligo.equals(oligo.toLowerCase()) ? oligo : oligo.toUpperCase(), library.get(i).toString()); //mixed case comes back uppercase
+				assertNull(library.name(i));
+			}
+		}
+	}
+
+
+	@Test
+	void roundTripsRandomNamedLibrary() throws IOException
+	{
+		Path path = dir.resolve("random.olib");
+		Random random = new Random(32);
+		List<String> names = new ArrayList<String>();
+		List<String> oligos = new ArrayList<String>();
+		for(int i = 0; i < 3000; i++) //grows the writer's index arrays and scratch buffers
+		{
+			StringBuilder oligo = new StringBuilder();
+			for(int j = random.nextInt(300); j > 0; j--)
+				oligo.append((random.nextInt(10) == 0) ? "NRYSWKMBDHV".charAt(random.nextInt(11)) : "ACGT".charAt(random.nextInt(4)));
+			oligos.add((i % 3 == 0) ? oligo.toString().toLowerCase() : oligo.toString());
+			names.add("oligo-" + i + ((i % 7 == 0) ? " µ" : ""));
+		}
+		try(OligoLibrary.Writer writer = OligoLibrary.writer(path, true))
+		{
+			for(int i = 0; i < oligos.size(); i++)
+				writer.add(names.get(i), new Oligo(oligos.get(i)));
+		}
+
+		try(OligoLibrary library = OligoLibrary.open(path))
+		{
+			assertTrue(library.hasNames());
+			for(int i = 0; i < oligos.size(); i++)
+			{
+				assertEquals(oligos.get(i), library.get(i).toString());
+				assertEquals(names.get(i), library.name(i));
+			}
+			assertThrows(IndexOutOfBoundsException.class, () -> library.get(oligos.size()));
+		}
+		try(DirectoryStream<Path> files = Files.newDirectoryStream(dir, "oligo-names*"))
+		{
+			assertFalse(files.iterator().hasNext(), "temporary name file left behind");
+		}
+	}
+
+
+	@Test
+	void rejectsVersion1Files() throws IOException
+	{
+		Path path = dir.resolve("v1.olib");
+		try(DataOutputStream out = new DataOutputStream(Files.newOutputStream(path)))
+		{
+			out.writeInt(1); //"ACNNT": one wildcard run, no run masks
+			out.writeInt(2);
+			out.writeInt(2);
+			out.write(new byte[] {0b00_00_01_00, 0b11});
+			out.writeLong(0); //index
+			out.writeInt(5);
+			out.writeLong(1); //footer
+			out.writeLong(14);
+			out.writeLong(-1);
+			out.writeInt(1);
+			out.writeInt(OligoLibrary.MAGIC);
+		}
+
+		IOException e = assertThrows(IOException.class, () -> OligoLibrary.open(path));
+		assertTrue(e.getMessage().contains("version"), e.getMessage());
+	}
+
+
+	@Test
+	void rejectsOtherFiles() throws IOException
+	{
+		Path path = Files.write(dir.resolve("not.olib"), new byte[64]);
+
+		assertThrows(IOException.class, () -> OligoLibrary.open(path));
+	}
+
+
+	@Test
+	void rejectsAddsThatDoNotMatchTheNameSetting() throws IOException
+	{
+		try(OligoLibrary.Writer named = OligoLibrary.writer(dir.resolve("named.olib"), true);
+				OligoLibrary.Writer unnamed = OligoLibrary.writer(dir.resolve("unnamed.olib"), false))
+		{
+			assertThrows(IllegalStateException.class, () -> named.add(new Oligo("ACGT")));
+			assertThrows(IllegalStateException.class, () -> unnamed.add("name", new Oligo("ACGT")));
+		}
+	}
+} //end OligoLibraryTest class
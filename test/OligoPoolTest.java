@@ -0,0 +1,141 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+
+class OligoPoolTest
+{
+	private static final String THIRTY = "ACGTACGTACGTACGTACGTACGTACGTAC";
+
+	@Test
+	void equalSequencesInternToOneInstance()
+	{
+		OligoPool pool = new OligoPool(1000);
+		for(String seq : List.of("", "A", "ACGT", "acgt", THIRTY, THIRTY.toLowerCase(), THIRTY + "G", "AcGT", "ACNT", "acrt"))
+		{
+			Oligo first = pool.intern(new Oligo(new String(seq.toCharArray())));
+			Oligo second = new Oligo(new String(seq.toCharArray()));
+			assertNotSame(first, second);
+			assertSame(first, pool.intern(second), seq);
+		}
+		assertEquals(6, pool.packedSize()); //"", A, ACGT, acgt and the two 30-base oligos; the rest go through the weak interner
+	}
+
+
+	@Test
+	void caseAndLengthKeepSequencesApart()
+	{
+		OligoPool pool = new OligoPool(1000);
+		List<String> distinct = List.of("", "A", "AA", "AAA", "a", "aa", "ACGT", "acgt", "ACGTA", THIRTY, THIRTY.toLowerCase(), THIRTY + "A", THIRTY.toLowerCase() + "a",
+				"AcGT", "aCgT");
+		Set<Oligo> interned = Collections.newSetFromMap(new IdentityHashMap<Oligo, Boolean>());
+		for(String seq : distinct)
+		{
+			Oligo oligo = pool.intern(new Oligo(seq));
+			assertEquals(seq, oligo.toString());
+			interned.add(oligo);
+		}
+		assertEquals(distinct.size(), interned.size());
+
+		Set<Long> keys = new HashSet<Long>();
+		for(String seq : List.of("", "A", "AA", "AAA", "a", "aa", THIRTY, THIRTY.toLowerCase()))
+			assertTrue(keys.add(OligoPool.packedKey(seq)), seq); //the end marker tells trailing A's apart, bit 62 the case
+		assertEquals(0, OligoPool.packedKey(THIRTY + "A"));
+		assertEquals(0, OligoPool.packedKey("AcGT"));
+		assertEquals(0, OligoPool.packedKey("ACNT"));
+	}
+
+
+	@Test
+	void aFullPoolReturnsNewOligosUnpooled()
+	{
+		OligoPool pool = new OligoPool(1); //one entry per lock stripe
+		Map<String, Oligo> pooled = new HashMap<String, Oligo>();
+		Random random = new Random(36);
+		for(int t = 0; t < 1000; t++)
+		{
+			Oligo oligo = new Oligo(sequence(random, 12));
+			Oligo interned = pool.intern(oligo);
+			pooled.putIfAbsent(oligo.toString(), interned);
+			assertEquals(oligo, interned);
+		}
+		assertTrue(pool.packedSize() > 0 && pool.packedSize() <= 64, "packedSize = " + pool.packedSize());
+
+		int admitted = 0; //packable oligos the pool kept still intern to their first instance
+		for(Map.Entry<String, Oligo> entry : pooled.entrySet())
+		{
+			if(OligoPool.packedKey(entry.getKey()) != 0 && pool.intern(new Oligo(entry.getKey())) == entry.getValue())
+				admitted++;
+		}
+		assertEquals(pool.packedSize(), admitted);
+	}
+
+
+	@Test
+	void concurrentInternsAgreeOnOneInstance() throws Exception
+	{
+		OligoPool pool = new OligoPool(100000);
+		List<String> sequences = new ArrayList<String>();
+		Random random = new Random(37);
+		for(int t = 0; t < 2000; t++)
+			sequences.add(sequence(random, 1 + random.nextInt(40)));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<List<Oligo>>> results = new ArrayList<Future<List<Oligo>>>();
+			for(int w = 0; w < 4; w++)
+			{
+				results.add(executor.submit(() -> {
+					List<Oligo> interned = new ArrayList<Oligo>();
+					for(String seq : sequences)
+						interned.add(pool.intern(new Oligo(seq)));
+					return interned;
+				}));
+			}
+			List<Oligo> first = results.get(0).get();
+			for(Future<List<Oligo>> result : results)
+			{
+				List<Oligo> interned = result.get();
+				for(int i = 0; i < sequences.size(); i++)
+					assertSame(first.get(i), interned.get(i), sequences.get(i));
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+
+	@Test
+	void oligosAreEqualOnlyToTheSameSequenceInTheSameCase()
+	{
+		Oligo upper = new Oligo("ACGTN");
+		Oligo same = new Oligo(new String("ACGTN".toCharArray()));
+
+		assertEquals(upper, same);
+		assertEquals(upper.hashCode(), same.hashCode());
+		assertNotEquals(upper, new Oligo("acgtn"));
+		assertNotEquals(upper, upper.toLowerCase());
+		assertEquals(upper, upper.toLowerCase().toUpperCase());
+		assertNotEquals(upper, new Oligo("ACGT"));
+		assertNotEquals(upper, "ACGTN");
+		assertNotEquals(upper, null);
+		assertEquals(new Oligo(), new Oligo(""));
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Returns upper- or lowercase ACGT, with the odd wildcard so that some oligos are not packable
+	 */
+	private static String sequence(Random random, int length)
+	{
+		StringBuilder seq = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			seq.append((random.nextInt(50) == 0) ? 'N' : "ACGT".charAt(random.nextInt(4)));
+		return random.nextBoolean() ? seq.toString() : seq.toString().toLowerCase();
+	}
+} //end OligoPoolTest class
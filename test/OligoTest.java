@@ -0,0 +1,104 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+
+class OligoTest
+{
+	@Test
+	void alignmentsWithNothingInCommonFindNoKey()
+	{
+		Oligo source = new Oligo("AAAA");
+		Oligo query = new Oligo("GGCC");
+
+		assertNull(source.trySmithWaterman(query, 4, 4));
+		assertThrows(OligoException.class, () -> source.smithWaterman(query, 4, 4));
+		assertFalse(source.isFuzzySmithWatermanMatch(query, 4, 4, 4));
+		assertNull(source.tryGetFuzzySWkey(query, 4, 4, 4, 0));
+		assertEquals(List.of(), new Oligo("AAAAAAAACCCC").getAllMatchCoordinates(new Oligo("GGTC"), 1, 1, 1, 3));
+		assertEquals(List.of(6), new Oligo("AAAAAAGGTC").getAllMatchCoordinates(new Oligo("GGTC"), 0, 0, 0, 4));
+	}
+
+
+	@Test
+	void emptyQueriesMatchAtEveryWindowStart() throws OligoException
+	{
+		Oligo empty = new Oligo();
+
+		assertEquals(List.of(0, 1, 2, 3, 4), new Oligo("ACGT").getAllMatchCoordinates(empty, 0));
+		assertEquals(List.of(0), empty.getAllMatchCoordinates(empty, 0));
+		assertEquals(0, empty.getFirstMatchCoordinate(empty, 0));
+		assertEquals(List.of(0, 1, 2, 3, 4), new Oligo("ACGT").getAllMatchCoordinatesParallel(empty, 0));
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			assertEquals(List.of(0), empty.getAllMatchCoordinatesParallel(empty, 0, SearchOptions.DEFAULT, executor));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+
+	@Test
+	void parallelSearchesMatchTheSequentialSearch() throws OligoException
+	{
+		Random random = new Random(26);
+		Oligo source = new Oligo(sequence(random, 300000)); //several mismatch-only chunks
+		ForkJoinPool pool = new ForkJoinPool(3);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			for(int t = 0; t < 6; t++)
+			{
+				Oligo query = query(random, source, 6 + random.nextInt(6));
+				int mismatches = random.nextInt(2);
+				ArrayList<Integer> expected = source.getAllMatchCoordinates(query, mismatches);
+				assertFalse(expected.isEmpty());
+				assertEquals(expected, source.getAllMatchCoordinatesParallel(query, mismatches), query.toString());
+				assertEquals(expected, source.getAllMatchCoordinatesParallel(query, mismatches, SearchOptions.DEFAULT, pool));
+				assertEquals(expected, source.getAllMatchCoordinatesParallel(query, mismatches, SearchOptions.DEFAULT, executor));
+			}
+
+			Oligo shorter = new Oligo(source.toString().substring(0, 5000)); //several indel chunks
+			for(int t = 0; t < 3; t++)
+			{
+				Oligo query = query(random, shorter, 10);
+				ArrayList<Integer> expected = shorter.getAllMatchCoordinates(query, 1, 1, 1, 8);
+				assertFalse(expected.isEmpty());
+				assertEquals(expected, shorter.getAllMatchCoordinatesParallel(query, 1, 1, 1, 8), query.toString());
+				assertEquals(expected, shorter.getAllMatchCoordinatesParallel(query, 1, 1, 1, 8, SearchOptions.DEFAULT, pool));
+				assertEquals(expected, shorter.getAllMatchCoordinatesParallel(query, 1, 1, 1, 8, SearchOptions.DEFAULT, executor));
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+			executor.shutdown();
+		}
+	}
+
+
+//================================| HELPERS |=================================//
+	private static String sequence(Random random, int length)
+	{
+		StringBuilder seq = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			seq.append((random.nextInt(100) == 0) ? 'n' : "ACGTacgt".charAt(random.nextInt(8)));
+		return seq.toString();
+	}
+
+
+	/**
+	 * Returns length + 1 consecutive bases of source with one interior base deleted, i.e. a query an indel search finds
+	 */
+	private static Oligo query(Random random, Oligo source, int length)
+	{
+		int start = random.nextInt(source.length() - length - 1);
+		String seq = source.toString();
+		int gap = start + 1 + random.nextInt(length - 2);
+		return new Oligo(seq.substring(start, gap) + seq.substring(gap + 1, start + length + 1));
+	}
+} //end OligoTest class
@@ -0,0 +1,144 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class QualityOligoTest
+{
+	private static final SearchOptions NO_WILDCARDS = SearchOptions.DEFAULT.withWildcards("");
+
+	@Test
+	void lowQualityBasesDoNotUseUpMismatches()
+	{
+		QualityOligo read = QualityOligo.fromPhred33("TTACGTACGATT", "IIIIIIII#III"); //G called at low quality where the query has T
+		Oligo query = new Oligo("ACGTACTA");
+
+		assertEquals(List.of(), read.getAllMatchCoordinates(query, 0));
+		assertEquals(List.of(2), read.getAllMatchCoordinates(query, 0, 20));
+		assertEquals(List.of(2), read.getAllMatchCoordinates(query, 0, 20, NO_WILDCARDS));
+		assertEquals(List.of(2), read.getAllMatchCoordinates(query.toLowerCase(), 0, 20, NO_WILDCARDS));
+		assertEquals(List.of(), read.getAllMatchCoordinates(query.toLowerCase(), 0, 20, NO_WILDCARDS.withCaseSensitive(true)));
+		assertEquals(2, read.getFirstMatchCoordinate(query, 0, 20, NO_WILDCARDS));
+		assertTrue(read.isFuzzyMatch(query, 0, 20));
+		assertFalse(read.isFuzzyMatch(query, 0, 0));
+	}
+
+
+	@Test
+	void maskedAndUnmaskedSearchesAgree()
+	{
+		Random random = new Random(42);
+		for(int t = 0; t < 200; t++)
+		{
+			QualityOligo read = read(random, 60);
+			String seq = read.toString();
+			int start = random.nextInt(50);
+			Oligo query = new Oligo(seq.substring(start, start + 4 + random.nextInt(7)));
+			int mismatches = random.nextInt(2);
+			int minQuality = random.nextInt(40);
+
+			//n/N are wildcards under DEFAULT, so it searches the masked sequence; without wildcards the scan skips low-quality bases itself
+			assertEquals(read.getAllMatchCoordinates(query, mismatches, minQuality), read.getAllMatchCoordinates(query, mismatches, minQuality, NO_WILDCARDS));
+		}
+	}
+
+
+	@Test
+	void indelSearchesIgnoreLowQualityBases() throws OligoException
+	{
+		//the read has an inserted 'T' after ACCT and a low-quality 'A' where the query has C
+		QualityOligo read = QualityOligo.fromPhred33("GGACCTTAGTCAAGAGG", "IIIIIIIIIIII#IIII");
+		Oligo query = new Oligo("ACCTAGTCACGA");
+
+		assertEquals(List.of(), read.getAllMatchCoordinates(query, 0, 1, 0, 12));
+		assertEquals(List.of(2), read.getAllMatchCoordinates(query, 0, 1, 0, 12, 20));
+		assertEquals(2, read.getFirstMatchCoordinate(query, 0, 1, 0, 12, 20));
+		assertEquals("ACCTnAGTCACGA", read.getFuzzySWkey(query, 0, 1, 0, 12, 20).toString());
+		assertNull(read.tryGetFuzzySWkey(query, 0, 1, 0, 12));
+		assertThrows(OligoException.class, () -> read.getFuzzySWkey(query, 0, 1, 0, 14, 20));
+
+		QualityOligo extracted = read.tryExtractSequence(query, 0, 1, 0, 12, 20);
+		assertEquals("ACCTTAGTCAAGA", extracted.toString());
+		assertEquals("IIIIIIIIII#II", extracted.toPhred33());
+		assertEquals("GG", read.tryExciseLeftFrom(query, 0, 1, 0, 12, 20).toString());
+		assertEquals("IIIIIIIIII#IIII", read.tryExciseLeftOf(query, 0, 1, 0, 12, 20).toPhred33());
+		assertEquals("GG", read.tryExciseRightFrom(query, 0, 1, 0, 12, 20).toString());
+		assertEquals("GGACCTTAGTCAAGA", read.tryExciseRightOf(query, 0, 1, 0, 12, 20).toString());
+		assertNull(read.tryExciseLeftFrom(query, 0, 1, 0, 12, 0));
+	}
+
+
+	@Test
+	void indelSearchesMatchOligoWhenEveryBaseCounts()
+	{
+		Random random = new Random(43);
+		QualityOligo read = read(random, 300);
+		Oligo source = new Oligo(read.toString());
+		for(int t = 0; t < 10; t++)
+		{
+			int start = random.nextInt(280);
+			String seq = read.toString();
+			Oligo query = new Oligo(seq.substring(start, start + 5) + seq.substring(start + 6, start + 12)); //one base deleted
+			assertEquals(source.getAllMatchCoordinates(query, 1, 1, 1, 8), read.getAllMatchCoordinates(query, 1, 1, 1, 8, 0), query.toString());
+			assertEquals(source.getFirstMatchCoordinate(query, 1, 1, 1, 8), read.getFirstMatchCoordinate(query, 1, 1, 1, 8, 0));
+		}
+	}
+
+
+	@Test
+	void transformsKeepTheScoresWithTheirBases() throws OligoException
+	{
+		QualityOligo read = QualityOligo.fromPhred33("AACGTTGCA", "!\"#$%&'()");
+
+		assertEquals("TGCAACGTT", read.antiparallel().toString());
+		assertEquals(")('&%$#\"!", read.antiparallel().toPhred33());
+		assertEquals("ACGTTGCAA", read.reverse().toString());
+		assertEquals(")('&%$#\"!", read.reverse().toPhred33());
+		assertEquals("!\"#$%&'()", read.complement().toPhred33());
+		assertEquals("aacgttgca", read.toLowerCase().toString());
+		assertEquals("!\"#$%&'()", read.toLowerCase().toUpperCase().toPhred33());
+
+		Oligo query = new Oligo("GTTG");
+		assertEquals("#$%&", read.extractSequence(2, 5).toPhred33());
+		assertEquals("$%&'", read.extractSequence(query, 0).toPhred33());
+		assertEquals("()", read.exciseLeftFrom(query, 0).toPhred33());
+		assertEquals("$%&'()", read.exciseLeftOf(query, 0).toPhred33());
+		assertEquals("!\"#", read.exciseRightFrom(query, 0).toPhred33());
+		assertEquals("!\"#$%&'", read.exciseRightOf(query, 0).toPhred33());
+		assertEquals("$%&'", read.extractSequence(query, 0, 1, 1, 4).toPhred33());
+		assertEquals("()", read.exciseLeftFrom(query, 0, 1, 1, 4).toPhred33());
+		assertEquals("!\"#$%&'", read.exciseRightOf(query, 0, 1, 1, 4).toPhred33());
+		assertNull(read.tryExciseLeftOf(new Oligo("CCCC"), 0));
+		assertInstanceOf(QualityOligo.class, read.cutAt(3).get(1));
+	}
+
+
+	@Test
+	void trimsAtTheFirstLowQualityWindow()
+	{
+		QualityOligo read = QualityOligo.fromPhred33("ACGTACGTAC", "IIIIII##II");
+
+		assertEquals("ACGTAC", read.trimSlidingWindow(2, 20).toString());
+		assertEquals("IIIIII", read.trimSlidingWindow(2, 20).toPhred33());
+		assertSame(read, read.trimSlidingWindow(2, 2));
+		assertEquals("", QualityOligo.fromPhred33("AC", "##").trimSlidingWindow(4, 20).toString());
+		assertThrows(IllegalArgumentException.class, () -> read.trimSlidingWindow(0, 20));
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Returns a read of ACGT (no n, which only the masked search treats as a wildcard) with random scores, about a quarter of them below 10
+	 */
+	private static QualityOligo read(Random random, int length)
+	{
+		StringBuilder bases = new StringBuilder();
+		StringBuilder quality = new StringBuilder();
+		for(int i = 0; i < length; i++)
+		{
+			bases.append("ACGTacgt".charAt(random.nextInt(8)));
+			quality.append((char) ('!' + random.nextInt(41)));
+		}
+		return QualityOligo.fromPhred33(bases, quality);
+	}
+} //end QualityOligoTest class
@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReferenceIndexTest
+{
+	@TempDir
+	Path dir;
+
+	@Test
+	void savedIndexAnswersLikeTheFullScan() throws IOException
+	{
+		Random random = new Random(33);
+		Oligo reference = new Oligo(sequence(random, 20000, true));
+		Path path = dir.resolve("reference.idx");
+		ReferenceIndex built = ReferenceIndex.build(reference, 6);
+		built.save(path);
+
+		try(ReferenceIndex opened = ReferenceIndex.open(path, reference))
+		{
+			assertEquals(6, opened.getK());
+			for(int t = 0; t < 300; t++)
+			{
+				Oligo query = query(random, reference);
+				int mismatches = random.nextInt(3);
+				ArrayList<Integer> expected = reference.getAllMatchCoordinates(query, mismatches);
+				assertEquals(expected, built.getAllMatchCoordinates(query, mismatches), query + ", mismatches = " + mismatches);
+				assertEquals(expected, opened.getAllMatchCoordinates(query, mismatches), query + ", mismatches = " + mismatches);
+			}
+			for(String kmer : List.of("ACGTAC", "TTTTTT", "gatcca"))
+			{
+				assertEquals(built.count(new Oligo(kmer)), opened.count(new Oligo(kmer)));
+				assertEquals(reference.getAllMatchCoordinates(new Oligo(kmer), 0).size(), opened.count(new Oligo(kmer)) + wildcardHits(reference, kmer));
+			}
+		}
+	}
+
+
+	@Test
+	void openRejectsOtherReferencesAndDamagedFiles() throws IOException
+	{
+		Oligo reference = new Oligo(sequence(new Random(1), 1000, false));
+		Path path = dir.resolve("reference.idx");
+		ReferenceIndex.build(reference, 4).save(path);
+
+		assertThrows(IOException.class, () -> ReferenceIndex.open(path, new Oligo(sequence(new Random(2), 1000, false))));
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+		{
+			channel.truncate(channel.size() - 4);
+		}
+		assertThrows(IOException.class, () -> ReferenceIndex.open(path, reference));
+		Path other = Files.write(dir.resolve("other.idx"), new byte[64]);
+		assertThrows(IOException.class, () -> ReferenceIndex.open(other, reference));
+	}
+
+
+	@Test
+	void buildRejectsUnsupportedK()
+	{
+		assertThrows(IllegalArgumentException.class, () -> ReferenceIndex.build(new Oligo("ACGT"), 0));
+		assertThrows(IllegalArgumentException.class, () -> ReferenceIndex.build(new Oligo("ACGT"), ReferenceIndex.MAX_K + 1));
+	}
+
+
+//================================| HELPERS |=================================//
+	private static String sequence(Random random, int length, boolean wildcards)
+	{
+		StringBuilder seq = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			seq.append((wildcards && random.nextInt(200) == 0) ? "NRY".charAt(random.nextInt(3)) : "ACGTacgt".charAt(random.nextInt(8)));
+		return seq.toString();
+	}
+
+
+	/**
+	 * Returns a reference substring with a few substitutions, or occasionally a random sequence or one containing a wildcard
+	 */
+	private static Oligo query(Random random, Oligo reference)
+	{
+		int length = 8 + random.nextInt(30);
+		if(random.nextInt(10) == 0)
+			return new Oligo(sequence(random, length, true));
+		int start = random.nextInt(reference.length() - length);
+		char[] query = reference.toString().substring(start, start + length).toCharArray();
+		for(int s = random.nextInt(3); s > 0; s--)
+			query[random.nextInt(length)] = "ACGT".charAt(random.nextInt(4));
+		return new Oligo(new String(query));
+	}
+
+
+	/**
+	 * Counts full-scan hits of kmer whose window includes a reference wildcard; the k-mer table does not hold those
+	 */
+	private static int wildcardHits(Oligo reference, String kmer)
+	{
+		int hits = 0;
+		String seq = reference.toString();
+		for(int start : reference.getAllMatchCoordinates(new Oligo(kmer), 0))
+		{
+			if(OligoAlphabet.indexOfWildcard(seq.substring(start, start + kmer.length())) != -1)
+				hits++;
+		}
+		return hits;
+	}
+} //end ReferenceIndexTest class
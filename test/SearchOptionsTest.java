@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class SearchOptionsTest
+{
+	private static final String IUPAC = "ACGTNRYSWKMBDHV";
+	private static final String[] BASES_OF = {"A", "C", "G", "T", "ACGT", "AG", "CT", "CG", "AT", "GT", "AC", "CGT", "AGT", "ACT", "ACG"}; //by IUPAC index
+
+	@Test
+	void degenerateCodesMatchTheBasesTheyStandFor()
+	{
+		SearchOptions literalN = SearchOptions.DEFAULT.withWildcards("");
+		for(int i = 0; i < IUPAC.length(); i++)
+		{
+			for(int j = 0; j < IUPAC.length(); j++)
+			{
+				char a = IUPAC.charAt(i);
+				char b = IUPAC.charAt(j);
+				boolean shared = !Collections.disjoint(bases(i), bases(j));
+				boolean expected = (a == 'N' || b == 'N') ? a == b : shared; //without wildcards n/N is literal
+				assertEquals(expected, literalN.matches(a, b), a + " vs " + b);
+				assertEquals(expected, literalN.matches(Character.toLowerCase(a), b), a + " vs " + b);
+				assertEquals(a == 'N' || b == 'N' || shared, SearchOptions.DEFAULT.matches(a, Character.toLowerCase(b)), a + " vs " + b);
+			}
+		}
+		assertTrue(SearchOptions.DEFAULT.matches('R', 'g'));
+		assertFalse(SearchOptions.DEFAULT.matches('R', 'Y'));
+		assertFalse(SearchOptions.DEFAULT.matches('A', 'x'));
+	}
+
+
+	@Test
+	void caseSensitiveOptionsKeepNAndnApart()
+	{
+		SearchOptions options = SearchOptions.DEFAULT.withCaseSensitive(true); //wildcard 'n' only
+
+		assertTrue(options.isWildcard('n'));
+		assertFalse(options.isWildcard('N'));
+		assertTrue(options.matches('n', 'A'));
+		assertTrue(options.matches('N', 'n'));
+		assertTrue(options.matches('N', 'N'));
+		assertFalse(options.matches('N', 'A'));
+		assertFalse(options.matches('N', 'a'));
+		assertFalse(options.matches('a', 'A'));
+		assertTrue(options.matches('r', 'g'));
+		assertFalse(options.matches('r', 'G'));
+
+		//uppercase N is a wildcard under the case-insensitive defaults
+		assertTrue(SearchOptions.DEFAULT.isWildcard('N'));
+		assertTrue(SearchOptions.DEFAULT.matches('N', 'c'));
+		assertEquals(List.of(0, 1, 2), new Oligo("ACGTA").getAllMatchCoordinates(new Oligo("NNN"), 0));
+		assertEquals(List.of(1), new Oligo("ACGTA").getAllMatchCoordinates(new Oligo("CNT"), 0, options.withCaseSensitive(false).withWildcards("N")));
+		assertEquals(List.of(), new Oligo("ACGTA").getAllMatchCoordinates(new Oligo("cNt"), 0, options));
+		assertEquals(List.of(1), new Oligo("ACGTA").toLowerCase().getAllMatchCoordinates(new Oligo("cnt"), 0, options));
+	}
+
+
+	@Test
+	void nibbleScanMatchesTheCharacterScan()
+	{
+		Random random = new Random(43);
+		for(int t = 0; t < 300; t++)
+		{
+			Oligo source = new Oligo(sequence(random, 1 + random.nextInt(120)));
+			Oligo query = new Oligo(sequence(random, 1 + random.nextInt(40)));
+			int mismatches = random.nextInt(4);
+
+			List<Integer> expected = new ArrayList<Integer>();
+			for(int i = 0; i + query.length() <= source.length(); i++)
+			{
+				if(source.isMatchAt(i, query, mismatches, SearchOptions.DEFAULT))
+					expected.add(i);
+			}
+			assertEquals(expected, source.getAllMatchCoordinates(query, mismatches), source + " / " + query + ", mismatches = " + mismatches);
+			assertEquals(expected.isEmpty() ? -1 : expected.get(0), source.getFirstMatchCoordinate(query, mismatches));
+		}
+	}
+
+
+	@Test
+	void alignmentInsertsMatchAsWildcards() throws OligoException
+	{
+		Oligo source = new Oligo("GGACCTTAGTCAAGAGG");
+		Oligo query = new Oligo("ACCTAGTCAAGA"); //the source has an extra T after ACCT
+
+		assertEquals("ACCTnAGTCAAGA", source.getFuzzySWkey(query, 0, 1, 0, 12).toString());
+		assertEquals(List.of(2), source.getAllMatchCoordinates(query, 0, 1, 0, 12));
+		assertEquals(List.of(), source.getAllMatchCoordinates(query, 0, 1, 0, 12, SearchOptions.DEFAULT.withWildcards(""))); //'n' in the key is then literal
+	}
+
+
+//================================| HELPERS |=================================//
+	private static Set<Character> bases(int iupac)
+	{
+		Set<Character> bases = new HashSet<Character>();
+		for(char base : BASES_OF[iupac].toCharArray())
+			bases.add(base);
+		return bases;
+	}
+
+
+	/**
+	 * Returns mostly ACGT with some degenerate codes and wildcards, in either case
+	 */
+	private static String sequence(Random random, int length)
+	{
+		StringBuilder seq = new StringBuilder();
+		for(int i = 0; i < length; i++)
+		{
+			char ch = (random.nextInt(4) == 0) ? IUPAC.charAt(random.nextInt(IUPAC.length())) : "ACGT".charAt(random.nextInt(4));
+			seq.append(random.nextBoolean() ? ch : Character.toLowerCase(ch));
+		}
+		return seq.toString();
+	}
+} //end SearchOptionsTest class
@@ -0,0 +1,222 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SequenceReaderTest
+{
+	@TempDir
+	Path dir;
+
+	@Test
+	void readsFastqRecords() throws IOException
+	{
+		Path fastq = write("reads.fq", "@r1 first\nACGT\n+\nIIII\n@r2\nccgg\n+r2\n@@@@\n");
+
+		try(SequenceReader reader = SequenceReader.open(fastq))
+		{
+			SequenceRecord r1 = reader.next();
+			assertEquals("r1 first", r1.getName().toString());
+			assertEquals("ACGT", r1.getSequence().toString());
+			assertEquals("IIII", r1.getQuality().toString());
+			SequenceRecord r2 = reader.next();
+			assertEquals("ccgg", r2.getSequence().toString());
+			assertEquals("@@@@", r2.getQuality().toString());
+			assertNull(reader.next());
+		}
+	}
+
+
+	@Test
+	void joinsMultiLineFastaSequences() throws IOException
+	{
+		Path fasta = write("seqs.fa", ">s1\nACGT\nAC\n\n>s2\nGG\n>s3\n");
+
+		try(SequenceReader reader = SequenceReader.open(fasta))
+		{
+			assertEquals("ACGTAC", reader.next().getSequence().toString());
+			assertEquals("GG", reader.next().getSequence().toString());
+			assertEquals("", reader.next().getSequence().toString());
+			assertNull(reader.next());
+		}
+	}
+
+
+	@Test
+	void stripsCarriageReturns() throws IOException
+	{
+		Path fastq = write("crlf.fq", "@r1\r\nACGT\r\n+\r\nIIII\r\n@r2\r\nTT\r\n+\r\n@I\r\n");
+		Path fasta = write("crlf.fa", ">s1\r\nAC\r\nGT\r\n>s2\r\nTT");
+
+		assertEquals(List.of("r1:ACGT:IIII", "r2:TT:@I"), records(List.of(SequenceReader.open(fastq))));
+		assertEquals(List.of("s1:ACGT", "s2:TT"), records(List.of(SequenceReader.open(fasta))));
+	}
+
+
+	@Test
+	void rejectsMalformedFastq() throws IOException
+	{
+		Path shortQuality = write("short.fq", "@r1\nACGT\n+\nIII\n");
+		Path truncated = write("truncated.fq", "@r1\nACGT\n+\n");
+
+		try(SequenceReader reader = SequenceReader.open(shortQuality))
+		{
+			assertThrows(IOException.class, reader::next);
+		}
+		try(SequenceReader reader = SequenceReader.open(truncated))
+		{
+			assertThrows(IOException.class, reader::next);
+		}
+	}
+
+
+	@Test
+	void splitKeepsRecordsWhenLastQualityLineStartsWithAt() throws IOException
+	{
+		Path fastq = write("reads.fq", "@r1\nACGT\n+\nIIII\n@r2\nCCGG\n+\nJJJJ\n@r3\nTTAA\n+\n@III\n");
+
+		for(int parts = 1; parts <= 8; parts++)
+			assertEquals(List.of("r1", "r2", "r3"), names(SequenceReader.split(fastq, parts)), "parts = " + parts);
+	}
+
+
+	@Test
+	void splitMatchesSequentialReadAtEveryBoundary() throws IOException
+	{
+		Random random = new Random(31);
+		for(String newline : List.of("\n", "\r\n"))
+		{
+			Path fastq = write("random.fq", fastq(random, 60, newline));
+			Path fasta = write("random.fa", fasta(random, 60, newline));
+
+			for(Path path : List.of(fastq, fasta))
+			{
+				List<String> expected = records(List.of(SequenceReader.open(path)));
+				assertEquals(60, expected.size());
+				for(int parts = 1; parts <= 40; parts++)
+					assertEquals(expected, records(SequenceReader.split(path, parts)), path.getFileName() + ", parts = " + parts);
+			}
+		}
+	}
+
+
+	@Test
+	void readsGzipLikePlainInput() throws IOException
+	{
+		String text = fastq(new Random(7), 5000, "\n"); //several decompressed chunks
+		Path plain = write("reads.fq", text);
+		Path gzip = dir.resolve("reads.fq.gz");
+		try(OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip)))
+		{
+			out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+		}
+
+		List<String> expected = records(List.of(SequenceReader.open(plain)));
+		assertEquals(expected, records(List.of(SequenceReader.open(gzip))));
+		List<SequenceReader> split = SequenceReader.split(gzip, 4);
+		assertEquals(1, split.size());
+		assertEquals(expected, records(split));
+	}
+
+
+	@Test
+	void failsOnTruncatedOrCorruptGzip() throws IOException
+	{
+		String text = fastq(new Random(8), 20000, "\n"); //more than one decompressed chunk
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(OutputStream out = new GZIPOutputStream(bytes))
+		{
+			out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+		}
+		byte[] gzip = bytes.toByteArray();
+
+		for(int cut : new int[] {4, 12, gzip.length / 2})
+		{
+			Path truncated = Files.write(dir.resolve("truncated-" + cut + ".fq.gz"), Arrays.copyOf(gzip, gzip.length - cut));
+			assertThrows(IOException.class, () -> records(List.of(SequenceReader.open(truncated))), "cut = " + cut);
+		}
+		byte[] corrupt = gzip.clone();
+		corrupt[corrupt.length - 8] ^= 1; //CRC-32 of the trailer
+		Path path = Files.write(dir.resolve("corrupt.fq.gz"), corrupt);
+		assertThrows(IOException.class, () -> records(List.of(SequenceReader.open(path))));
+	}
+
+
+//================================| HELPERS |=================================//
+	private Path write(String name, String content) throws IOException
+	{
+		return Files.write(dir.resolve(name), content.getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+
+	/**
+	 * Returns FASTQ text whose quality lines often start with '@' or '+', the characters that make FASTQ record starts ambiguous
+	 */
+	private static String fastq(Random random, int count, String newline)
+	{
+		StringBuilder text = new StringBuilder();
+		for(int r = 0; r < count; r++)
+		{
+			int length = 1 + random.nextInt(40);
+			StringBuilder quality = new StringBuilder();
+			for(int i = 0; i < length; i++)
+				quality.append((random.nextInt(3) == 0) ? "@+I".charAt(random.nextInt(3)) : (char) ('!' + random.nextInt(40)));
+			text.append('@').append("read").append(r).append(newline).append(bases(random, length)).append(newline).append('+').append(newline).append(quality).append(newline);
+		}
+		return text.toString();
+	}
+
+
+	private static String fasta(Random random, int count, String newline)
+	{
+		StringBuilder text = new StringBuilder();
+		for(int r = 0; r < count; r++)
+		{
+			text.append('>').append("seq").append(r).append(newline);
+			for(int line = random.nextInt(4); line > 0; line--)
+				text.append(bases(random, 1 + random.nextInt(30))).append(newline);
+		}
+		return text.toString();
+	}
+
+
+	private static String bases(Random random, int length)
+	{
+		StringBuilder bases = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			bases.append("ACGTN".charAt(random.nextInt(5)));
+		return bases.toString();
+	}
+
+
+	/**
+	 * Reads every record of the given readers, in order, as "name:sequence[:quality]", and closes them
+	 */
+	private static List<String> records(List<SequenceReader> readers) throws IOException
+	{
+		List<String> records = new ArrayList<String>();
+		for(SequenceReader reader : readers)
+		{
+			try(reader)
+			{
+				for(SequenceRecord record; (record = reader.next()) != null; )
+					records.add(record.getName() + ":" + record.getSequence() + ((record.getQuality() == null) ? "" : ":" + record.getQuality()));
+			}
+		}
+		return records;
+	}
+
+
+	private static List<String> names(List<SequenceReader> readers) throws IOException
+	{
+		List<String> names = new ArrayList<String>();
+		for(String record : records(readers))
+			names.add(record.substring(0, record.indexOf(':')));
+		return names;
+	}
+} //end SequenceReaderTest class
@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class TranslatorTest
+{
+	private static final String TCAG = "TCAG";
+	private static final String NCBI_TABLE_1 = "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG"; //codons in TCAG order, as NCBI lists it
+
+	@Test
+	void translatesEveryCodonOfTheStandardCode()
+	{
+		for(int i = 0; i < 64; i++)
+		{
+			String codon = "" + TCAG.charAt(i / 16) + TCAG.charAt(i / 4 % 4) + TCAG.charAt(i % 4);
+			assertEquals(String.valueOf(NCBI_TABLE_1.charAt(i)), Translator.STANDARD.translate(codon, 1), codon);
+			assertEquals(String.valueOf(NCBI_TABLE_1.charAt(i)), Translator.STANDARD.translate(codon.toLowerCase(), 1), codon);
+		}
+		assertEquals("MX*", Translator.STANDARD.translate("ATGNNNTAA", 1));
+		assertEquals("X", Translator.STANDARD.translate("ARG", 1));
+		assertEquals("", Translator.STANDARD.translate("AT", 1));
+	}
+
+
+	@Test
+	void framesMatchTranslatingTheReverseComplement()
+	{
+		Random random = new Random(39);
+		for(int t = 0; t < 100; t++)
+		{
+			StringBuilder seq = new StringBuilder();
+			for(int j = random.nextInt(40); j > 0; j--)
+				seq.append("ACGTN".charAt(random.nextInt(5)));
+			Oligo oligo = new Oligo(seq.toString());
+			String reverse = oligo.antiparallel().toString();
+
+			String[] frames = Translator.STANDARD.translateSixFrames(seq);
+			for(int f = 0; f < 3; f++)
+			{
+				assertEquals(reference(seq.toString(), f), frames[f], seq + " frame " + (f + 1));
+				assertEquals(reference(reverse, f), frames[3 + f], seq + " frame " + -(f + 1));
+				assertEquals(frames[3 + f], Translator.STANDARD.translate(oligo, -(f + 1)));
+			}
+		}
+		assertEquals(List.of("MA*", "W"), Translator.STANDARD.translateAll(List.of("ATGGCCTAA", "TGG"), 1));
+	}
+
+
+	@Test
+	void findsOrfsOnBothStrandsWithForwardCoordinates()
+	{
+		//forward ORF ATG AAA TTT TAG at 2..13; reverse ORF ATG CCC GGG TGA, i.e. TCACCCGGGCAT on the forward strand, at 16..27
+		String seq = "CC" + "ATGAAATTTTAG" + "GG" + "TCACCCGGGCAT" + "T";
+		List<Translator.Orf> orfs = Translator.STANDARD.findOrfs(seq, 3);
+
+		assertEquals(2, orfs.size(), orfs.toString());
+		assertOrf(orfs.get(0), 3, 2, 13, "MKF");
+		assertOrf(orfs.get(1), -2, 16, 27, "MPG");
+		assertEquals("ATGAAATTTTAG", seq.substring(orfs.get(0).getStart(), orfs.get(0).getEnd() + 1));
+		assertEquals("ATGCCCGGGTGA", new Oligo(seq.substring(orfs.get(1).getStart(), orfs.get(1).getEnd() + 1)).antiparallel().toString());
+		assertEquals(List.of(), Translator.STANDARD.findOrfs(seq, 4)); //minLength excludes the stop
+		assertEquals(orfs.toString(), Translator.STANDARD.findOrfs(new Oligo(seq), 0).toString());
+	}
+
+
+	@Test
+	void orfsOpenAtTheFirstStartAndCloseAtTheNextStop()
+	{
+		List<Translator.Orf> orfs = Translator.STANDARD.findOrfs("ATGATGCCCTAAATGTTT", 0); //second ATG is inside the ORF; the last ORF never closes
+
+		assertEquals(1, orfs.size(), orfs.toString());
+		assertOrf(orfs.get(0), 1, 0, 11, "MMP");
+		assertEquals(List.of(), Translator.STANDARD.findOrfs("ATGAAA", 0));
+		assertEquals(List.of(), Translator.STANDARD.findOrfs("GTGAAATAA", 0));
+
+		Translator bacterial = Translator.STANDARD.withStartCodons("ATG", "GTG", "TTG");
+		assertOrf(bacterial.findOrfs("GTGAAATAA", 0).get(0), 1, 0, 8, "MK"); //alternative starts translate as methionine
+		assertEquals("VK*", bacterial.translate("GTGAAATAA", 1));
+	}
+
+
+	@Test
+	void rejectsInvalidArguments()
+	{
+		assertThrows(IllegalArgumentException.class, () -> Translator.STANDARD.translate("ATG", 0));
+		assertThrows(IllegalArgumentException.class, () -> Translator.STANDARD.translate("ATG", 4));
+		assertThrows(IllegalArgumentException.class, () -> Translator.STANDARD.translate("ATX", 1));
+		assertThrows(IllegalArgumentException.class, () -> Translator.STANDARD.withStartCodons("AT"));
+		assertThrows(IllegalArgumentException.class, () -> Translator.STANDARD.withStartCodons("ANG"));
+		assertThrows(IllegalArgumentException.class, () -> Translator.STANDARD.withCodonTable("M"));
+	}
+
+
+//================================| HELPERS |=================================//
+	/**
+	 * Translates seq from offset with the NCBI table, codon by codon
+	 */
+	private static String reference(String seq, int offset)
+	{
+		StringBuilder protein = new StringBuilder();
+		for(int i = offset; i + 3 <= seq.length(); i += 3)
+		{
+			int a = TCAG.indexOf(Character.toUpperCase(seq.charAt(i)));
+			int b = TCAG.indexOf(Character.toUpperCase(seq.charAt(i + 1)));
+			int c = TCAG.indexOf(Character.toUpperCase(seq.charAt(i + 2)));
+			protein.append((a < 0 || b < 0 || c < 0) ? 'X' : NCBI_TABLE_1.charAt(16 * a + 4 * b + c));
+		}
+		return protein.toString();
+	}
+
+
+	private static void assertOrf(Translator.Orf orf, int frame, int start, int end, String protein)
+	{
+		assertEquals(frame, orf.getFrame(), orf.toString());
+		assertEquals(start, orf.getStart(), orf.toString());
+		assertEquals(end, orf.getEnd(), orf.toString());
+		assertEquals(protein, orf.getProtein(), orf.toString());
+	}
+} //end TranslatorTest class
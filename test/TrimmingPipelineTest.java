@@ -0,0 +1,150 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrimmingPipelineTest
+{
+	private static final String ADAPTER = "AGATCGGAAGAGC";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void cutsAtFullAndPartialAdapterMatches()
+	{
+		TrimmingPipeline pipeline = new TrimmingPipeline(List.of(new Oligo(ADAPTER)), 1);
+
+		assertEquals(6, pipeline.adapterCut("ACGTAC" + ADAPTER + "TTTT"));
+		assertEquals(6, pipeline.adapterCut("ACGTAC" + "AGATCGGTAGAGC")); //one mismatch
+		assertEquals(8, pipeline.adapterCut("ACGTACGT" + "AGATC")); //partial 3' overlap
+		assertEquals(12, pipeline.adapterCut("ACGTACGTAC" + "AG")); //shorter than minOverlap
+		assertEquals(0, pipeline.adapterCut(""));
+	}
+
+
+	@Test
+	void matchesDegenerateAdapterBasesByMask()
+	{
+		TrimmingPipeline pipeline = new TrimmingPipeline(List.of(new Oligo("AGATCGGRAGYGC")), 0);
+
+		assertEquals(6, pipeline.adapterCut("ACGTAC" + "AGATCGGAAGCGC"));
+		assertEquals(6, pipeline.adapterCut("ACGTAC" + "agatcggGagTgc"));
+		assertEquals(19, pipeline.adapterCut("ACGTAC" + "AGATCGGCAGCGC")); //C is not R
+		assertEquals(8, pipeline.adapterCut("ACGTACGT" + "AGATCGGG")); //partial 3' overlap through the R
+	}
+
+
+	@Test
+	void qualityTrimsFromTheThreePrimeEnd()
+	{
+		TrimmingPipeline pipeline = new TrimmingPipeline(List.of(new Oligo(ADAPTER)), 1).withQualityCutoff(20);
+
+		assertEquals(8, pipeline.qualityCut("IIIIIIII", 8));
+		assertEquals(5, pipeline.qualityCut("IIIII###", 8));
+		assertEquals(6, pipeline.qualityCut("IIII#I##", 8)); //keeping the lone 'I' costs more than it gains
+		assertEquals(8, new TrimmingPipeline(List.of(new Oligo(ADAPTER)), 1).qualityCut("########", 8)); //cutoff 0 disables
+	}
+
+
+	@Test
+	void writesTrimmedReadsInInputOrder() throws IOException, InterruptedException
+	{
+		Random random = new Random(41);
+		StringBuilder input = new StringBuilder();
+		for(int r = 0; r < 4000; r++)
+		{
+			String insert = bases(random, random.nextInt(60));
+			String read = insert + ADAPTER.substring(0, random.nextInt(ADAPTER.length() + 1)) + bases(random, random.nextInt(10));
+			StringBuilder quality = new StringBuilder();
+			for(int i = 0; i < read.length(); i++)
+				quality.append((char) ('#' + random.nextInt(40)));
+			input.append("@read").append(r).append('\n').append(read).append("\n+\n").append(quality).append('\n');
+		}
+		Path fastq = write("reads.fq", input.toString());
+
+		TrimmingPipeline sequential = new TrimmingPipeline(List.of(new Oligo(ADAPTER)), 1).withQualityCutoff(15).withMinLength(20).withThreads(1).withBatchSize(4000);
+		Path expected = dir.resolve("expected.fq");
+		TrimmingPipeline.Stats expectedStats = sequential.run(fastq, expected);
+		String trimmed = Files.readString(expected, StandardCharsets.ISO_8859_1);
+		assertEquals(expectedTrim(sequential, input.toString()), trimmed);
+
+		for(int threads : new int[] {2, 4, 8})
+		{
+			Path output = dir.resolve("trimmed-" + threads + ".fq");
+			TrimmingPipeline.Stats stats = sequential.withThreads(threads).withBatchSize(7).run(fastq, output);
+			assertEquals(trimmed, Files.readString(output, StandardCharsets.ISO_8859_1), "threads = " + threads);
+			assertEquals(4000, stats.getRecords(TrimmingPipeline.Stage.READ));
+			assertEquals(4000, stats.getRecords(TrimmingPipeline.Stage.TRIM));
+			assertEquals(expectedStats.getRecords(TrimmingPipeline.Stage.WRITE), stats.getRecords(TrimmingPipeline.Stage.WRITE));
+			assertEquals(4000 - stats.getRecords(TrimmingPipeline.Stage.WRITE), stats.getDiscarded());
+		}
+	}
+
+
+	@Test
+	void keepsFastaAsFasta() throws IOException, InterruptedException
+	{
+		Path fasta = write("reads.fa", ">a\nACGTACGTAC" + ADAPTER + "\n>b\nTTTTGGGGCCCC\n>c\nAC" + ADAPTER + "\n");
+		Path output = dir.resolve("trimmed.fa");
+
+		new TrimmingPipeline(List.of(new Oligo(ADAPTER)), 0).withMinLength(3).withThreads(2).withBatchSize(1).run(fasta, output);
+		assertEquals(">a\nACGTACGTAC\n>b\nTTTTGGGGCCCC\n", Files.readString(output, StandardCharsets.ISO_8859_1));
+	}
+
+
+	@Test
+	void runFailsWhenAWorkerFails() throws IOException
+	{
+		Path fastq = write("reads.fq", "@r1\nACGTACGT\n+\nIIIIIIII\n@r2\nACGTACGT\n+\nIIIIIIII\n");
+		Oligo failing = new Oligo(ADAPTER)
+		{
+			@Override
+			public String toString()
+			{
+				throw new IllegalStateException("adapter failure");
+			}
+		};
+		TrimmingPipeline pipeline = new TrimmingPipeline(List.of(failing), 1).withThreads(4).withBatchSize(1);
+
+		assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThrows(IllegalStateException.class, () -> pipeline.run(fastq, dir.resolve("trimmed.fq"))));
+	}
+
+
+//================================| HELPERS |=================================//
+	private Path write(String name, String content) throws IOException
+	{
+		return Files.write(dir.resolve(name), content.getBytes(StandardCharsets.ISO_8859_1));
+	}
+
+
+	private static String bases(Random random, int length)
+	{
+		StringBuilder bases = new StringBuilder();
+		for(int i = 0; i < length; i++)
+			bases.append("ACGT".charAt(random.nextInt(4)));
+		return bases.toString();
+	}
+
+
+	/**
+	 * Trims four-line FASTQ text record by record with the pipeline's own cut methods
+	 */
+	private static String expectedTrim(TrimmingPipeline pipeline, String fastq)
+	{
+		String[] lines = fastq.split("\n");
+		StringBuilder output = new StringBuilder();
+		for(int i = 0; i + 3 < lines.length; i += 4)
+		{
+			int cut = pipeline.qualityCut(lines[i + 3], pipeline.adapterCut(lines[i + 1]));
+			if(cut >= 20)
+				output.append(lines[i]).append('\n').append(lines[i + 1], 0, cut).append("\n+\n").append(lines[i + 3], 0, cut).append('\n');
+		}
+		return output.toString();
+	}
+} //end TrimmingPipelineTest class